@@ -0,0 +1,351 @@
+package com.example.user_service.archive;
+
+import com.example.user_service.dto.LoginHistory;
+import com.google.common.net.InetAddresses;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Columnar file holding one month of login history. After a short header every column is stored as its own
+ * deflate-compressed block, so a search decodes the user id and login time columns first and only touches the
+ * rest when a row matches. Rows are written in login time order and each column uses an encoding that suits
+ * its values:
+ * <ul>
+ *     <li>login time, id and user id as variable-length deltas from the previous row (times in microseconds);</li>
+ *     <li>IP as a length byte (0, 4 or 16) followed by the raw address;</li>
+ *     <li>user agent as an index into a dictionary block written after the rows;</li>
+ *     <li>success as a bitset.</li>
+ * </ul>
+ */
+final class ArchiveFile {
+
+    static final String EXTENSION = ".lha";
+
+    private static final int MAGIC = 0x4C484131; // "LHA1"
+
+    private enum Column { LOGIN_TIME, ID, USER_ID, IP, USER_AGENT, SUCCESS, USER_AGENTS }
+
+    private ArchiveFile() {
+    }
+
+    /**
+     * Returns at most {@code limit} rows of {@code file} that match {@code query}, newest first. Only the column
+     * blocks needed are read, and only the returned rows are decoded in full.
+     */
+    static List<LoginHistory> scan(Path file, ArchiveQuery query, int limit) throws IOException {
+        try (Blocks blocks = Blocks.open(file)) {
+            int rows = blocks.rows;
+            long[] times = new long[rows];
+            long[] userIds = new long[rows];
+            try (DataInputStream timeColumn = blocks.open(Column.LOGIN_TIME); DataInputStream users = blocks.open(Column.USER_ID)) {
+                long time = 0;
+                long userId = 0;
+                for (int row = 0; row < rows; row++) {
+                    time += readSigned(timeColumn);
+                    userId += readSigned(users);
+                    times[row] = time;
+                    userIds[row] = userId;
+                }
+            }
+            // Rows are in login time order: the range is a slice found by binary search, and walking it backwards
+            // meets the newest rows first.
+            int first = query.from() == null ? 0 : firstAtOrAfter(times, toMicros(query.from()));
+            int last = query.to() == null ? rows : firstAtOrAfter(times, toMicros(query.to()));
+            BitSet matches = new BitSet(rows);
+            int found = 0;
+            for (int row = last - 1; row >= first && found < limit; row--) {
+                if (query.userId() == null || query.userId() == userIds[row]) {
+                    matches.set(row);
+                    found++;
+                }
+            }
+            if (matches.isEmpty()) {
+                return List.of();
+            }
+            List<String> userAgents = new ArrayList<>();
+            try (DataInputStream dictionary = blocks.open(Column.USER_AGENTS)) {
+                int size = (int) readUnsigned(dictionary);
+                for (int i = 0; i < size; i++) {
+                    byte[] value = new byte[(int) readUnsigned(dictionary)];
+                    dictionary.readFully(value);
+                    userAgents.add(new String(value, StandardCharsets.UTF_8));
+                }
+            }
+            List<LoginHistory> logins = new ArrayList<>(found);
+            try (DataInputStream ids = blocks.open(Column.ID);
+                 DataInputStream ips = blocks.open(Column.IP);
+                 DataInputStream agents = blocks.open(Column.USER_AGENT);
+                 DataInputStream successes = blocks.open(Column.SUCCESS)) {
+                long id = 0;
+                int successBits = 0;
+                for (int row = 0, end = matches.length(); row < end; row++) {
+                    id += readSigned(ids);
+                    int addressLength = ips.readUnsignedByte();
+                    int agent = (int) readUnsigned(agents);
+                    if (row % 8 == 0) {
+                        successBits = successes.readUnsignedByte();
+                    }
+                    if (!matches.get(row)) {
+                        ips.skipNBytes(addressLength);
+                        continue;
+                    }
+                    byte[] address = new byte[addressLength];
+                    ips.readFully(address);
+                    logins.add(new LoginHistory(id, userIds[row], toLocalDateTime(times[row]), toHostAddress(address),
+                            agent == 0 ? null : userAgents.get(agent - 1), (successBits & (1 << (row % 8))) != 0));
+                }
+            }
+            Collections.reverse(logins);
+            return logins;
+        }
+    }
+
+    /**
+     * Collects rows column by column in compressed buffers; {@link #finish} writes them out as one file.
+     * Rows must be added in login time order.
+     */
+    static final class Writer implements Closeable {
+
+        private final EnumMap<Column, ByteArrayOutputStream> buffers = new EnumMap<>(Column.class);
+        private final EnumMap<Column, DataOutputStream> columns = new EnumMap<>(Column.class);
+        private final List<Deflater> deflaters = new ArrayList<>();
+        private final Map<String, Integer> userAgents = new LinkedHashMap<>();
+
+        private long rows;
+        private long previousTime;
+        private long previousId;
+        private long previousUserId;
+        private int successBits;
+        private long minId = Long.MAX_VALUE;
+        private long maxId = Long.MIN_VALUE;
+        private long minUserId = Long.MAX_VALUE;
+        private long maxUserId = Long.MIN_VALUE;
+        private LocalDateTime minLoginTime;
+        private LocalDateTime maxLoginTime;
+
+        Writer() {
+            for (Column column : Column.values()) {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+                deflaters.add(deflater);
+                buffers.put(column, buffer);
+                columns.put(column, new DataOutputStream(new BufferedOutputStream(new DeflaterOutputStream(buffer, deflater))));
+            }
+        }
+
+        void add(LoginHistory login) throws IOException {
+            long time = toMicros(login.getLoginTime());
+            writeSigned(columns.get(Column.LOGIN_TIME), time - previousTime);
+            writeSigned(columns.get(Column.ID), login.getId() - previousId);
+            writeSigned(columns.get(Column.USER_ID), login.getUserId() - previousUserId);
+            byte[] address = toAddress(login.getIp());
+            columns.get(Column.IP).writeByte(address.length);
+            columns.get(Column.IP).write(address);
+            writeUnsigned(columns.get(Column.USER_AGENT), login.getUserAgent() == null
+                    ? 0 : userAgents.computeIfAbsent(login.getUserAgent(), key -> userAgents.size() + 1));
+            if (login.isSuccess()) {
+                successBits |= 1 << (rows % 8);
+            }
+            if (rows % 8 == 7) {
+                columns.get(Column.SUCCESS).writeByte(successBits);
+                successBits = 0;
+            }
+            previousTime = time;
+            previousId = login.getId();
+            previousUserId = login.getUserId();
+            minId = Math.min(minId, login.getId());
+            maxId = Math.max(maxId, login.getId());
+            minUserId = Math.min(minUserId, login.getUserId());
+            maxUserId = Math.max(maxUserId, login.getUserId());
+            if (minLoginTime == null) {
+                minLoginTime = login.getLoginTime();
+            }
+            maxLoginTime = login.getLoginTime();
+            rows++;
+        }
+
+        long rows() {
+            return rows;
+        }
+
+        /**
+         * Writes the file through a temporary sibling, so a crash never leaves a truncated archive behind,
+         * and returns its index entry. Must not be called without rows.
+         */
+        ArchiveSegment finish(Path file, YearMonth month) throws IOException {
+            if (rows % 8 != 0) {
+                columns.get(Column.SUCCESS).writeByte(successBits);
+            }
+            DataOutputStream dictionary = columns.get(Column.USER_AGENTS);
+            writeUnsigned(dictionary, userAgents.size());
+            for (String userAgent : userAgents.keySet()) {
+                byte[] value = userAgent.getBytes(StandardCharsets.UTF_8);
+                writeUnsigned(dictionary, value.length);
+                dictionary.write(value);
+            }
+            for (DataOutputStream column : columns.values()) {
+                column.close();
+            }
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt((int) rows);
+                for (Column column : Column.values()) {
+                    ByteArrayOutputStream buffer = buffers.get(column);
+                    out.writeInt(buffer.size());
+                    buffer.writeTo(out);
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new ArchiveSegment(file.getFileName().toString(), month, rows, minId, maxId, minUserId, maxUserId,
+                    minLoginTime, maxLoginTime);
+        }
+
+        @Override
+        public void close() {
+            deflaters.forEach(Deflater::end);
+        }
+    }
+
+    /**
+     * Header of an open archive file; column blocks are read on demand, so a scan never loads the columns it skips.
+     */
+    private static final class Blocks implements Closeable {
+
+        private final FileChannel channel;
+        private final int rows;
+        private final long[] offsets;
+        private final int[] lengths;
+
+        private Blocks(FileChannel channel, int rows, long[] offsets, int[] lengths) {
+            this.channel = channel;
+            this.rows = rows;
+            this.offsets = offsets;
+            this.lengths = lengths;
+        }
+
+        static Blocks open(Path file) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                ByteBuffer header = ByteBuffer.allocate(8);
+                readFully(channel, header, 0);
+                if (header.getInt(0) != MAGIC) {
+                    throw new IOException(file + " is not a login history archive");
+                }
+                long[] offsets = new long[Column.values().length];
+                int[] lengths = new int[offsets.length];
+                ByteBuffer length = ByteBuffer.allocate(4);
+                long offset = 8;
+                for (int i = 0; i < offsets.length; i++) {
+                    readFully(channel, length.clear(), offset);
+                    lengths[i] = length.getInt(0);
+                    offsets[i] = offset + 4;
+                    offset = offsets[i] + lengths[i];
+                }
+                return new Blocks(channel, header.getInt(4), offsets, lengths);
+            } catch (IOException | RuntimeException exception) {
+                channel.close();
+                throw exception;
+            }
+        }
+
+        DataInputStream open(Column column) throws IOException {
+            int index = column.ordinal();
+            ByteBuffer block = ByteBuffer.allocate(lengths[index]);
+            readFully(channel, block, offsets[index]);
+            return new DataInputStream(new BufferedInputStream(new InflaterInputStream(
+                    new ByteArrayInputStream(block.array()))));
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new EOFException("Login history archive is truncated");
+                }
+            }
+        }
+    }
+
+    private static int firstAtOrAfter(long[] times, long time) {
+        int low = 0;
+        int high = times.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (times[middle] < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime toLocalDateTime(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000), (int) Math.floorMod(micros, 1_000_000) * 1_000,
+                ZoneOffset.UTC);
+    }
+
+    private static byte[] toAddress(String ip) {
+        if (ip == null || !InetAddresses.isInetAddress(ip)) {
+            return new byte[0];
+        }
+        return InetAddresses.forString(ip).getAddress();
+    }
+
+    private static String toHostAddress(byte[] address) throws UnknownHostException {
+        return address.length == 0 ? null : InetAddress.getByAddress(address).getHostAddress();
+    }
+
+    private static void writeSigned(DataOutputStream out, long value) throws IOException {
+        writeUnsigned(out, (value << 1) ^ (value >> 63));
+    }
+
+    private static long readSigned(DataInputStream in) throws IOException {
+        long value = readUnsigned(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeUnsigned(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readUnsigned(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.user_service.archive;
+
+import java.time.LocalDateTime;
+
+/**
+ * Search over archived logins; null criteria match everything, but at least one must be given. {@code to} is exclusive.
+ */
+public record ArchiveQuery(Long userId, LocalDateTime from, LocalDateTime to) {
+}
@@ -0,0 +1,34 @@
+package com.example.user_service.archive;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Index entry of one archive file: its month and the range of every column a search filters on, so files that
+ * cannot contain a match are skipped without being opened.
+ */
+public record ArchiveSegment(String file, YearMonth month, long rows,
+                             long minId, long maxId,
+                             long minUserId, long maxUserId,
+                             LocalDateTime minLoginTime, LocalDateTime maxLoginTime) {
+
+    static final String HEADER = "file,month,rows,minId,maxId,minUserId,maxUserId,minLoginTime,maxLoginTime";
+
+    boolean mayContain(ArchiveQuery query) {
+        return (query.userId() == null || (query.userId() >= minUserId && query.userId() <= maxUserId))
+                && (query.from() == null || !maxLoginTime.isBefore(query.from()))
+                && (query.to() == null || minLoginTime.isBefore(query.to()));
+    }
+
+    String toCsv() {
+        return String.join(",", file, month.toString(), Long.toString(rows), Long.toString(minId), Long.toString(maxId),
+                Long.toString(minUserId), Long.toString(maxUserId), minLoginTime.toString(), maxLoginTime.toString());
+    }
+
+    static ArchiveSegment fromCsv(String line) {
+        String[] values = line.split(",");
+        return new ArchiveSegment(values[0], YearMonth.parse(values[1]), Long.parseLong(values[2]),
+                Long.parseLong(values[3]), Long.parseLong(values[4]), Long.parseLong(values[5]), Long.parseLong(values[6]),
+                LocalDateTime.parse(values[7]), LocalDateTime.parse(values[8]));
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.user_service.archive;
+
+import com.example.user_service.datasource.AdvisoryLock;
+import com.example.user_service.dto.LoginHistory;
+import com.example.user_service.exception.ApiException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Cold tier of the login history. {@link #archive} copies a monthly partition into an {@link ArchiveFile} and
+ * records its min/max values in {@code index.csv}; {@link #search} uses that index to pick the files that may
+ * hold matching rows and scans them in parallel, newest month first. Once a month is archived its partition can be dropped.
+ * The directory is shared by every instance: one of them archives at a time under an advisory lock, and the others
+ * reread the index once its modification time changes.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class LoginHistoryArchive {
+
+    static final String INDEX_FILE = "index.csv";
+
+    static final long LOCK_KEY = "login_history_archive".hashCode();
+
+    private static final String PARTITION_ROWS = """
+            SELECT l.id, l.user_id, l.login_time, l.ip, ua.user_agent, l.success
+            FROM %s l
+                     LEFT JOIN user_agents ua ON ua.id = l.user_agent_id
+            ORDER BY l.login_time, l.id
+            """;
+
+    private static final Comparator<LoginHistory> NEWEST_FIRST =
+            Comparator.comparing(LoginHistory::getLoginTime).thenComparing(LoginHistory::getId).reversed();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LoginHistoryArchiveProperties properties;
+    private final AdvisoryLock lock;
+
+    private volatile List<ArchiveSegment> segments = List.of();
+    private volatile FileTime indexModified;
+    private ExecutorService scanExecutor;
+
+    @PostConstruct
+    void start() throws IOException {
+        reloadIndexIfChanged();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("login-archive-scan-");
+        threadFactory.setDaemon(true);
+        scanExecutor = Executors.newFixedThreadPool(properties.getScanThreads(), threadFactory);
+    }
+
+    @PreDestroy
+    void stop() {
+        scanExecutor.shutdownNow();
+    }
+
+    public List<ArchiveSegment> getSegments() {
+        return segments;
+    }
+
+    /**
+     * Writes every row of {@code table} to the archive file of {@code month}, replacing an earlier archive of
+     * the same month, and returns the number of rows archived. The table is left untouched. Fails while another
+     * instance is archiving, since both would rewrite the same index.
+     */
+    public long archive(String table, YearMonth month) throws IOException {
+        try {
+            return lock.callIfFree(LOCK_KEY, () -> {
+                try {
+                    return write(table, month);
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            }).orElseThrow(() -> new IOException("Another instance is archiving login history"));
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+    }
+
+    private synchronized long write(String table, YearMonth month) throws IOException {
+        // Start from the index as it is on the volume, not as this instance last saw it.
+        reloadIndexIfChanged();
+        Path file = properties.getDirectory().resolve(table + ArchiveFile.EXTENSION);
+        try (ArchiveFile.Writer writer = new ArchiveFile.Writer()) {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement(String.format(PARTITION_ROWS, table));
+                // Postgres only streams with a fetch size inside a transaction; otherwise the whole month is buffered.
+                statement.setFetchSize(properties.getFetchSize());
+                return statement;
+            }, resultSet -> {
+                try {
+                    writer.add(toLoginHistory(resultSet));
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            }));
+            if (writer.rows() == 0) {
+                log.info("Partition {} is empty; nothing to archive", table);
+                return 0;
+            }
+            ArchiveSegment segment = writer.finish(file, month);
+            List<ArchiveSegment> updated = new ArrayList<>(segments.stream()
+                    .filter(existing -> !existing.file().equals(segment.file())).toList());
+            updated.add(segment);
+            updated.sort(Comparator.comparing(ArchiveSegment::month));
+            writeIndex(updated);
+            segments = List.copyOf(updated);
+            indexModified = Files.getLastModifiedTime(properties.getDirectory().resolve(INDEX_FILE));
+            log.info("Archived {} rows of {} to {} ({} bytes)", segment.rows(), table, file, Files.size(file));
+            return segment.rows();
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+    }
+
+    /**
+     * Returns archived logins matching {@code query}, newest first, up to {@code login-history.archive.max-results}.
+     * Each file returns only its newest matches, and older months are not waited for once they cannot make the cut.
+     */
+    public List<LoginHistory> search(ArchiveQuery query) {
+        try {
+            reloadIndexIfChanged();
+        } catch (IOException exception) {
+            log.warn("Could not reread the login history archive index; searching the months known so far", exception);
+        }
+        int limit = properties.getMaxResults();
+        List<ArchiveSegment> candidates = segments.stream()
+                .filter(segment -> segment.mayContain(query))
+                .sorted(Comparator.comparing(ArchiveSegment::maxLoginTime).reversed())
+                .toList();
+        List<Future<List<LoginHistory>>> scans = candidates.stream()
+                .map(segment -> scanExecutor.submit(
+                        () -> ArchiveFile.scan(properties.getDirectory().resolve(segment.file()), query, limit)))
+                .toList();
+        List<LoginHistory> logins = new ArrayList<>();
+        try {
+            for (int i = 0; i < scans.size(); i++) {
+                if (logins.size() == limit && candidates.get(i).maxLoginTime().isBefore(logins.get(limit - 1).getLoginTime())) {
+                    break;
+                }
+                logins.addAll(scans.get(i).get());
+                logins.sort(NEWEST_FIRST);
+                if (logins.size() > limit) {
+                    logins.subList(limit, logins.size()).clear();
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("Login history archive search was interrupted");
+        } catch (ExecutionException exception) {
+            log.error("Could not scan the login history archive", exception.getCause());
+            throw new ApiException("Could not read the login history archive");
+        } finally {
+            scans.forEach(scan -> scan.cancel(true));
+        }
+        return logins;
+    }
+
+    /**
+     * Rereads {@code index.csv} when its modification time differs from the one last read, which is how months
+     * archived by another instance become searchable here.
+     */
+    private synchronized void reloadIndexIfChanged() throws IOException {
+        Path index = properties.getDirectory().resolve(INDEX_FILE);
+        FileTime modified = Files.exists(index) ? Files.getLastModifiedTime(index) : null;
+        if (Objects.equals(modified, indexModified)) {
+            return;
+        }
+        if (modified == null) {
+            segments = List.of();
+        } else {
+            try (Stream<String> lines = Files.lines(index)) {
+                segments = lines.skip(1).filter(line -> !line.isBlank()).map(ArchiveSegment::fromCsv).toList();
+            }
+            log.info("Loaded {} archived login history months from {}", segments.size(), properties.getDirectory());
+        }
+        indexModified = modified;
+    }
+
+    private void writeIndex(List<ArchiveSegment> updated) throws IOException {
+        Path index = properties.getDirectory().resolve(INDEX_FILE);
+        Path temporary = index.resolveSibling(INDEX_FILE + ".tmp");
+        List<String> lines = new ArrayList<>();
+        lines.add(ArchiveSegment.HEADER);
+        updated.forEach(segment -> lines.add(segment.toCsv()));
+        Files.write(temporary, lines);
+        Files.move(temporary, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static LoginHistory toLoginHistory(ResultSet resultSet) throws SQLException {
+        String ip = resultSet.getString("ip");
+        // inet renders host addresses without a mask, but strip one in case a network was stored.
+        if (ip != null && ip.indexOf('/') > 0) {
+            ip = ip.substring(0, ip.indexOf('/'));
+        }
+        return LoginHistory.builder()
+                .id(resultSet.getLong("id"))
+                .userId(resultSet.getLong("user_id"))
+                .loginTime(resultSet.getTimestamp("login_time").toLocalDateTime())
+                .ip(ip)
+                .userAgent(resultSet.getString("user_agent"))
+                .success(resultSet.getBoolean("success"))
+                .build();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.user_service.archive;
+
+import com.example.user_service.datasource.AdvisoryLock;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(LoginHistoryArchiveProperties.class)
+public class LoginHistoryArchiveConfig {
+
+    @Bean
+    public LoginHistoryArchive loginHistoryArchive(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                                   LoginHistoryArchiveProperties properties, DataSource dataSource) {
+        return new LoginHistoryArchive(jdbcTemplate, transactionTemplate, properties, new AdvisoryLock(dataSource));
+    }
+}
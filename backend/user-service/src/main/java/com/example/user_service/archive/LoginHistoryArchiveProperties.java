@@ -0,0 +1,35 @@
+package com.example.user_service.archive;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "login-history.archive")
+public class LoginHistoryArchiveProperties {
+
+    /**
+     * Directory holding one archive file per month and the {@code index.csv} of their min/max values. Every
+     * instance reads it and any of them may write it, so it has to be one volume shared by all of them; with
+     * retention action ARCHIVE it must exist at startup.
+     */
+    private Path directory = Path.of("login-history-archive");
+
+    /**
+     * Archive files scanned at the same time by one search.
+     */
+    private int scanThreads = 4;
+
+    /**
+     * Most rows one search returns, newest first.
+     */
+    private int maxResults = 10_000;
+
+    /**
+     * Rows fetched per round trip while a partition is being archived.
+     */
+    private int fetchSize = 10_000;
+}
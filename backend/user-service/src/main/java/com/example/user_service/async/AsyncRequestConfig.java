@@ -0,0 +1,94 @@
+package com.example.user_service.async;
+
+import com.example.user_service.domain.RequestContext;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Runs login and refresh, through {@link AsyncRequests}, on a bounded pool of their own with a short timeout.
+ * A slow database then ties up these threads rather than the container's, so other endpoints and probes keep
+ * being answered, and once the queue is full further requests are rejected instead of piling up. Every other
+ * asynchronous handler, notably the streaming exports, runs on a separate stream pool without that timeout, so
+ * a long export is neither cut off nor competes with logins.
+ */
+@Configuration
+@EnableConfigurationProperties(AsyncRequestProperties.class)
+public class AsyncRequestConfig implements WebMvcConfigurer {
+
+    private final AsyncRequestProperties properties;
+    private final ThreadPoolTaskExecutor executor;
+    private final ThreadPoolTaskExecutor streamExecutor;
+
+    public AsyncRequestConfig(AsyncRequestProperties properties) {
+        this.properties = properties;
+        this.executor = createExecutor("async-request-", properties.getThreads(), properties.getQueueCapacity());
+        this.streamExecutor = createExecutor("async-stream-", properties.getStreamThreads(), properties.getStreamQueueCapacity());
+    }
+
+    static ThreadPoolTaskExecutor createExecutor(String threadNamePrefix, int threads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setDaemon(true);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public AsyncRequests asyncRequests() {
+        return new AsyncRequests(executor, properties.getTimeout());
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamExecutor);
+        // A non-positive timeout leaves streams without one; the container default would cut long exports off.
+        configurer.setDefaultTimeout(properties.getStreamTimeout() == null ? -1 : properties.getStreamTimeout().toMillis());
+        configurer.registerCallableInterceptors(new RequestContextInterceptor());
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+        streamExecutor.shutdown();
+    }
+
+    /**
+     * Carries the user id set by the authentication filter to the handler thread, for auditing and
+     * read-your-writes routing.
+     */
+    static class RequestContextInterceptor implements CallableProcessingInterceptor {
+
+        private static final String USER_ID_ATTRIBUTE = RequestContextInterceptor.class.getName() + ".userId";
+
+        @Override
+        public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+            Long userId = RequestContext.getUserId();
+            if (userId != null) {
+                request.setAttribute(USER_ID_ATTRIBUTE, userId, RequestAttributes.SCOPE_REQUEST);
+            }
+        }
+
+        @Override
+        public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+            RequestContext.setUserId((Long) request.getAttribute(USER_ID_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+        }
+
+        @Override
+        public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+            RequestContext.setUserId(null);
+        }
+    }
+}
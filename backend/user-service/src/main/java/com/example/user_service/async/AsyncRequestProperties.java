@@ -0,0 +1,44 @@
+package com.example.user_service.async;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "async-requests")
+public class AsyncRequestProperties {
+
+    /**
+     * Threads running asynchronous handlers (login, refresh). Kept below the connection pool size so
+     * these endpoints cannot starve the rest of the service of connections.
+     */
+    private int threads = 8;
+
+    /**
+     * Requests waiting for a handler thread; beyond that they are rejected with 503 instead of queueing up.
+     */
+    private int queueCapacity = 200;
+
+    /**
+     * Time after which a waiting or running handler is answered with 503.
+     */
+    private Duration timeout = Duration.ofSeconds(10);
+
+    /**
+     * Threads writing streaming responses such as the login history export, separate from the login pool.
+     */
+    private int streamThreads = 4;
+
+    /**
+     * Streams waiting for a thread; beyond that they are rejected with 503.
+     */
+    private int streamQueueCapacity = 20;
+
+    /**
+     * Time after which a stream is cut off; unset, streams run until they are done however large the export.
+     */
+    private Duration streamTimeout;
+}
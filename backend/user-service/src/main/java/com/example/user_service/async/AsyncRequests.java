@@ -0,0 +1,26 @@
+package com.example.user_service.async;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Wraps a handler in a {@link WebAsyncTask} on the bounded auth request pool and its timeout, so only the
+ * handlers that opt in share that pool; streaming responses keep the default async executor.
+ */
+public class AsyncRequests {
+
+    private final AsyncTaskExecutor executor;
+    private final long timeoutMillis;
+
+    public AsyncRequests(AsyncTaskExecutor executor, Duration timeout) {
+        this.executor = executor;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    public <T> WebAsyncTask<T> run(Callable<T> handler) {
+        return new WebAsyncTask<>(timeoutMillis, executor, handler);
+    }
+}
@@ -1,18 +1,43 @@
 package com.example.user_service.cache;
 
+import com.example.user_service.dto.UserView;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.Optional;
 
 import static com.example.user_service.constant.Constants.EXPIRE_DURATION;
 
 @Configuration
+@EnableConfigurationProperties(CacheProperties.class)
 public class CacheConfig {
 
+    static final String USER_LOGIN = "user-login";
+    static final String USER_PROFILE = "user-profile";
+
     @Bean(name = "userLoginCache")
-    public CacheStore<String, Integer> cacheStore() {
-        return new CacheStore<>(EXPIRE_DURATION, TimeUnit.SECONDS);
+    public CacheStore<String, Integer> cacheStore(CacheProperties properties) {
+        return CacheStore.of(properties.getStore(USER_LOGIN, CacheSpec.of(Duration.ofSeconds(EXPIRE_DURATION), 100_000L)),
+                CacheWeights::loginAttempts);
+    }
+
+    /**
+     * Shares profiles through Redis when {@code redis.enabled} provides a {@link RedisProfileTier}.
+     */
+    @Bean
+    public UserProfileCache userProfileCache(CacheProperties properties, ObjectProvider<RedisProfileTier> redisProfileTier) {
+        return new UserProfileCache(properties.getStore(USER_PROFILE, CacheSpec.of(Duration.ofMinutes(5), 50_000L)),
+                redisProfileTier.getIfAvailable());
     }
 
+    /**
+     * Coalesces concurrent database reads of the same user; keys are prefixed with what they look up by.
+     */
+    @Bean
+    public SingleFlight<String, Optional<UserView>> userLookups(CacheProperties properties) {
+        return new SingleFlight<>(properties.getSingleFlightTimeout(), properties.getSingleFlightMaxLoads());
+    }
 }
@@ -0,0 +1,46 @@
+package com.example.user_service.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cache")
+public class CacheProperties {
+
+    /**
+     * Time to live and size or weight bound per cache name, e.g. {@code cache.stores.user-login.ttl}.
+     */
+    private Map<String, CacheSpec> stores = new HashMap<>();
+
+    /**
+     * How long a lookup waits for an identical lookup already running on another thread before giving up.
+     */
+    private Duration singleFlightTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Database lookups of users run at once, token checks included. Kept below the connection pool size, so under
+     * a slow database further lookups are answered with 503 right away instead of holding container threads.
+     */
+    private int singleFlightMaxLoads = 8;
+
+    /**
+     * The configured spec of {@code name}, or {@code defaults} when there is none; an unset ttl falls back to
+     * the default one.
+     */
+    public CacheSpec getStore(String name, CacheSpec defaults) {
+        CacheSpec spec = stores.get(name);
+        if (spec == null) {
+            return defaults;
+        }
+        if (spec.getTtl() == null) {
+            spec.setTtl(defaults.getTtl());
+        }
+        return spec;
+    }
+}
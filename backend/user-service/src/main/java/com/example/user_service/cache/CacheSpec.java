@@ -0,0 +1,34 @@
+package com.example.user_service.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+public class CacheSpec {
+
+    /**
+     * Default time to live of an entry after it was last written; entries never expire when unset.
+     */
+    private Duration ttl;
+
+    /**
+     * Upper bound on the number of entries. Ignored when {@code maximum-weight} is set.
+     */
+    private Long maximumSize;
+
+    /**
+     * Upper bound on the summed weight of the entries, roughly their retained bytes as estimated by the store's
+     * weigher ({@code CacheWeights}). {@code user-profile} applies it to each of its three stores.
+     */
+    private Long maximumWeight;
+
+    public static CacheSpec of(Duration ttl, Long maximumSize) {
+        CacheSpec spec = new CacheSpec();
+        spec.setTtl(ttl);
+        spec.setMaximumSize(maximumSize);
+        return spec;
+    }
+}
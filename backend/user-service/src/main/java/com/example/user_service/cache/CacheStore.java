@@ -1,33 +1,61 @@
 package com.example.user_service.cache;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import lombok.NonNull;
-import lombok.extern.slf4j.Slf4j;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.ToIntBiFunction;
 
-@Slf4j
-public class CacheStore<K, V> {
-    private final Cache<K, V> cache;
+/**
+ * Bounded, expiring in-process key-value store. {@link #compute} and {@link #increment} are atomic per key, so
+ * read-modify-write sequences such as counting login attempts do not race. Create stores with {@link #of}.
+ */
+public interface CacheStore<K, V> {
 
-    public CacheStore(int expiryDuration, TimeUnit timeUnit) {
-        this.cache = CacheBuilder.newBuilder()
-                .expireAfterWrite(expiryDuration, timeUnit)
-                .concurrencyLevel(Runtime.getRuntime().availableProcessors())
-                .build();
+    static <K, V> CacheStore<K, V> of(CacheSpec spec) {
+        return of(spec, null);
     }
 
-    public V get(@NonNull K key) {
-        return cache.getIfPresent(key);
+    /**
+     * Builds a Caffeine store for {@code spec}; {@code weigher} is only used when the spec bounds the store by
+     * {@code maximum-weight}.
+     */
+    static <K, V> CacheStore<K, V> of(CacheSpec spec, ToIntBiFunction<K, V> weigher) {
+        return new CaffeineCacheStore<>(spec, weigher);
     }
 
-    public void put(@NonNull K key, @NonNull V value) {
-        cache.put(key, value);
-    }
+    V get(@NonNull K key);
+
+    /**
+     * Returns the present entries among {@code keys}; missing keys are left out.
+     */
+    Map<K, V> getAll(@NonNull Iterable<? extends K> keys);
+
+    void put(@NonNull K key, @NonNull V value);
+
+    /**
+     * Stores an entry that expires after {@code ttl} instead of the store's default.
+     */
+    void put(@NonNull K key, @NonNull V value, @NonNull Duration ttl);
 
-    public void evict(@NonNull K key) {
-        cache.invalidate(key);
+    void putAll(@NonNull Map<? extends K, ? extends V> entries);
+
+    /**
+     * Atomically replaces the entry with the result of {@code remapping} (given {@code null} when absent);
+     * a {@code null} result removes it. Returns the new value.
+     */
+    V compute(@NonNull K key, @NonNull BiFunction<? super K, ? super V, ? extends V> remapping);
+
+    /**
+     * Atomically adds {@code delta} to an {@code Integer} entry, starting from zero, and returns the new value.
+     */
+    @SuppressWarnings("unchecked")
+    default int increment(@NonNull K key, int delta) {
+        return (Integer) compute(key, (k, value) -> (V) Integer.valueOf(value == null ? delta : (Integer) value + delta));
     }
 
+    void evict(@NonNull K key);
+
+    void evictAll();
 }
@@ -0,0 +1,39 @@
+package com.example.user_service.cache;
+
+import com.example.user_service.dto.UserView;
+
+/**
+ * Weighers for the stores that {@code maximum-weight} can bound. Weights approximate the retained bytes of an
+ * entry: a fixed cost per entry and per object, plus one byte per character of each string.
+ */
+final class CacheWeights {
+
+    private static final int ENTRY = 64;
+    private static final int BOXED = 16;
+    private static final int STRING = 40;
+    private static final int USER_VIEW = 200;
+
+    private CacheWeights() {}
+
+    static int loginAttempts(String email, Integer attempts) {
+        return ENTRY + string(email) + BOXED;
+    }
+
+    static int profile(String userId, UserView view) {
+        return ENTRY + string(userId) + BOXED + USER_VIEW + string(view.userId()) + string(view.firstName())
+                + string(view.lastName()) + string(view.email()) + string(view.phone()) + string(view.bio())
+                + string(view.imageUrl()) + string(view.role());
+    }
+
+    static int version(String userId, Long version) {
+        return ENTRY + string(userId) + BOXED;
+    }
+
+    static int userId(Long id, String userId) {
+        return ENTRY + BOXED + string(userId);
+    }
+
+    private static int string(String value) {
+        return value == null ? 0 : STRING + value.length();
+    }
+}
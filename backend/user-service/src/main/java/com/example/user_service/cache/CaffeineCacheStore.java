@@ -0,0 +1,98 @@
+package com.example.user_service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy;
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * {@link CacheStore} on Caffeine. Expiry is variable so that single entries can get their own time to live;
+ * every other write resets the entry to the spec's {@code ttl}.
+ */
+class CaffeineCacheStore<K, V> implements CacheStore<K, V> {
+
+    private final Cache<K, V> cache;
+    private final Policy.VarExpiration<K, V> expiration;
+
+    CaffeineCacheStore(CacheSpec spec, ToIntBiFunction<K, V> weigher) {
+        long ttlNanos = spec.getTtl() == null ? Long.MAX_VALUE : spec.getTtl().toNanos();
+        Caffeine<K, V> builder = Caffeine.newBuilder().expireAfter(new WriteExpiry<K, V>(ttlNanos));
+        if (spec.getMaximumWeight() != null) {
+            if (weigher == null) {
+                throw new IllegalArgumentException("maximum-weight needs a weigher");
+            }
+            builder = builder.maximumWeight(spec.getMaximumWeight()).weigher(weigher::applyAsInt);
+        } else if (spec.getMaximumSize() != null) {
+            builder = builder.maximumSize(spec.getMaximumSize());
+        }
+        this.cache = builder.build();
+        this.expiration = cache.policy().expireVariably().orElseThrow();
+    }
+
+    @Override
+    public V get(@NonNull K key) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    public Map<K, V> getAll(@NonNull Iterable<? extends K> keys) {
+        return cache.getAllPresent(keys);
+    }
+
+    @Override
+    public void put(@NonNull K key, @NonNull V value) {
+        cache.put(key, value);
+    }
+
+    @Override
+    public void put(@NonNull K key, @NonNull V value, @NonNull Duration ttl) {
+        expiration.put(key, value, ttl);
+    }
+
+    @Override
+    public void putAll(@NonNull Map<? extends K, ? extends V> entries) {
+        cache.putAll(entries);
+    }
+
+    @Override
+    public V compute(@NonNull K key, @NonNull BiFunction<? super K, ? super V, ? extends V> remapping) {
+        return cache.asMap().compute(key, remapping);
+    }
+
+    @Override
+    public void evict(@NonNull K key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Expires entries {@code ttlNanos} after they were created or last updated; reads do not extend them.
+     */
+    private record WriteExpiry<K, V>(long ttlNanos) implements Expiry<K, V> {
+
+        @Override
+        public long expireAfterCreate(K key, V value, long currentTime) {
+            return ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+            return ttlNanos;
+        }
+
+        @Override
+        public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.user_service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+@Configuration
+@ConditionalOnProperty(prefix = "redis", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(RedisCacheProperties.class)
+public class RedisCacheConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public RedisClient redisClient(RedisCacheProperties properties) {
+        RedisURI.Builder uri = RedisURI.builder()
+                .withHost(properties.getHost())
+                .withPort(properties.getPort())
+                .withTimeout(properties.getTimeout());
+        if (StringUtils.hasText(properties.getPassword())) {
+            uri.withPassword(properties.getPassword().toCharArray());
+        }
+        RedisClient client = RedisClient.create(uri.build());
+        // While reconnecting, fail commands right away instead of queueing them until the timeout.
+        client.setOptions(ClientOptions.builder()
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .build());
+        return client;
+    }
+
+    @Bean(destroyMethod = "close")
+    public RedisProfileTier redisProfileTier(RedisClient redisClient, ObjectMapper objectMapper,
+                                             RedisCacheProperties properties) {
+        return new RedisProfileTier(redisClient, objectMapper, properties);
+    }
+}
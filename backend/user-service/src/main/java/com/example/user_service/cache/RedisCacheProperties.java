@@ -0,0 +1,44 @@
+package com.example.user_service.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "redis")
+public class RedisCacheProperties {
+
+    /**
+     * Whether the user-profile cache has a shared tier in Redis; without it every instance caches on its own.
+     */
+    private boolean enabled;
+
+    private String host = "localhost";
+
+    private int port = 6379;
+
+    private String password;
+
+    /**
+     * Upper bound on a single Redis command; a slower call is treated as a miss.
+     */
+    private Duration timeout = Duration.ofMillis(200);
+
+    /**
+     * Least time between attempts to connect while Redis cannot be reached; profiles are cached per instance meanwhile.
+     */
+    private Duration reconnectInterval = Duration.ofSeconds(5);
+
+    /**
+     * Pub/sub channel on which every instance announces the users it changed.
+     */
+    private String channel = "user-profile-invalidations";
+
+    /**
+     * Time to live of a shared profile. Should not be shorter than the in-process {@code user-profile} ttl.
+     */
+    private Duration ttl = Duration.ofMinutes(30);
+}
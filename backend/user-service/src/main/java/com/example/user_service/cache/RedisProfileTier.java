@@ -0,0 +1,243 @@
+package com.example.user_service.cache;
+
+import com.example.user_service.dto.UserView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisException;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * Shared tier of {@link UserProfileCache} in Redis. Each user has a version that every change increments;
+ * the change then deletes the shared profile and publishes {@code version:userId} on the invalidation channel.
+ * Profiles are stored stamped with the version that was current before they were loaded and are only served
+ * while that is still the user's version, so a slow load that read the database before a change never comes
+ * back as current. A version key outlives every profile stamped with it, so versions never restart under a
+ * profile that could still be served. The internal id is kept as an alias of the user id for changes known
+ * only by id. Failing Redis calls are logged and treated as misses; the caller falls back to the database.
+ * <p>
+ * Connections are opened on first use, so the service starts without Redis. While Redis cannot be reached every
+ * call is a miss and a new attempt is made at most once per {@code redis.reconnect-interval}; once connected,
+ * Lettuce reconnects on its own.
+ */
+@Slf4j
+public class RedisProfileTier implements AutoCloseable {
+
+    private static final String PROFILE = "user-profile:value:";
+    private static final String VERSION = "user-profile:version:";
+    private static final String ALIAS = "user-profile:id:";
+
+    private final RedisClient client;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final long ttlMillis;
+    private final long reconnectIntervalNanos;
+    private volatile StatefulRedisConnection<String, String> connection;
+    private StatefulRedisPubSubConnection<String, String> subscription;
+    private Listener listener;
+    private volatile long nextAttempt;
+    private boolean closed;
+
+    public RedisProfileTier(RedisClient client, ObjectMapper objectMapper, RedisCacheProperties properties) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.channel = properties.getChannel();
+        this.ttlMillis = properties.getTtl().toMillis();
+        this.reconnectIntervalNanos = properties.getReconnectInterval().toNanos();
+        this.nextAttempt = System.nanoTime();
+    }
+
+    /**
+     * Passes every change published by any instance, this one included, to {@code listener}, and tells it each
+     * time the subscription is (re)established, since changes published while disconnected are lost.
+     */
+    public synchronized void subscribe(Listener listener) {
+        this.listener = listener;
+        if (connection == null) {
+            connect();
+            return;
+        }
+        try {
+            subscription = openSubscription(listener);
+        } catch (RedisException exception) {
+            log.warn("Could not subscribe to {}; profiles are only invalidated by their ttl", channel, exception);
+        }
+    }
+
+    /**
+     * Reads the user's version and shared profile in one round trip. The profile is {@code null} when absent
+     * or stamped with another version; the result is {@code null} when Redis could not be read.
+     */
+    public Lookup get(String userId) {
+        try {
+            RedisCommands<String, String> commands = commands();
+            if (commands == null) {
+                return null;
+            }
+            List<KeyValue<String, String>> values = commands.mget(VERSION + userId, PROFILE + userId);
+            long version = values.get(0).hasValue() ? Long.parseLong(values.get(0).getValue()) : 0;
+            if (!values.get(1).hasValue()) {
+                return new Lookup(version, null);
+            }
+            StampedView stored = objectMapper.readValue(values.get(1).getValue(), StampedView.class);
+            return new Lookup(version, stored.version() == version ? stored.view() : null);
+        } catch (RedisException | JsonProcessingException exception) {
+            log.warn("Could not read shared profile of user {}", userId, exception);
+            return null;
+        }
+    }
+
+    /**
+     * Shares {@code view}, loaded while {@code version} was current, without waiting for Redis to confirm.
+     */
+    public void put(long version, UserView view) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(new StampedView(version, view));
+        } catch (JsonProcessingException exception) {
+            log.warn("Could not serialize profile of user {}", view.userId(), exception);
+            return;
+        }
+        try {
+            StatefulRedisConnection<String, String> current = connection();
+            if (current == null) {
+                return;
+            }
+            RedisAsyncCommands<String, String> async = current.async();
+            async.set(PROFILE + view.userId(), payload, SetArgs.Builder.px(ttlMillis));
+            async.pexpire(VERSION + view.userId(), 2 * ttlMillis);
+            async.set(ALIAS + view.id(), view.userId(), SetArgs.Builder.px(2 * ttlMillis));
+        } catch (RedisException exception) {
+            log.warn("Could not share profile of user {}", view.userId(), exception);
+        }
+    }
+
+    /**
+     * The user id of the user with internal {@code id}, if a profile of it was shared recently.
+     */
+    public String findUserId(Long id) {
+        try {
+            RedisCommands<String, String> commands = commands();
+            return commands == null ? null : commands.get(ALIAS + id);
+        } catch (RedisException exception) {
+            log.warn("Could not resolve user {}", id, exception);
+            return null;
+        }
+    }
+
+    /**
+     * Gives the user a new version, drops the shared profile and tells every instance. Returns the new version,
+     * or {@code -1} when Redis could not be reached; other instances then only catch up through their ttl.
+     */
+    public long invalidate(String userId) {
+        try {
+            RedisCommands<String, String> commands = commands();
+            if (commands == null) {
+                return -1;
+            }
+            long version = commands.incr(VERSION + userId);
+            commands.pexpire(VERSION + userId, 2 * ttlMillis);
+            commands.del(PROFILE + userId);
+            commands.publish(channel, version + ":" + userId);
+            return version;
+        } catch (RedisException exception) {
+            log.warn("Could not invalidate shared profile of user {}", userId, exception);
+            return -1;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (subscription != null) {
+            subscription.close();
+        }
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    private RedisCommands<String, String> commands() {
+        StatefulRedisConnection<String, String> current = connection();
+        return current == null ? null : current.sync();
+    }
+
+    private StatefulRedisConnection<String, String> connection() {
+        StatefulRedisConnection<String, String> current = connection;
+        if (current != null || System.nanoTime() - nextAttempt < 0) {
+            return current;
+        }
+        return connect();
+    }
+
+    /**
+     * Opens the command connection and, once a listener is registered, the subscription. Returns {@code null}
+     * without trying while the last failed attempt is more recent than the reconnect interval.
+     */
+    private synchronized StatefulRedisConnection<String, String> connect() {
+        if (connection != null || closed || System.nanoTime() - nextAttempt < 0) {
+            return connection;
+        }
+        StatefulRedisConnection<String, String> opened = null;
+        try {
+            opened = client.connect();
+            if (listener != null) {
+                subscription = openSubscription(listener);
+            }
+            connection = opened;
+            log.info("Connected to Redis; user profiles are shared");
+        } catch (RedisException exception) {
+            if (opened != null) {
+                opened.close();
+            }
+            nextAttempt = System.nanoTime() + reconnectIntervalNanos;
+            log.warn("Redis is unreachable, caching user profiles per instance: {}", exception.getMessage());
+        }
+        return connection;
+    }
+
+    private StatefulRedisPubSubConnection<String, String> openSubscription(Listener listener) {
+        StatefulRedisPubSubConnection<String, String> opened = client.connectPubSub();
+        opened.addListener(new RedisPubSubAdapter<>() {
+            @Override
+            public void message(String channel, String message) {
+                int separator = message.indexOf(':');
+                listener.invalidated(message.substring(separator + 1), Long.parseLong(message.substring(0, separator)));
+            }
+
+            @Override
+            public void subscribed(String channel, long count) {
+                listener.subscribed();
+            }
+        });
+        try {
+            opened.sync().subscribe(channel);
+        } catch (RedisException exception) {
+            opened.close();
+            throw exception;
+        }
+        return opened;
+    }
+
+    public record Lookup(long version, UserView view) {
+    }
+
+    record StampedView(long version, UserView view) {
+    }
+
+    public interface Listener {
+
+        void invalidated(String userId, long version);
+
+        void subscribed();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.user_service.cache;
+
+import com.example.user_service.entity.RoleEntity;
+import com.example.user_service.repository.RoleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.example.user_service.constant.Constants.ROLE_PREFIX;
+
+/**
+ * Immutable in-memory view of the roles table. The snapshot is loaded once and replaced
+ * atomically on reload, so lookups never touch the database and never see a half-built map.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoleRegistry {
+
+    private static final int MAX_TOKEN_AUTHORITY_ENTRIES = 256;
+
+    private final RoleRepository roleRepository;
+
+    private final Map<String, List<GrantedAuthority>> tokenAuthorities = new ConcurrentHashMap<>();
+
+    private volatile Snapshot snapshot;
+
+    public Optional<RoleEntity> findByName(String name) {
+        return name == null ? Optional.empty() : Optional.ofNullable(snapshot().byName().get(normalize(name)));
+    }
+
+    public Optional<RoleEntity> findById(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(snapshot().byId().get(id));
+    }
+
+    public Collection<RoleEntity> findAll() {
+        return snapshot().byId().values();
+    }
+
+    /**
+     * Authorities of a role as issued in access tokens: the role's permissions followed by {@code ROLE_<name>}.
+     */
+    public List<GrantedAuthority> getAuthorities(String roleName) {
+        List<GrantedAuthority> authorities = roleName == null ? null : snapshot().authoritiesByName().get(normalize(roleName));
+        return authorities != null ? authorities : AuthorityUtils.NO_AUTHORITIES;
+    }
+
+    /**
+     * Resolves the authorities carried by token claims. Claims that match a registered role share
+     * that role's interned list; anything else is parsed once and interned in a bounded map.
+     */
+    public List<GrantedAuthority> getTokenAuthorities(String roleName, String authorities) {
+        RoleEntity role = findByName(roleName).orElse(null);
+        if (role != null && role.getAuthorities() != null && role.getAuthorities().getValue().equals(authorities)) {
+            return getAuthorities(roleName);
+        }
+        String key = roleName + '|' + authorities;
+        List<GrantedAuthority> interned = tokenAuthorities.get(key);
+        if (interned != null) {
+            return interned;
+        }
+        List<GrantedAuthority> parsed = toTokenAuthorities(roleName, authorities);
+        if (tokenAuthorities.size() < MAX_TOKEN_AUTHORITY_ENTRIES) {
+            tokenAuthorities.putIfAbsent(key, parsed);
+        }
+        return parsed;
+    }
+
+    public void reload() {
+        List<RoleEntity> roles = roleRepository.findAll();
+        Map<String, RoleEntity> byName = new HashMap<>();
+        Map<Long, RoleEntity> byId = new HashMap<>();
+        Map<String, List<GrantedAuthority>> authoritiesByName = new HashMap<>();
+        for (RoleEntity role : roles) {
+            byName.put(normalize(role.getName()), role);
+            byId.put(role.getId(), role);
+            authoritiesByName.put(normalize(role.getName()), toTokenAuthorities(role.getName(),
+                    role.getAuthorities() == null ? null : role.getAuthorities().getValue()));
+        }
+        snapshot = new Snapshot(Map.copyOf(byName), Map.copyOf(byId), Map.copyOf(authoritiesByName));
+        tokenAuthorities.clear();
+        log.info("Role registry loaded {} roles", roles.size());
+    }
+
+    /**
+     * Reloads once the surrounding transaction has committed, or immediately when there is none.
+     */
+    public void reloadAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload();
+                }
+            });
+        } else {
+            reload();
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    reload();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private static List<GrantedAuthority> toTokenAuthorities(String roleName, String authorities) {
+        List<GrantedAuthority> result = new ArrayList<>();
+        if (authorities != null && !authorities.isBlank()) {
+            result.addAll(AuthorityUtils.commaSeparatedStringToAuthorityList(authorities));
+        }
+        result.add(new SimpleGrantedAuthority(ROLE_PREFIX + roleName));
+        return List.copyOf(result);
+    }
+
+    private static String normalize(String name) {
+        return name.toUpperCase(Locale.ROOT);
+    }
+
+    private record Snapshot(Map<String, RoleEntity> byName,
+                            Map<Long, RoleEntity> byId,
+                            Map<String, List<GrantedAuthority>> authoritiesByName) {
+    }
+}
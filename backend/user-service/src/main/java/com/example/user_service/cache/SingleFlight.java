@@ -0,0 +1,101 @@
+package com.example.user_service.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the load on its own thread and every caller
+ * arriving while it runs waits for that result instead of issuing its own. Waiting callers give up after
+ * {@code timeout} with a {@link SingleFlightTimeoutException}; a failed load is rethrown to all of them. Nothing
+ * is kept once a load completes, so results must be immutable and caching is left to the caller.
+ * <p>
+ * At most {@code maxLoads} loads run at once. A caller that would start one more is turned away with the same
+ * exception, so a slow database holds a bounded number of the callers' threads instead of all of them.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutNanos;
+    private final Semaphore permits;
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public SingleFlight(Duration timeout) {
+        this(timeout, Integer.MAX_VALUE);
+    }
+
+    public SingleFlight(Duration timeout, int maxLoads) {
+        this.timeoutNanos = timeout.toNanos();
+        this.permits = new Semaphore(maxLoads);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            coalesced.increment();
+            return await(key, running);
+        }
+        if (!permits.tryAcquire()) {
+            rejected.increment();
+            SingleFlightTimeoutException exception =
+                    new SingleFlightTimeoutException("Too many loads in flight to start one for " + key);
+            flight.completeExceptionally(exception);
+            inFlight.remove(key, flight);
+            throw exception;
+        }
+        loads.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error exception) {
+            failures.increment();
+            flight.completeExceptionally(exception);
+            throw exception;
+        } finally {
+            inFlight.remove(key, flight);
+            permits.release();
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(loads.sum(), coalesced.sum(), timeouts.sum(), failures.sum(), rejected.sum(), inFlight.size());
+    }
+
+    private V await(K key, CompletableFuture<V> running) {
+        try {
+            return running.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException exception) {
+            timeouts.increment();
+            throw new SingleFlightTimeoutException("Timed out waiting for the in-flight load of " + key);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new SingleFlightTimeoutException("Interrupted waiting for the in-flight load of " + key);
+        } catch (ExecutionException exception) {
+            // The leader's own exception, so callers handle a shared failure exactly like one of their own.
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw (Error) exception.getCause();
+        }
+    }
+
+    /**
+     * {@code loads} ran, {@code coalesced} callers waited for one of them instead, {@code rejected} were not started
+     * because too many were running; {@code inFlight} are running now.
+     */
+    public record Stats(long loads, long coalesced, long timeouts, long failures, long rejected, int inFlight) {
+    }
+}
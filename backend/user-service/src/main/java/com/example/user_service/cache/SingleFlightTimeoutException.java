@@ -0,0 +1,12 @@
+package com.example.user_service.cache;
+
+/**
+ * A caller gave up waiting for a load started by another caller, or was turned away because too many loads were
+ * running; answered with 503 like other overload errors.
+ */
+public class SingleFlightTimeoutException extends RuntimeException {
+
+    public SingleFlightTimeoutException(String message) {
+        super(message);
+    }
+}
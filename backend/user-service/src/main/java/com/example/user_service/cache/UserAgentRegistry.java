@@ -0,0 +1,54 @@
+package com.example.user_service.cache;
+
+import com.example.user_service.repository.UserAgentRepository;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Interns user agent strings as ids of the {@code user_agents} dictionary. Known strings are served from a
+ * bounded in-process map; an unknown one is added in its own transaction, so a cached id always refers to a
+ * committed row even when the login that introduced it rolls back.
+ */
+@Component
+public class UserAgentRegistry {
+
+    /**
+     * Same limit as the column; longer strings are truncated so they still share an entry.
+     */
+    static final int MAX_LENGTH = 255;
+
+    private static final int MAX_CACHED_ENTRIES = 10_000;
+
+    private final UserAgentRepository userAgentRepository;
+    private final TransactionTemplate newTransaction;
+    private final Cache<String, Integer> ids = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_ENTRIES).build();
+
+    public UserAgentRegistry(UserAgentRepository userAgentRepository, PlatformTransactionManager transactionManager) {
+        this.userAgentRepository = userAgentRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Returns the dictionary id of {@code userAgent}, adding it if needed, or null for a missing user agent.
+     */
+    public Integer idOf(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return null;
+        }
+        String key = userAgent.length() > MAX_LENGTH ? userAgent.substring(0, MAX_LENGTH) : userAgent;
+        Integer id = ids.getIfPresent(key);
+        if (id == null) {
+            id = newTransaction.execute(status -> userAgentRepository.findIdByUserAgent(key).orElseGet(() -> {
+                userAgentRepository.insertIfAbsent(key);
+                return userAgentRepository.findIdByUserAgent(key).orElseThrow();
+            }));
+            ids.put(key, id);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.user_service.cache;
+
+import com.example.user_service.dto.UserView;
+import com.example.user_service.event.UserChangedEvent;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Users by public user id, held as immutable {@link UserView} snapshots so callers always build their own DTO.
+ * Entries are dropped when a {@link UserChangedEvent} is published, once the publishing transaction has committed
+ * (or right away outside a transaction); the store's ttl bounds staleness from writes that publish no event.
+ * <p>
+ * With a {@link RedisProfileTier} the in-process entries sit in front of profiles shared by all instances, and
+ * changes made on any instance evict here as their invalidations arrive. Every change gives the user a higher
+ * version and entries carry the version they were loaded under, so a load that started before a change is not
+ * stored over it, whichever arrives first.
+ */
+public class UserProfileCache implements RedisProfileTier.Listener {
+
+    private final CacheStore<String, StampedView> profiles;
+    private final CacheStore<String, Long> versions;
+    private final CacheStore<Long, String> userIds;
+    private final RedisProfileTier shared;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public UserProfileCache(CacheSpec spec) {
+        this(spec, null);
+    }
+
+    public UserProfileCache(CacheSpec spec, RedisProfileTier shared) {
+        this.profiles = CacheStore.of(spec, (userId, stamped) -> CacheWeights.profile(userId, stamped.view()));
+        this.versions = CacheStore.of(spec, CacheWeights::version);
+        this.userIds = CacheStore.of(spec, CacheWeights::userId);
+        this.shared = shared;
+        if (shared != null) {
+            shared.subscribe(this);
+        }
+    }
+
+    /**
+     * Returns the cached user, or loads it with {@code loader} and caches it when found.
+     */
+    public Optional<UserView> get(String userId, Function<String, Optional<UserView>> loader) {
+        return get(userId, (id, version) -> loader.apply(id));
+    }
+
+    /**
+     * Like {@link #get(String, Function)}, but hands the loader the version the result will be stored under.
+     * Loads shared between callers must be keyed by it: a load joined after a change may have read the row
+     * before that change, and must not be stored under the version that came after it.
+     */
+    public Optional<UserView> get(String userId, BiFunction<String, Long, Optional<UserView>> loader) {
+        StampedView cached = profiles.get(userId);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached.view());
+        }
+        RedisProfileTier.Lookup lookup = shared == null ? null : shared.get(userId);
+        if (lookup != null && lookup.view() != null) {
+            sharedHits.increment();
+            store(userId, lookup.version(), lookup.view());
+            return Optional.of(lookup.view());
+        }
+        long version = lookup != null ? lookup.version() : knownVersion(userId);
+        misses.increment();
+        Optional<UserView> loaded = loader.apply(userId, version);
+        loaded.ifPresent(view -> {
+            if (store(userId, version, view) && lookup != null) {
+                shared.put(version, view);
+            }
+        });
+        return loaded;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        String userId = resolve(event);
+        if (userId == null) {
+            return;
+        }
+        long version = shared == null ? -1 : shared.invalidate(userId);
+        if (version < 0) {
+            version = versions.compute(userId, (key, known) -> known == null ? 1 : known + 1);
+        }
+        invalidated(userId, version);
+    }
+
+    /**
+     * Drops the entry of {@code userId} unless it was loaded under {@code version} or later, and refuses
+     * entries loaded under an earlier version from now on.
+     */
+    @Override
+    public void invalidated(String userId, long version) {
+        versions.compute(userId, (key, known) -> known == null ? version : Math.max(known, version));
+        boolean[] evicted = new boolean[1];
+        profiles.compute(userId, (key, current) -> {
+            if (current == null || current.version() >= version) {
+                return current;
+            }
+            evicted[0] = true;
+            return null;
+        });
+        if (evicted[0]) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Invalidations may have been missed while the subscription was down, so nothing held here is trusted.
+     */
+    @Override
+    public void subscribed() {
+        profiles.evictAll();
+    }
+
+    public Stats getStats() {
+        long hitCount = hits.sum();
+        long sharedHitCount = sharedHits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + sharedHitCount + missCount;
+        return new Stats(hitCount, sharedHitCount, missCount,
+                requests == 0 ? 0.0 : (double) (hitCount + sharedHitCount) / requests, evictions.sum());
+    }
+
+    private boolean store(String userId, long version, UserView view) {
+        userIds.put(view.id(), userId);
+        boolean[] stored = new boolean[1];
+        profiles.compute(userId, (key, current) -> {
+            Long known = versions.get(key);
+            if (known != null && known > version) {
+                return current;
+            }
+            stored[0] = true;
+            return new StampedView(version, view);
+        });
+        return stored[0];
+    }
+
+    private long knownVersion(String userId) {
+        Long known = versions.get(userId);
+        return known == null ? 0 : known;
+    }
+
+    private String resolve(UserChangedEvent event) {
+        if (event.userId() != null) {
+            return event.userId();
+        }
+        if (event.id() == null) {
+            return null;
+        }
+        String userId = userIds.get(event.id());
+        return userId != null || shared == null ? userId : shared.findUserId(event.id());
+    }
+
+    private record StampedView(long version, UserView view) {
+    }
+
+    public record Stats(long hits, long sharedHits, long misses, double hitRatio, long evictions) {
+    }
+}
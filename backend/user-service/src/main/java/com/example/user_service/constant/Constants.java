@@ -8,8 +8,12 @@ public class Constants {
 
     public static final String ROLE = "role";
 
+    public static final String TOKEN_VERSION = "ver";
+
     public static final String ROLE_PREFIX = "ROLE_";
 
+    public static final String DEFAULT_IMAGE_URL = "https://cdn-icons-png.flaticon.com/512/149/149071.png";
+
     public static final int NINETY_DAYS = 90;
 
     public static final int EXPIRE_DURATION = 900;
@@ -26,6 +30,11 @@ public class Constants {
 
     public static final String ADMIN_AUTHORITIES = "user:create,user:read,user:update,user:delete,document:create,document:read,document:update,document:delete";
 
-    public static final String SUPER_ADMIN_AUTHORITIES = "user:create,user:read,user:update,user:unlock,user:delete,document:create,document:read,document:update,document:delete";
+    public static final String SUPER_ADMIN_AUTHORITIES = "user:create,user:read,user:update,user:unlock,user:role,user:delete,document:create,document:read,document:update,document:delete";
+
+    /**
+     * Required to grant ADMIN or SUPER_ADMIN, or to change the role of users who hold them.
+     */
+    public static final String ROLE_GRANT_AUTHORITY = "user:role";
 }
 
@@ -0,0 +1,64 @@
+package com.example.user_service.datasource;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Runs a task on at most one instance at a time. The task runs while a Postgres session-level advisory lock
+ * is held on a connection of its own; instances that do not get the lock skip the task instead of waiting.
+ * The lock goes away with the session, so an instance that dies mid-task does not keep it.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class AdvisoryLock {
+
+    private final DataSource dataSource;
+
+    /**
+     * Runs {@code task} if no other session holds {@code key}, and returns whether it ran.
+     */
+    public boolean runIfFree(long key, Runnable task) {
+        return callIfFree(key, () -> {
+            task.run();
+            return Boolean.TRUE;
+        }).isPresent();
+    }
+
+    /**
+     * Returns the result of {@code task} if no other session holds {@code key}, or empty without running it.
+     */
+    public <T> Optional<T> callIfFree(long key, Supplier<T> task) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!call(connection, "SELECT pg_try_advisory_lock(?)", key)) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(task.get());
+            } finally {
+                if (!call(connection, "SELECT pg_advisory_unlock(?)", key)) {
+                    log.warn("Advisory lock {} was not held when the task finished", key);
+                }
+            }
+        } catch (SQLException exception) {
+            throw new DataAccessResourceFailureException("Could not use advisory lock " + key, exception);
+        }
+    }
+
+    private static boolean call(Connection connection, String sql, long key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, key);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.user_service.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to a healthy replica and everything else to the primary.
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the routing decision is made after the transaction's read-only flag is known.
+ * Reads inside {@link #onPrimary} also go to the primary.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    public static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final Set<String> ejected = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private volatile List<String> healthyReplicas;
+
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, ReadYourWritesTracker readYourWritesTracker) {
+        this.primary = primary;
+        this.replicas = Collections.unmodifiableMap(new LinkedHashMap<>(replicas));
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.healthyReplicas = List.copyOf(this.replicas.keySet());
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWritesTracker.trackCurrentTransaction();
+            return PRIMARY;
+        }
+        if (PRIMARY_REQUIRED.get() != null || readYourWritesTracker.requiresPrimary()) {
+            return PRIMARY;
+        }
+        List<String> candidates = healthyReplicas;
+        if (candidates.isEmpty()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(nextReplica.getAndIncrement(), candidates.size()));
+    }
+
+    /**
+     * Runs {@code read} against the primary even inside a read-only transaction, for reads whose result outlives
+     * the request, such as cache fills that follow an eviction. Only takes effect when the transaction has not
+     * fetched its connection yet; without routing it simply runs {@code read}.
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        if (PRIMARY_REQUIRED.get() != null) {
+            return read.get();
+        }
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    public boolean isEjected(String replica) {
+        return ejected.contains(replica);
+    }
+
+    public void eject(String replica) {
+        if (ejected.add(replica)) {
+            refreshHealthyReplicas();
+            log.warn("Replica {} ejected from read routing", replica);
+        }
+    }
+
+    public void readmit(String replica) {
+        if (ejected.remove(replica)) {
+            refreshHealthyReplicas();
+            log.info("Replica {} readmitted to read routing", replica);
+        }
+    }
+
+    private void refreshHealthyReplicas() {
+        healthyReplicas = replicas.keySet().stream().filter(name -> !ejected.contains(name)).toList();
+    }
+
+    @Override
+    public void close() {
+        closeQuietly(primary);
+        replicas.values().forEach(ReadWriteRoutingDataSource::closeQuietly);
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception exception) {
+                log.warn("Failed to close data source: {}", exception.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.user_service.datasource;
+
+import com.example.user_service.cache.CacheSpec;
+import com.example.user_service.cache.CacheStore;
+import com.example.user_service.domain.RequestContext;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Remembers the commit time of each session's last write for as long as replicas may lag behind.
+ * While an entry is present, read-only transactions of that session are routed to the primary.
+ */
+public class ReadYourWritesTracker {
+
+    private final CacheStore<Long, Long> lastWrites;
+
+    public ReadYourWritesTracker(Duration window) {
+        this.lastWrites = CacheStore.of(CacheSpec.of(window, null));
+    }
+
+    public boolean requiresPrimary() {
+        Long userId = RequestContext.getUserId();
+        return userId != null && lastWrites.get(userId) != null;
+    }
+
+    public void recordWrite(Long userId) {
+        lastWrites.put(userId, System.currentTimeMillis());
+    }
+
+    /**
+     * Registers (once per transaction) a hook that records the session's write after a successful commit.
+     */
+    void trackCurrentTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        boolean registered = TransactionSynchronizationManager.getSynchronizations().stream()
+                .anyMatch(WriteCommitSynchronization.class::isInstance);
+        if (!registered) {
+            TransactionSynchronizationManager.registerSynchronization(new WriteCommitSynchronization());
+        }
+    }
+
+    private class WriteCommitSynchronization implements TransactionSynchronization {
+        @Override
+        public void afterCommit() {
+            Long userId = RequestContext.getUserId();
+            if (userId != null) {
+                recordWrite(userId);
+            }
+        }
+    }
+}
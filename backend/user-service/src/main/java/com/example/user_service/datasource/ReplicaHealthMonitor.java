@@ -0,0 +1,69 @@
+package com.example.user_service.datasource;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Periodically probes every replica and ejects the ones that are unreachable or lag behind the
+ * primary by more than the read-your-writes window. Ejected replicas are readmitted once healthy.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ReplicaHealthMonitor {
+
+    // The last replayed commit ages while the primary is idle, so a replica that has replayed everything it
+    // received counts as caught up; only one with WAL still to replay is measured by that commit's age.
+    private static final String POSTGRES_REPLICATION_LAG =
+            "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END " +
+            "FROM (SELECT 1) AS probe WHERE pg_is_in_recovery()";
+
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final DataSourceRoutingProperties properties;
+
+    @Scheduled(fixedDelayString = "${datasource.routing.health-check-interval:5000}")
+    public void checkReplicas() {
+        routingDataSource.getReplicas().forEach((name, dataSource) -> {
+            if (isHealthy(name, dataSource)) {
+                routingDataSource.readmit(name);
+            } else {
+                routingDataSource.eject(name);
+            }
+        });
+    }
+
+    boolean isHealthy(String name, DataSource dataSource) {
+        Duration timeout = properties.getHealthCheckTimeout();
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isValid((int) Math.max(1, timeout.toSeconds()))) {
+                return false;
+            }
+            long lagMillis = replicationLagMillis(connection);
+            if (lagMillis > properties.getMaxReplicationLag().toMillis()) {
+                log.warn("Replica {} lags {} ms behind the primary", name, lagMillis);
+                return false;
+            }
+            return true;
+        } catch (Exception exception) {
+            log.warn("Replica {} health check failed: {}", name, exception.getMessage());
+            return false;
+        }
+    }
+
+    private long replicationLagMillis(Connection connection) throws Exception {
+        if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            return 0;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(POSTGRES_REPLICATION_LAG)) {
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.user_service.datasource;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Fails startup when an index that a repository finder relies on is missing, so a hand-edited
+ * or partially migrated database shows up immediately instead of as sequential scans under load.
+ * An expected index is satisfied by any index whose leading columns match, in order.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "spring.flyway", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SchemaIndexVerifier {
+
+    static final List<ExpectedIndex> EXPECTED_INDEXES = List.of(
+            new ExpectedIndex("users", "email_normalized"),
+            new ExpectedIndex("users", "user_id"),
+            new ExpectedIndex("users", "created_at"),
+            new ExpectedIndex("confirmations", "key"),
+            new ExpectedIndex("confirmations", "user_id"),
+            new ExpectedIndex("credentials", "user_id"),
+            new ExpectedIndex("login_history", "user_id", "login_time"),
+            new ExpectedIndex("roles", "upper((name)::text)"),
+            new ExpectedIndex("user_roles", "user_id"),
+            new ExpectedIndex("user_roles", "role_id")
+    );
+
+    private final DataSource dataSource;
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void verify() {
+        List<ExpectedIndex> missing = findMissing(EXPECTED_INDEXES);
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Missing database indexes: " + missing);
+        }
+        log.info("Verified {} expected database indexes", EXPECTED_INDEXES.size());
+    }
+
+    List<ExpectedIndex> findMissing(List<ExpectedIndex> expected) {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String schema = connection.getSchema();
+            Map<String, Collection<List<String>>> indexesByTable = new HashMap<>();
+            List<ExpectedIndex> missing = new ArrayList<>();
+            for (ExpectedIndex index : expected) {
+                Collection<List<String>> indexes = indexesByTable.computeIfAbsent(index.table(),
+                        table -> readIndexes(metaData, schema, table));
+                if (indexes.stream().noneMatch(index::isCoveredBy)) {
+                    missing.add(index);
+                }
+            }
+            return missing;
+        } catch (SQLException exception) {
+            throw new IllegalStateException("Could not read database index metadata", exception);
+        }
+    }
+
+    private static Collection<List<String>> readIndexes(DatabaseMetaData metaData, String schema, String table) {
+        Map<String, SortedMap<Short, String>> columnsByIndex = new HashMap<>();
+        for (String name : List.of(table, table.toUpperCase(Locale.ROOT))) {
+            try (ResultSet resultSet = metaData.getIndexInfo(null, schema, name, false, true)) {
+                while (resultSet.next()) {
+                    String indexName = resultSet.getString("INDEX_NAME");
+                    String column = resultSet.getString("COLUMN_NAME");
+                    if (indexName != null && column != null) {
+                        columnsByIndex.computeIfAbsent(indexName, key -> new TreeMap<>())
+                                .put(resultSet.getShort("ORDINAL_POSITION"), column);
+                    }
+                }
+            } catch (SQLException exception) {
+                throw new IllegalStateException("Could not read indexes of " + table, exception);
+            }
+            if (!columnsByIndex.isEmpty()) {
+                break;
+            }
+        }
+        return columnsByIndex.values().stream().map(columns -> List.copyOf(columns.values())).toList();
+    }
+
+    record ExpectedIndex(String table, List<String> columns) {
+
+        ExpectedIndex(String table, String... columns) {
+            this(table, List.of(columns));
+        }
+
+        boolean isCoveredBy(List<String> indexColumns) {
+            if (indexColumns.size() < columns.size()) {
+                return false;
+            }
+            for (int i = 0; i < columns.size(); i++) {
+                if (!columns.get(i).equalsIgnoreCase(stripQuotes(indexColumns.get(i)))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return table + columns;
+        }
+
+        private static String stripQuotes(String column) {
+            return column.length() > 1 && column.startsWith("\"") && column.endsWith("\"")
+                    ? column.substring(1, column.length() - 1)
+                    : column;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.user_service.deletion;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * The purge pool is owned by UserDeletionServiceImpl rather than exposed as a bean, like the import pools.
+ */
+@Configuration
+@EnableConfigurationProperties(UserDeletionProperties.class)
+public class UserDeletionConfig {
+}
@@ -0,0 +1,69 @@
+package com.example.user_service.deletion;
+
+import com.example.user_service.dto.UserDeletionStatus;
+import com.example.user_service.enumeration.DeletionStatus;
+import com.example.user_service.repository.UserDeletionRepository.PurgedTable;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one user deletion, updated by the purge thread and read by status requests.
+ */
+@Getter
+public class UserDeletionJob {
+
+    private final String id;
+    private final Long userId;
+    private final LocalDateTime queuedAt = LocalDateTime.now();
+    private final Map<PurgedTable, AtomicLong> deleted = new ConcurrentHashMap<>();
+    private volatile DeletionStatus status = DeletionStatus.QUEUED;
+    private volatile String message;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    public UserDeletionJob(String id, Long userId) {
+        this.id = id;
+        this.userId = userId;
+    }
+
+    public void start() {
+        this.startedAt = LocalDateTime.now();
+        this.status = DeletionStatus.RUNNING;
+    }
+
+    public void deleted(PurgedTable table, int rows) {
+        deleted.computeIfAbsent(table, key -> new AtomicLong()).addAndGet(rows);
+    }
+
+    public void finish(DeletionStatus status, String message) {
+        this.message = message;
+        this.finishedAt = LocalDateTime.now();
+        this.status = status;
+    }
+
+    public boolean isFinished() {
+        return status == DeletionStatus.COMPLETED || status == DeletionStatus.FAILED;
+    }
+
+    public UserDeletionStatus toStatus() {
+        Map<String, Long> deletedSnapshot = new LinkedHashMap<>();
+        for (PurgedTable table : PurgedTable.values()) {
+            AtomicLong rows = deleted.get(table);
+            deletedSnapshot.put(table.getTableName(), rows == null ? 0 : rows.get());
+        }
+        return UserDeletionStatus.builder()
+                .jobId(id)
+                .userId(userId)
+                .status(status)
+                .deleted(deletedSnapshot)
+                .message(message)
+                .startedAt(startedAt == null ? null : startedAt.toString())
+                .finishedAt(finishedAt == null ? null : finishedAt.toString())
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.user_service.deletion;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user-deletion")
+public class UserDeletionProperties {
+
+    /**
+     * Rows removed by one {@code DELETE}; each chunk commits on its own, which bounds lock time and WAL per transaction.
+     */
+    private int chunkSize = 5000;
+
+    /**
+     * Pause after each full chunk so vacuum, checkpoints and replicas keep up with a large purge.
+     */
+    private Duration pause = Duration.ofMillis(200);
+
+    /**
+     * Deletions purged at the same time; further ones wait in a queue.
+     */
+    private int maxConcurrentDeletions = 1;
+
+    /**
+     * How long finished jobs stay queryable.
+     */
+    private Duration jobRetention = Duration.ofHours(24);
+}
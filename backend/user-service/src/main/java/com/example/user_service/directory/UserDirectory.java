@@ -0,0 +1,105 @@
+package com.example.user_service.directory;
+
+import com.example.user_service.dto.UserView;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of every user, indexed by id, public user id and normalized email. Snapshots are replaced
+ * whole by the single {@link UserDirectorySynchronizer} thread, so readers never see a half-updated user.
+ * Lookups return empty while the directory is not serving: before the first full load, and once it has not
+ * been confirmed in sync for {@code user-directory.max-staleness}. Callers then read from the database.
+ */
+public class UserDirectory {
+
+    private final Map<Long, UserSnapshot> byId = new ConcurrentHashMap<>();
+    private final Map<String, UserSnapshot> byUserId = new ConcurrentHashMap<>();
+    private final Map<String, UserSnapshot> byEmail = new ConcurrentHashMap<>();
+    private final long maxStalenessNanos;
+
+    private volatile boolean loaded;
+    private volatile long syncedAt;
+
+    public UserDirectory(Duration maxStaleness) {
+        this.maxStalenessNanos = maxStaleness.toNanos();
+    }
+
+    public boolean isServing() {
+        return loaded && System.nanoTime() - syncedAt <= maxStalenessNanos;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public Optional<UserView> findById(Long id) {
+        return find(byId, id);
+    }
+
+    public Optional<UserView> findByUserId(String userId) {
+        return find(byUserId, userId);
+    }
+
+    public Optional<UserView> findByEmailNormalized(String emailNormalized) {
+        return find(byEmail, emailNormalized);
+    }
+
+    /**
+     * Stores {@code snapshot} unless a newer version of the user is already present.
+     */
+    void put(UserSnapshot snapshot) {
+        UserSnapshot previous = byId.get(snapshot.view().id());
+        if (previous != null) {
+            if (previous.version() > snapshot.version()) {
+                return;
+            }
+            byUserId.remove(previous.view().userId(), previous);
+            byEmail.remove(previous.emailNormalized(), previous);
+        }
+        byUserId.put(snapshot.view().userId(), snapshot);
+        byEmail.put(snapshot.emailNormalized(), snapshot);
+        byId.put(snapshot.view().id(), snapshot);
+    }
+
+    void remove(Long id) {
+        UserSnapshot previous = byId.remove(id);
+        if (previous != null) {
+            byUserId.remove(previous.view().userId(), previous);
+            byEmail.remove(previous.emailNormalized(), previous);
+        }
+    }
+
+    /**
+     * Compares the held users with {@code versions} (id to current version): users that no longer exist are
+     * removed, and the ids of users that are missing or held at another version are returned for reloading.
+     */
+    List<Long> reconcile(Map<Long, Long> versions) {
+        new ArrayList<>(byId.keySet()).stream().filter(id -> !versions.containsKey(id)).forEach(this::remove);
+        List<Long> stale = new ArrayList<>();
+        versions.forEach((id, version) -> {
+            UserSnapshot snapshot = byId.get(id);
+            if (snapshot == null || snapshot.version() != version) {
+                stale.add(id);
+            }
+        });
+        return stale;
+    }
+
+    void markLoaded() {
+        loaded = true;
+        markSynced();
+    }
+
+    void markSynced() {
+        syncedAt = System.nanoTime();
+    }
+
+    private <K> Optional<UserView> find(Map<K, UserSnapshot> index, K key) {
+        if (key == null || !isServing()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(index.get(key)).map(UserSnapshot::view);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.user_service.directory;
+
+import com.example.user_service.repository.UserDirectoryRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * The directory bean always exists so readers can depend on it; without the synchronizer it is never loaded
+ * and every lookup falls through to the database.
+ */
+@Configuration
+@EnableConfigurationProperties(UserDirectoryProperties.class)
+public class UserDirectoryConfig {
+
+    @Bean
+    public UserDirectory userDirectory(UserDirectoryProperties properties) {
+        return new UserDirectory(properties.getMaxStaleness());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "user-directory", name = "enabled", havingValue = "true")
+    public UserDirectorySynchronizer userDirectorySynchronizer(UserDirectory userDirectory,
+                                                               UserDirectoryRepository userDirectoryRepository,
+                                                               DataSourceProperties dataSourceProperties,
+                                                               UserDirectoryProperties properties) {
+        return new UserDirectorySynchronizer(userDirectory, userDirectoryRepository, dataSourceProperties, properties);
+    }
+}
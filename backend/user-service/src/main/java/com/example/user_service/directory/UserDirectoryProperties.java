@@ -0,0 +1,41 @@
+package com.example.user_service.directory;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user-directory")
+public class UserDirectoryProperties {
+
+    /**
+     * Serves user reads from memory; off by default because every instance then holds the whole user table.
+     */
+    private boolean enabled = false;
+
+    /**
+     * How long the listener waits for notifications before checking that its connection is still alive.
+     */
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    /**
+     * Reads fall back to the database once the directory has not been confirmed in sync for this long,
+     * e.g. while the listener reconnects.
+     */
+    private Duration maxStaleness = Duration.ofSeconds(5);
+
+    /**
+     * First delay before reconnecting a lost listener connection; doubled up to {@code max-reconnect-delay}.
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(1);
+
+    private Duration maxReconnectDelay = Duration.ofSeconds(30);
+
+    /**
+     * Users loaded per query during a resync.
+     */
+    private int loadBatchSize = 1000;
+}
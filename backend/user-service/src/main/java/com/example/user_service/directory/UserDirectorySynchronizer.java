@@ -0,0 +1,129 @@
+package com.example.user_service.directory;
+
+import com.example.user_service.repository.UserDirectoryRepository;
+import com.google.common.collect.Lists;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Keeps a {@link UserDirectory} in step with the database. A dedicated connection, outside the pool and always
+ * to the primary, listens on the {@code user_directory} channel that the V7 triggers notify with the id of each
+ * changed user; changed users are reloaded in batches as notifications arrive. After every (re)connect the
+ * listener first compares the version of every user with the held snapshots and reloads the ones that differ,
+ * so changes committed while it was disconnected are not lost. Between notifications the connection is pinged
+ * every {@code poll-interval}; each successful round marks the directory as in sync.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class UserDirectorySynchronizer {
+
+    static final String CHANNEL = "user_directory";
+
+    private final UserDirectory userDirectory;
+    private final UserDirectoryRepository userDirectoryRepository;
+    private final DataSourceProperties dataSourceProperties;
+    private final UserDirectoryProperties properties;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (listener != null) {
+            return;
+        }
+        running = true;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("user-directory-");
+        threadFactory.setDaemon(true);
+        listener = threadFactory.newThread(this::listen);
+        listener.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+            listener = null;
+        }
+    }
+
+    private void listen() {
+        Duration delay = properties.getReconnectDelay();
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // Listening before the resync means nothing committed in between can be missed.
+                resync();
+                delay = properties.getReconnectDelay();
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) properties.getPollInterval().toMillis());
+                    if (notifications == null || notifications.length == 0) {
+                        try (Statement statement = connection.createStatement()) {
+                            statement.execute("SELECT 1");
+                        }
+                    } else {
+                        Set<Long> ids = new HashSet<>();
+                        for (PGNotification notification : notifications) {
+                            ids.add(Long.parseLong(notification.getParameter()));
+                        }
+                        reload(ids);
+                    }
+                    userDirectory.markSynced();
+                }
+            } catch (SQLException | RuntimeException exception) {
+                if (!running) {
+                    return;
+                }
+                log.warn("User directory listener failed; reconnecting in {}", delay, exception);
+                try {
+                    Thread.sleep(delay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                delay = delay.multipliedBy(2).compareTo(properties.getMaxReconnectDelay()) > 0
+                        ? properties.getMaxReconnectDelay() : delay.multipliedBy(2);
+            }
+        }
+    }
+
+    /**
+     * Reloads every user whose version differs from the held snapshot and drops users that no longer exist.
+     */
+    void resync() {
+        List<Long> stale = userDirectory.reconcile(userDirectoryRepository.findVersions());
+        reload(stale);
+        userDirectory.markLoaded();
+        log.info("User directory in sync: {} users, {} reloaded", userDirectory.size(), stale.size());
+    }
+
+    void reload(Collection<Long> ids) {
+        for (List<Long> batch : Lists.partition(new ArrayList<>(ids), properties.getLoadBatchSize())) {
+            Set<Long> missing = new HashSet<>(batch);
+            for (UserSnapshot snapshot : userDirectoryRepository.findByIds(batch)) {
+                userDirectory.put(snapshot);
+                missing.remove(snapshot.view().id());
+            }
+            missing.forEach(userDirectory::remove);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.user_service.directory;
+
+import com.example.user_service.dto.UserView;
+
+/**
+ * Immutable copy of one user as a read returns it, with the {@code users.directory_version} it was read at.
+ */
+public record UserSnapshot(UserView view, String emailNormalized, long version) {
+}
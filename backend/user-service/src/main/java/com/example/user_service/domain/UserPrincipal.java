@@ -2,10 +2,10 @@ package com.example.user_service.domain;
 
 import com.example.user_service.dto.User;
 import com.example.user_service.entity.CredentialEntity;
+import com.example.user_service.enumeration.Authority;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
@@ -20,7 +20,7 @@ public class UserPrincipal implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return AuthorityUtils.commaSeparatedStringToAuthorityList(user.getAuthorities());
+        return Authority.toGrantedAuthorities(user.getAuthorities());
     }
 
     @Override
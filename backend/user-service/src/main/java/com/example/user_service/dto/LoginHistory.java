@@ -0,0 +1,27 @@
+package com.example.user_service.dto;
+
+import lombok.*;
+
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoginHistory {
+
+    private Long id;
+    private Long userId;
+    private LocalDateTime loginTime;
+    private String ip;
+    private String userAgent;
+    private boolean success;
+
+    /**
+     * Projection constructor: rows store the address as {@code inet}, the API exposes it as text.
+     */
+    public LoginHistory(Long id, Long userId, LocalDateTime loginTime, InetAddress ip, String userAgent, boolean success) {
+        this(id, userId, loginTime, ip == null ? null : ip.getHostAddress(), userAgent, success);
+    }
+}
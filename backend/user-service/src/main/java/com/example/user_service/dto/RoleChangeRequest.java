@@ -0,0 +1,21 @@
+package com.example.user_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RoleChangeRequest {
+
+    @NotEmpty(message = "Role cannot be empty or null")
+    private String role;
+
+    @Valid
+    @NotNull(message = "Users to change cannot be null")
+    private UserSelector users;
+}
@@ -1,5 +1,6 @@
 package com.example.user_service.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 
 @Data
@@ -29,4 +30,6 @@ public class User {
     private boolean credentialsNonExpired;
     private boolean enabled;
     private boolean mfa;
+    @JsonIgnore
+    private int tokenVersion;
 }
@@ -0,0 +1,21 @@
+package com.example.user_service.dto;
+
+import com.example.user_service.enumeration.DeletionStatus;
+import lombok.*;
+
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserDeletionStatus {
+
+    private String jobId;
+    private Long userId;
+    private DeletionStatus status;
+    private Map<String, Long> deleted;
+    private String message;
+    private String startedAt;
+    private String finishedAt;
+}
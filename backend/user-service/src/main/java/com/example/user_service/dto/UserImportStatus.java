@@ -0,0 +1,24 @@
+package com.example.user_service.dto;
+
+import com.example.user_service.enumeration.ImportStatus;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportStatus {
+
+    private String jobId;
+    private ImportStatus status;
+    private long rowsRead;
+    private long imported;
+    private long duplicates;
+    private long failed;
+    private List<String> errors;
+    private String message;
+    private String startedAt;
+    private String finishedAt;
+}
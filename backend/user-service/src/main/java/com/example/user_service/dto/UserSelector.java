@@ -0,0 +1,40 @@
+package com.example.user_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Selects the users a bulk admin operation applies to. Every criterion that is set must match;
+ * {@code ids} restricts the selection to those users.
+ */
+@Data
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UserSelector {
+
+    @Size(max = 10000, message = "At most 10000 user ids can be given")
+    private List<Long> ids;
+
+    private String role;
+
+    private Boolean locked;
+
+    @Min(value = 0, message = "Login attempts cannot be negative")
+    private Integer minLoginAttempts;
+
+    private LocalDateTime createdBefore;
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return (ids == null || ids.isEmpty()) && role == null && locked == null && minLoginAttempts == null
+                && createdBefore == null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.user_service.dto;
+
+import com.example.user_service.enumeration.Authority;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a user with its role and the last credential change, selected in one
+ * query for token validation and profile reads.
+ */
+public record UserView(Long id,
+                       Long createdBy,
+                       Long updatedBy,
+                       String userId,
+                       String firstName,
+                       String lastName,
+                       String email,
+                       String phone,
+                       String bio,
+                       String imageUrl,
+                       LocalDate lastLogin,
+                       LocalDateTime createdAt,
+                       LocalDateTime updatedAt,
+                       String role,
+                       Authority authorities,
+                       boolean accountNonExpired,
+                       boolean accountNonLocked,
+                       boolean enabled,
+                       boolean mfa,
+                       int tokenVersion,
+                       LocalDateTime credentialUpdatedAt) {
+}
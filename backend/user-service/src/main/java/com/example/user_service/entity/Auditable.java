@@ -2,13 +2,13 @@ package com.example.user_service.entity;
 
 import com.example.user_service.domain.RequestContext;
 import com.example.user_service.exception.ApiException;
+import com.example.user_service.utils.ReferenceIdGenerator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
-import org.springframework.util.AlternativeJdkIdGenerator;
 
 import java.time.LocalDateTime;
 
@@ -24,7 +24,8 @@ public abstract class Auditable {
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
 
-    private String referenceId = new AlternativeJdkIdGenerator().generateId().toString();
+    @Column(name = "reference_id", updatable = false)
+    private String referenceId;
 
     @NotNull
     private Long createdBy;
@@ -47,6 +48,9 @@ public abstract class Auditable {
         if (userId == null) {
             throw new ApiException("Cannot persist entity without user ID in Request Context for this thread");
         }
+        if (this.referenceId == null) {
+            this.referenceId = ReferenceIdGenerator.generate();
+        }
         this.createdAt = LocalDateTime.now();
         this.createdBy = userId;
         this.updatedAt = LocalDateTime.now();
@@ -2,7 +2,10 @@ package com.example.user_service.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
+import java.net.InetAddress;
 import java.time.LocalDateTime;
 
 @Getter
@@ -18,8 +21,16 @@ public class LoginHistoryEntity extends Auditable {
     @JoinColumn(name = "user_id", nullable = false)
     private UserEntity user;
 
+    @Column(nullable = false)
     private LocalDateTime loginTime;
-    private String ip;
-    private String userAgent;
+
+    @JdbcTypeCode(SqlTypes.INET)
+    private InetAddress ip;
+
+    /**
+     * Id in the {@code user_agents} dictionary; see {@link com.example.user_service.cache.UserAgentRegistry}.
+     */
+    private Integer userAgentId;
+
     private boolean success;
 }
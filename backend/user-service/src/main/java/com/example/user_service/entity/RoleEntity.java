@@ -1,9 +1,11 @@
 package com.example.user_service.entity;
 
 
+import com.example.user_service.entity.listener.RoleEntityListener;
 import com.example.user_service.enumeration.Authority;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Table;
 import lombok.*;
 
@@ -15,6 +17,7 @@ import lombok.*;
 @AllArgsConstructor
 @Entity
 @Table(name = "roles")
+@EntityListeners(RoleEntityListener.class)
 @JsonInclude(JsonInclude.Include.NON_DEFAULT)
 public class RoleEntity extends Auditable {
 
@@ -0,0 +1,25 @@
+package com.example.user_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Dictionary entry for a user agent string; login history rows reference it by id.
+ * Rows are only ever inserted, never updated, so the entity is not audited.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "user_agents")
+public class UserAgentEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, unique = true)
+    private String userAgent;
+}
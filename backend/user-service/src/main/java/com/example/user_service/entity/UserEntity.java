@@ -1,5 +1,6 @@
 package com.example.user_service.entity;
 
+import com.example.user_service.utils.UserUtils;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.*;
@@ -30,6 +31,10 @@ public class UserEntity extends Auditable {
     @Email
     private String email;
 
+    @JsonIgnore
+    @Column(nullable = false, unique = true)
+    private String emailNormalized;
+
     private Integer loginAttempts;
 
     private LocalDate lastLogin;
@@ -48,6 +53,10 @@ public class UserEntity extends Auditable {
 
     private boolean mfa;
 
+    @JsonIgnore
+    @Column(nullable = false)
+    private int tokenVersion;
+
     @JsonIgnore
     private String qrCodeSecret;
 
@@ -63,5 +72,10 @@ public class UserEntity extends Auditable {
                     name = "role_id", referencedColumnName = "id")
     )
     private RoleEntity role;
-}
 
+    @PrePersist
+    @PreUpdate
+    protected void normalizeEmail() {
+        this.emailNormalized = UserUtils.normalizeEmail(email);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.user_service.entity.listener;
+
+import com.example.user_service.cache.RoleRegistry;
+import com.example.user_service.entity.RoleEntity;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class RoleEntityListener {
+
+    private final ObjectProvider<RoleRegistry> roleRegistry;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onRoleChanged(RoleEntity role) {
+        roleRegistry.ifAvailable(RoleRegistry::reloadAfterCommit);
+    }
+}
@@ -1,6 +1,15 @@
 package com.example.user_service.enumeration;
 
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
 import static com.example.user_service.constant.Constants.*;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toUnmodifiableMap;
 
 public enum Authority {
 
@@ -12,13 +21,54 @@ public enum Authority {
 
     SUPER_ADMIN(SUPER_ADMIN_AUTHORITIES);
 
+    private static final Map<String, Authority> BY_VALUE = Stream.of(values())
+            .collect(toUnmodifiableMap(Authority::getValue, identity()));
+
     private final String value;
 
+    private final List<GrantedAuthority> grantedAuthorities;
+
     Authority(String value) {
         this.value = value;
+        this.grantedAuthorities = List.copyOf(AuthorityUtils.commaSeparatedStringToAuthorityList(value));
     }
 
     public String getValue() {
         return value;
     }
+
+    public List<GrantedAuthority> getGrantedAuthorities() {
+        return grantedAuthorities;
+    }
+
+    /**
+     * Constants are declared from the lowest to the highest rank.
+     */
+    public boolean isAbove(Authority other) {
+        return compareTo(other) > 0;
+    }
+
+    public boolean isElevated() {
+        return compareTo(ADMIN) >= 0;
+    }
+
+    public boolean grants(String authority) {
+        return grantedAuthorities.stream().anyMatch(granted -> granted.getAuthority().equals(authority));
+    }
+
+    public static Authority fromValue(String value) {
+        Authority authority = BY_VALUE.get(value);
+        if (authority == null) {
+            throw new IllegalArgumentException("Unknown authority value: " + value);
+        }
+        return authority;
+    }
+
+    public static List<GrantedAuthority> toGrantedAuthorities(String value) {
+        if (value == null) {
+            return AuthorityUtils.NO_AUTHORITIES;
+        }
+        Authority authority = BY_VALUE.get(value);
+        return authority != null ? authority.grantedAuthorities : AuthorityUtils.commaSeparatedStringToAuthorityList(value);
+    }
 }
@@ -0,0 +1,8 @@
+package com.example.user_service.enumeration;
+
+public enum DeletionStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
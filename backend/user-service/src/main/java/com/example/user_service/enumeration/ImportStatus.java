@@ -0,0 +1,7 @@
+package com.example.user_service.enumeration;
+
+public enum ImportStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -4,8 +4,6 @@ import com.example.user_service.enumeration.Authority;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 
-import java.util.stream.Stream;
-
 @Converter(autoApply = true)
 public class RoleConvertor implements AttributeConverter<Authority, String> {
 
@@ -22,10 +20,6 @@ public class RoleConvertor implements AttributeConverter<Authority, String> {
         if (code == null) {
             return null;
         }
-        return Stream.of(Authority.values())
-                .filter(authority -> authority.getValue().equals(code))
-                .findFirst()
-                .orElseThrow(IllegalArgumentException::new);
+        return Authority.fromValue(code);
     }
 }
-
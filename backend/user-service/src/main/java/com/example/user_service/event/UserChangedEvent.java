@@ -0,0 +1,8 @@
+package com.example.user_service.event;
+
+/**
+ * Published whenever something a user read returns may have changed. {@code userId} (the public id) may be
+ * {@code null} when only the internal {@code id} is at hand, as in bulk updates.
+ */
+public record UserChangedEvent(Long id, String userId) {
+}
@@ -1,5 +1,6 @@
 package com.example.user_service.exception;
 
+import com.example.user_service.cache.SingleFlightTimeoutException;
 import com.example.user_service.domain.Response;
 import com.example.user_service.utils.RequestUtils;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,10 +8,13 @@ import jakarta.validation.ConstraintViolationException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -52,6 +56,16 @@ public class ExceptionHandlerAdvice {
         return RequestUtils.getResponse(request, Map.of(), "Access denied: " + ex.getMessage(), HttpStatus.FORBIDDEN);
     }
 
+    /**
+     * The async request pool is saturated, a handler did not finish in time or a lookup gave up waiting for an
+     * identical one; answered with a real 503 so clients and load balancers back off.
+     */
+    @ExceptionHandler({TaskRejectedException.class, AsyncRequestTimeoutException.class, SingleFlightTimeoutException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Response handleOverloadException(Exception ex, HttpServletRequest request) {
+        return RequestUtils.getResponse(request, Map.of(), "Service is busy, please retry", HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(Exception.class)
     public Response handleGenericException(Exception ex, HttpServletRequest request) {
         return RequestUtils.getResponse(request, Map.of("error", ex.getMessage()), "An unexpected error occurred", HttpStatus.INTERNAL_SERVER_ERROR);
@@ -0,0 +1,20 @@
+package com.example.user_service.importer;
+
+import java.util.Locale;
+
+public enum ImportFormat {
+    CSV,
+    NDJSON;
+
+    public static ImportFormat detect(String format, String filename, String contentType) {
+        if (format != null && !format.isBlank()) {
+            return valueOf(format.trim().toUpperCase(Locale.ROOT));
+        }
+        String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")
+                || (contentType != null && contentType.contains("ndjson"))) {
+            return NDJSON;
+        }
+        return CSV;
+    }
+}
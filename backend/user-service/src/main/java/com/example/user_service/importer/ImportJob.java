@@ -0,0 +1,72 @@
+package com.example.user_service.importer;
+
+import com.example.user_service.dto.UserImportStatus;
+import com.example.user_service.enumeration.ImportStatus;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one import, updated by the import thread and read by status requests.
+ */
+@Getter
+public class ImportJob {
+
+    private final String id;
+    private final int maxErrors;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<String> errors = new ArrayList<>();
+    private volatile ImportStatus status = ImportStatus.RUNNING;
+    private volatile String message;
+    private volatile LocalDateTime finishedAt;
+
+    public ImportJob(String id, int maxErrors) {
+        this.id = id;
+        this.maxErrors = maxErrors;
+    }
+
+    public void rejected(ImportRow row, String reason) {
+        failed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxErrors) {
+                errors.add("line " + row.line() + ": " + reason);
+            }
+        }
+    }
+
+    public void finish(ImportStatus status, String message) {
+        this.message = message;
+        this.finishedAt = LocalDateTime.now();
+        this.status = status;
+    }
+
+    public boolean isFinished() {
+        return status != ImportStatus.RUNNING;
+    }
+
+    public UserImportStatus toStatus() {
+        List<String> errorsSnapshot;
+        synchronized (errors) {
+            errorsSnapshot = List.copyOf(errors);
+        }
+        return UserImportStatus.builder()
+                .jobId(id)
+                .status(status)
+                .rowsRead(rowsRead.get())
+                .imported(imported.get())
+                .duplicates(duplicates.get())
+                .failed(failed.get())
+                .errors(errorsSnapshot)
+                .message(message)
+                .startedAt(startedAt.toString())
+                .finishedAt(finishedAt == null ? null : finishedAt.toString())
+                .build();
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.user_service.importer;
+
+/**
+ * One user read from an import file; {@code line} is the 1-based line number used in error reports.
+ */
+public record ImportRow(long line, String firstName, String lastName, String email, String password) {
+}
@@ -0,0 +1,7 @@
+package com.example.user_service.importer;
+
+/**
+ * An import row that passed validation and de-duplication, with its password already hashed.
+ */
+public record PreparedUser(ImportRow row, String emailNormalized, String passwordHash) {
+}
@@ -0,0 +1,13 @@
+package com.example.user_service.importer;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * The import and hashing pools are owned by UserImportServiceImpl rather than exposed as beans, so that
+ * they do not displace the auto-configured executor used by @Async.
+ */
+@Configuration
+@EnableConfigurationProperties(UserImportProperties.class)
+public class UserImportConfig {
+}
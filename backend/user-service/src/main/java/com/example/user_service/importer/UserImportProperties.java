@@ -0,0 +1,35 @@
+package com.example.user_service.importer;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user-import")
+public class UserImportProperties {
+
+    /**
+     * Rows de-duplicated, hashed and inserted together; also the JDBC batch size.
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Threads hashing passwords. BCrypt is CPU bound, so more threads than cores only adds contention.
+     */
+    private int hashingThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Imports allowed to run at the same time; further uploads are rejected until one finishes.
+     */
+    private int maxConcurrentImports = 1;
+
+    private int maxReportedErrors = 100;
+
+    /**
+     * How long finished jobs stay queryable.
+     */
+    private Duration jobRetention = Duration.ofHours(24);
+}
@@ -0,0 +1,132 @@
+package com.example.user_service.importer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads import rows one line at a time so the file is never held in memory. CSV files start with a
+ * header naming the {@code firstName}, {@code lastName}, {@code email} and {@code password} columns in
+ * any order; NDJSON files carry one object with those fields per line. Blank lines are skipped.
+ */
+public class UserImportReader implements Closeable {
+
+    private static final String[] COLUMNS = {"firstname", "lastname", "email", "password"};
+
+    private final BufferedReader reader;
+    private final ImportFormat format;
+    private final ObjectMapper objectMapper;
+    private int[] columnIndexes;
+    private long line;
+
+    public UserImportReader(BufferedReader reader, ImportFormat format, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reads up to {@code max} rows; an empty list means the end of the file. Rows that cannot be parsed
+     * are returned with null fields and rejected later by validation, so their line numbers are reported.
+     */
+    public List<ImportRow> read(int max) {
+        List<ImportRow> rows = new ArrayList<>(max);
+        try {
+            String text;
+            while (rows.size() < max && (text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                if (format == ImportFormat.CSV && columnIndexes == null) {
+                    columnIndexes = headerIndexes(parseCsvLine(text));
+                    continue;
+                }
+                rows.add(format == ImportFormat.CSV ? fromCsv(text) : fromJson(text));
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private ImportRow fromCsv(String text) {
+        List<String> values = parseCsvLine(text);
+        return new ImportRow(line, value(values, 0), value(values, 1), value(values, 2), value(values, 3));
+    }
+
+    private String value(List<String> values, int column) {
+        int index = columnIndexes[column];
+        return index < values.size() ? values.get(index) : null;
+    }
+
+    private ImportRow fromJson(String text) {
+        try {
+            JsonNode node = objectMapper.readTree(text);
+            return new ImportRow(line, text(node, "firstName"), text(node, "lastName"), text(node, "email"), text(node, "password"));
+        } catch (IOException exception) {
+            return new ImportRow(line, null, null, null, null);
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static int[] headerIndexes(List<String> header) {
+        int[] indexes = new int[COLUMNS.length];
+        for (int i = 0; i < COLUMNS.length; i++) {
+            indexes[i] = -1;
+            for (int j = 0; j < header.size(); j++) {
+                if (header.get(j).trim().toLowerCase(Locale.ROOT).replace("_", "").equals(COLUMNS[i])) {
+                    indexes[i] = j;
+                }
+            }
+            if (indexes[i] < 0) {
+                throw new IllegalArgumentException("CSV header is missing column " + COLUMNS[i]);
+            }
+        }
+        return indexes;
+    }
+
+    static List<String> parseCsvLine(String text) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+}
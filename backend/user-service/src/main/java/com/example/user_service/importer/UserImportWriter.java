@@ -0,0 +1,102 @@
+package com.example.user_service.importer;
+
+import com.example.user_service.utils.ReferenceIdGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static com.example.user_service.constant.Constants.DEFAULT_IMAGE_URL;
+
+/**
+ * Set-based persistence for bulk imports: one query de-duplicates a whole batch and each table is
+ * written with a single JDBC batch, with ids taken from the shared sequence in one round trip.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserImportWriter {
+
+    private static final String EXISTING_EMAILS =
+            "SELECT email_normalized FROM users WHERE email_normalized IN (:emails)";
+
+    private static final String NEXT_IDS =
+            "SELECT nextval('primary_key_seq') FROM generate_series(1, :count)";
+
+    private static final String INSERT_USER = """
+            INSERT INTO users (id, user_id, reference_id, created_at, created_by, updated_at, updated_by, email,
+                               email_normalized, first_name, last_name, login_attempts, phone, bio, image_url, mfa,
+                               enabled, account_non_expired, account_non_locked, qr_code_secret, last_login)
+            VALUES (:id, :userId, :referenceId, :now, :actor, :now, :actor, :email, :emailNormalized, :firstName,
+                    :lastName, 0, '', '', :imageUrl, FALSE, :enabled, TRUE, TRUE, '', :lastLogin)
+            """;
+
+    private static final String INSERT_USER_ROLE = "INSERT INTO user_roles (user_id, role_id) VALUES (:userId, :roleId)";
+
+    private static final String INSERT_CREDENTIAL = """
+            INSERT INTO credentials (id, reference_id, created_at, created_by, updated_at, updated_by, password, user_id)
+            VALUES (:id, :referenceId, :now, :actor, :now, :actor, :password, :userId)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Set<String> findExistingEmails(Collection<String> emailsNormalized) {
+        if (emailsNormalized.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(EXISTING_EMAILS, Map.of("emails", emailsNormalized), String.class));
+    }
+
+    /**
+     * Inserts the users with their role and credential. Must run inside a transaction so a failing batch
+     * leaves nothing behind. Users are inserted disabled when they still have to verify their email.
+     * Returns the id of each user, in input order.
+     */
+    public List<Long> insert(List<PreparedUser> users, Long roleId, Long actorId, boolean enabled) {
+        int size = users.size();
+        List<Long> ids = jdbcTemplate.queryForList(NEXT_IDS, Map.of("count", size * 2), Long.class);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        LocalDate today = LocalDate.now();
+        List<Long> userIds = new ArrayList<>(size);
+        SqlParameterSource[] userParams = new SqlParameterSource[size];
+        SqlParameterSource[] roleParams = new SqlParameterSource[size];
+        SqlParameterSource[] credentialParams = new SqlParameterSource[size];
+        for (int i = 0; i < size; i++) {
+            PreparedUser user = users.get(i);
+            long userId = ids.get(i * 2);
+            userIds.add(userId);
+            userParams[i] = new MapSqlParameterSource()
+                    .addValue("id", userId)
+                    .addValue("userId", UUID.randomUUID().toString())
+                    .addValue("referenceId", ReferenceIdGenerator.generate())
+                    .addValue("now", now)
+                    .addValue("actor", actorId)
+                    .addValue("email", user.row().email().trim())
+                    .addValue("emailNormalized", user.emailNormalized())
+                    .addValue("firstName", user.row().firstName())
+                    .addValue("lastName", user.row().lastName())
+                    .addValue("imageUrl", DEFAULT_IMAGE_URL)
+                    .addValue("enabled", enabled)
+                    .addValue("lastLogin", today);
+            roleParams[i] = new MapSqlParameterSource()
+                    .addValue("userId", userId)
+                    .addValue("roleId", roleId);
+            credentialParams[i] = new MapSqlParameterSource()
+                    .addValue("id", ids.get(i * 2 + 1))
+                    .addValue("referenceId", ReferenceIdGenerator.generate())
+                    .addValue("now", now)
+                    .addValue("actor", actorId)
+                    .addValue("password", user.passwordHash())
+                    .addValue("userId", userId);
+        }
+        jdbcTemplate.batchUpdate(INSERT_USER, userParams);
+        jdbcTemplate.batchUpdate(INSERT_USER_ROLE, roleParams);
+        jdbcTemplate.batchUpdate(INSERT_CREDENTIAL, credentialParams);
+        return userIds;
+    }
+}
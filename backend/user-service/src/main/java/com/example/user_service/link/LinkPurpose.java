@@ -0,0 +1,13 @@
+package com.example.user_service.link;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum LinkPurpose {
+    VERIFY_ACCOUNT((byte) 1),
+    RESET_PASSWORD((byte) 2);
+
+    private final byte code;
+}
@@ -0,0 +1,10 @@
+package com.example.user_service.link;
+
+import java.time.Instant;
+
+/**
+ * A verified link. {@code binding} ties the link to state that changes once it has been acted on,
+ * such as the password a reset link replaces.
+ */
+public record SignedLink(LinkPurpose purpose, Long userId, Instant expiresAt, String nonce, long binding) {
+}
@@ -0,0 +1,132 @@
+package com.example.user_service.link;
+
+import com.example.user_service.exception.ApiException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Issues and verifies the keys of emailed links. A key is the base64url payload
+ * {@code purpose | user id | expiry | nonce | binding} followed by a truncated HMAC-SHA256 of it, so it
+ * can be checked without a database lookup.
+ */
+public class SignedLinkCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int NONCE_BYTES = 12;
+    private static final int PAYLOAD_BYTES = 1 + Long.BYTES + Long.BYTES + NONCE_BYTES + Long.BYTES;
+    private static final int SIGNATURE_BYTES = 16;
+    private static final char SEPARATOR = '.';
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SignedLinkProperties properties;
+    private final Clock clock;
+    private final SecureRandom random = new SecureRandom();
+    private final ThreadLocal<Mac> mac;
+
+    public SignedLinkCodec(SignedLinkProperties properties, Clock clock) {
+        if (properties.getSecret() == null || properties.getSecret().isBlank()) {
+            throw new IllegalStateException("signed-links.secret must be set");
+        }
+        this.properties = properties;
+        this.clock = clock;
+        // Derived so that the key differs from the JWT key even when both come from the same secret.
+        SecretKeySpec key = new SecretKeySpec(
+                hmac(properties.getSecret().getBytes(StandardCharsets.UTF_8), "signed-links"), ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> newMac(key));
+    }
+
+    public String issue(LinkPurpose purpose, Long userId, long binding) {
+        byte[] nonce = new byte[NONCE_BYTES];
+        random.nextBytes(nonce);
+        byte[] payload = ByteBuffer.allocate(PAYLOAD_BYTES)
+                .put(purpose.getCode())
+                .putLong(userId)
+                .putLong(clock.instant().plus(properties.getTtl(purpose)).getEpochSecond())
+                .put(nonce)
+                .putLong(binding)
+                .array();
+        return ENCODER.encodeToString(payload) + SEPARATOR + ENCODER.encodeToString(sign(payload));
+    }
+
+    public SignedLink parse(String key, LinkPurpose purpose) {
+        int separator = key == null ? -1 : key.indexOf(SEPARATOR);
+        if (separator < 0) {
+            throw invalid();
+        }
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(key.substring(0, separator));
+            signature = DECODER.decode(key.substring(separator + 1));
+        } catch (IllegalArgumentException exception) {
+            throw invalid();
+        }
+        if (payload.length != PAYLOAD_BYTES || !MessageDigest.isEqual(sign(payload), signature)) {
+            throw invalid();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        if (buffer.get() != purpose.getCode()) {
+            throw invalid();
+        }
+        long userId = buffer.getLong();
+        Instant expiresAt = Instant.ofEpochSecond(buffer.getLong());
+        if (!clock.instant().isBefore(expiresAt)) {
+            throw new ApiException("Link has expired");
+        }
+        byte[] nonce = new byte[NONCE_BYTES];
+        buffer.get(nonce);
+        return new SignedLink(purpose, userId, expiresAt, ENCODER.encodeToString(nonce), buffer.getLong());
+    }
+
+    /**
+     * Tells signed keys from the random keys of confirmations issued before links were signed.
+     */
+    public static boolean isSignedLink(String key) {
+        return key != null && key.indexOf(SEPARATOR) > 0;
+    }
+
+    /**
+     * A short digest of {@code state} to bind a link to, without putting the state itself in the link.
+     */
+    public static long fingerprint(String state) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(state.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (GeneralSecurityException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        return Arrays.copyOf(mac.get().doFinal(payload), SIGNATURE_BYTES);
+    }
+
+    private static ApiException invalid() {
+        return new ApiException("Invalid key");
+    }
+
+    private static byte[] hmac(byte[] secret, String label) {
+        return newMac(new SecretKeySpec(secret, ALGORITHM)).doFinal(label.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
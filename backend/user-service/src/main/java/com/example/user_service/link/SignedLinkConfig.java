@@ -0,0 +1,17 @@
+package com.example.user_service.link;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(SignedLinkProperties.class)
+public class SignedLinkConfig {
+
+    @Bean
+    public SignedLinkCodec signedLinkCodec(SignedLinkProperties properties) {
+        return new SignedLinkCodec(properties, Clock.systemUTC());
+    }
+}
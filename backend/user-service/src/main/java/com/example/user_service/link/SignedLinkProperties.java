@@ -0,0 +1,26 @@
+package com.example.user_service.link;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "signed-links")
+public class SignedLinkProperties {
+
+    /**
+     * Secret the link signing key is derived from.
+     */
+    private String secret;
+
+    private Duration verificationTtl = Duration.ofHours(24);
+
+    private Duration passwordResetTtl = Duration.ofMinutes(30);
+
+    public Duration getTtl(LinkPurpose purpose) {
+        return purpose == LinkPurpose.RESET_PASSWORD ? passwordResetTtl : verificationTtl;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.user_service.metrics;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Carries the request's {@link RequestDbStats} to the thread that runs an asynchronous handler, so statements
+ * of {@code Callable} endpoints are attributed to their request like those of synchronous ones.
+ */
+class DbMetricsCallableInterceptor implements CallableProcessingInterceptor {
+
+    private static final String STATS_ATTRIBUTE = DbMetricsCallableInterceptor.class.getName() + ".stats";
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        RequestDbStats stats = RequestDbStats.current();
+        if (stats != null) {
+            request.setAttribute(STATS_ATTRIBUTE, stats, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        if (request.getAttribute(STATS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof RequestDbStats stats) {
+            RequestDbStats.bind(stats);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        RequestDbStats.unbind();
+    }
+}
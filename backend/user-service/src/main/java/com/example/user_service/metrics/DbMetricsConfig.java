@@ -0,0 +1,67 @@
+package com.example.user_service.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(DbMetricsProperties.class)
+@ConditionalOnProperty(prefix = "db-metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DbMetricsConfig implements WebMvcConfigurer {
+
+    /**
+     * Instruments the data source that hands out pooled connections. Behind a lazy proxy that is its target,
+     * because the proxy itself only fetches a real connection when the first statement runs.
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceInstrumenter() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof LazyConnectionDataSourceProxy proxy
+                        && !(proxy.getTargetDataSource() instanceof InstrumentedDataSource)) {
+                    proxy.setTargetDataSource(new InstrumentedDataSource(proxy.getTargetDataSource()));
+                }
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof InstrumentedDataSource)
+                        && !(bean instanceof LazyConnectionDataSourceProxy) && !(bean instanceof AbstractRoutingDataSource)) {
+                    return new InstrumentedDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public EndpointDbMetrics endpointDbMetrics() {
+        return new EndpointDbMetrics();
+    }
+
+    @Bean
+    public FilterRegistrationBean<DbMetricsFilter> dbMetricsFilter(EndpointDbMetrics endpointDbMetrics,
+                                                                   DbMetricsProperties properties) {
+        FilterRegistrationBean<DbMetricsFilter> registration =
+                new FilterRegistrationBean<>(new DbMetricsFilter(endpointDbMetrics, properties));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new DbMetricsCallableInterceptor());
+    }
+}
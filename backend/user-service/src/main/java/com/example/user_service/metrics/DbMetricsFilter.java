@@ -0,0 +1,87 @@
+package com.example.user_service.metrics;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Collects the database work of each request, records it under the matched endpoint and checks it against
+ * the endpoint's budget. Runs ahead of the security filters so token validation is counted as well. Requests
+ * handled asynchronously are recorded when they complete; their budget is only logged, as the response has
+ * been sent by then.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DbMetricsFilter extends OncePerRequestFilter {
+
+    static final String UNMATCHED = "UNMATCHED";
+
+    private final EndpointDbMetrics endpointDbMetrics;
+    private final DbMetricsProperties properties;
+
+    @Override
+    protected void doFilterInternal(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response,
+                                    @NotNull FilterChain filterChain) throws ServletException, IOException {
+        RequestDbStats stats = RequestDbStats.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDbStats.clear();
+        }
+        if (request.isAsyncStarted()) {
+            // The handler still runs on another thread; the response is already committed when it completes.
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    finish(request, stats, false);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                }
+            });
+            return;
+        }
+        finish(request, stats, properties.isFailOnBudgetExceeded());
+    }
+
+    private void finish(HttpServletRequest request, RequestDbStats stats, boolean failOnBudgetExceeded) {
+        String endpoint = endpoint(request);
+        endpointDbMetrics.record(endpoint, stats);
+        List<String> violations = properties.getBudget(endpoint).check(stats);
+        if (!violations.isEmpty()) {
+            String message = "Database budget exceeded for " + endpoint + ": " + String.join(", ", violations);
+            if (failOnBudgetExceeded) {
+                throw new IllegalStateException(message);
+            }
+            log.warn(message);
+        }
+    }
+
+    /**
+     * Uses the matched handler pattern rather than the raw URI so path variables do not create new endpoints.
+     */
+    static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : UNMATCHED);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.user_service.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "db-metrics")
+public class DbMetricsProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Throws instead of logging when a request exceeds its budget; meant for tests.
+     */
+    private boolean failOnBudgetExceeded;
+
+    /**
+     * Applies to every endpoint; limits left unset mean unlimited.
+     */
+    private Budget defaultBudget = new Budget();
+
+    /**
+     * Per-endpoint overrides keyed by {@code METHOD /path/pattern}, e.g. {@code "[GET /api/v1/user/profile]"}.
+     * Limits left unset fall back to the default budget.
+     */
+    private Map<String, Budget> budgets = new HashMap<>();
+
+    public Budget getBudget(String endpoint) {
+        Budget budget = budgets.get(endpoint);
+        return budget == null ? defaultBudget : budget.orElse(defaultBudget);
+    }
+
+    @Getter
+    @Setter
+    public static class Budget {
+
+        private Integer maxStatements;
+
+        private Duration maxStatementTime;
+
+        private Duration maxAcquireTime;
+
+        Budget orElse(Budget fallback) {
+            Budget merged = new Budget();
+            merged.setMaxStatements(maxStatements != null ? maxStatements : fallback.getMaxStatements());
+            merged.setMaxStatementTime(maxStatementTime != null ? maxStatementTime : fallback.getMaxStatementTime());
+            merged.setMaxAcquireTime(maxAcquireTime != null ? maxAcquireTime : fallback.getMaxAcquireTime());
+            return merged;
+        }
+
+        /**
+         * Returns a description of every limit {@code stats} exceeds, or an empty list.
+         */
+        public List<String> check(RequestDbStats stats) {
+            List<String> violations = new ArrayList<>();
+            if (maxStatements != null && stats.getStatements() > maxStatements) {
+                violations.add(stats.getStatements() + " statements > " + maxStatements);
+            }
+            if (maxStatementTime != null && stats.getStatementNanos() > maxStatementTime.toNanos()) {
+                violations.add("statement time " + Duration.ofNanos(stats.getStatementNanos()).toMillis() + "ms > "
+                        + maxStatementTime.toMillis() + "ms");
+            }
+            if (maxAcquireTime != null && stats.getAcquireNanos() > maxAcquireTime.toNanos()) {
+                violations.add("connection acquire time " + Duration.ofNanos(stats.getAcquireNanos()).toMillis() + "ms > "
+                        + maxAcquireTime.toMillis() + "ms");
+            }
+            return violations;
+        }
+    }
+}
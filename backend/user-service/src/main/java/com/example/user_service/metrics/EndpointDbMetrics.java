@@ -0,0 +1,68 @@
+package com.example.user_service.metrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint totals and maxima of {@link RequestDbStats}, kept in memory since startup.
+ */
+public class EndpointDbMetrics {
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, RequestDbStats stats) {
+        endpoints.computeIfAbsent(endpoint, key -> new EndpointStats()).record(stats);
+    }
+
+    /**
+     * Returns the current metrics of every endpoint that has been called, sorted by endpoint.
+     */
+    public Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> snapshot = new TreeMap<>();
+        endpoints.forEach((endpoint, stats) -> snapshot.put(endpoint, stats.snapshot()));
+        return snapshot;
+    }
+
+    public record Snapshot(long requests, double avgStatements, long maxStatements, double avgStatementMillis,
+                           double maxStatementMillis, double avgAcquireMillis, double maxAcquireMillis,
+                           long maxActiveConnections) {
+    }
+
+    private static class EndpointStats {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder statementNanos = new LongAdder();
+        private final LongAdder acquireNanos = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+        private final LongAccumulator maxStatementNanos = new LongAccumulator(Math::max, 0);
+        private final LongAccumulator maxAcquireNanos = new LongAccumulator(Math::max, 0);
+        private final LongAccumulator maxActiveConnections = new LongAccumulator(Math::max, 0);
+
+        void record(RequestDbStats stats) {
+            requests.increment();
+            statements.add(stats.getStatements());
+            statementNanos.add(stats.getStatementNanos());
+            acquireNanos.add(stats.getAcquireNanos());
+            maxStatements.accumulate(stats.getStatements());
+            maxStatementNanos.accumulate(stats.getStatementNanos());
+            maxAcquireNanos.accumulate(stats.getAcquireNanos());
+            maxActiveConnections.accumulate(stats.getPeakActiveConnections());
+        }
+
+        Snapshot snapshot() {
+            long count = Math.max(requests.sum(), 1);
+            return new Snapshot(requests.sum(), (double) statements.sum() / count, maxStatements.get(),
+                    millis(statementNanos.sum()) / count, millis(maxStatementNanos.get()),
+                    millis(acquireNanos.sum()) / count, millis(maxAcquireNanos.get()), maxActiveConnections.get());
+        }
+
+        private static double millis(long nanos) {
+            return nanos / (double) Duration.ofMillis(1).toNanos();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.user_service.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Times connection acquisition and statement execution of the wrapped data source and adds them to the
+ * {@link RequestDbStats} of the calling thread. Connections and statements are JDK proxies, so the driver
+ * and pool see no difference apart from the extra call.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource implements Closeable {
+
+    private final AtomicInteger activeConnections = new AtomicInteger();
+
+    public InstrumentedDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    public int getActiveConnections() {
+        return activeConnections.get();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        return instrument(super.getConnection(), start);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        return instrument(super.getConnection(username, password), start);
+    }
+
+    @Override
+    public void close() {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception exception) {
+                throw new IllegalStateException(exception);
+            }
+        }
+    }
+
+    private Connection instrument(Connection connection, long start) {
+        long elapsed = System.nanoTime() - start;
+        int active = activeConnections.incrementAndGet();
+        RequestDbStats stats = RequestDbStats.current();
+        if (stats != null) {
+            stats.recordAcquire(elapsed, active);
+        }
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && closed.compareAndSet(false, true)) {
+                        activeConnections.decrementAndGet();
+                    }
+                    Object result = invoke(proxy, connection, method, args);
+                    return result instanceof Statement statement ? instrument(statement, method.getReturnType()) : result;
+                });
+    }
+
+    private Object instrument(Statement statement, Class<?> type) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(proxy, statement, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return invoke(proxy, statement, method, args);
+            } finally {
+                RequestDbStats stats = RequestDbStats.current();
+                if (stats != null) {
+                    stats.recordStatement(System.nanoTime() - start);
+                }
+            }
+        });
+    }
+
+    /**
+     * Calls {@code method} on {@code target}; identity methods stay on the proxy so that proxies work as map keys.
+     */
+    private static Object invoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                break;
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException exception) {
+            throw exception.getTargetException();
+        }
+    }
+}
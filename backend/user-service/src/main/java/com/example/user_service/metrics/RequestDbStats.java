@@ -0,0 +1,79 @@
+package com.example.user_service.metrics;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Database work done by one request, bound to the request thread between {@link #start()} and {@link #clear()}.
+ * Work on other threads, such as background imports, is not attributed to any request. Scopes nest: work in an
+ * inner scope also counts towards the enclosing one, and {@link #clear()} restores it.
+ */
+@Getter
+public class RequestDbStats {
+
+    private static final ThreadLocal<RequestDbStats> CURRENT = new ThreadLocal<>();
+
+    @Getter(AccessLevel.NONE)
+    private final RequestDbStats parent;
+
+    private int connections;
+
+    private long acquireNanos;
+
+    private int peakActiveConnections;
+
+    private int statements;
+
+    private long statementNanos;
+
+    private RequestDbStats(RequestDbStats parent) {
+        this.parent = parent;
+    }
+
+    public static RequestDbStats start() {
+        RequestDbStats stats = new RequestDbStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static RequestDbStats current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        RequestDbStats stats = CURRENT.get();
+        if (stats == null || stats.parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(stats.parent);
+        }
+    }
+
+    /**
+     * Binds {@code stats} to the current thread, so work done there on behalf of the request is counted too.
+     */
+    static void bind(RequestDbStats stats) {
+        CURRENT.set(stats);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    void recordAcquire(long nanos, int activeConnections) {
+        connections++;
+        acquireNanos += nanos;
+        peakActiveConnections = Math.max(peakActiveConnections, activeConnections);
+        if (parent != null) {
+            parent.recordAcquire(nanos, activeConnections);
+        }
+    }
+
+    void recordStatement(long nanos) {
+        statements++;
+        statementNanos += nanos;
+        if (parent != null) {
+            parent.recordStatement(nanos);
+        }
+    }
+}
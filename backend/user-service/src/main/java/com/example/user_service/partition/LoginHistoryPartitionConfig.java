@@ -0,0 +1,38 @@
+package com.example.user_service.partition;
+
+import com.example.user_service.archive.LoginHistoryArchive;
+import com.example.user_service.archive.LoginHistoryArchiveProperties;
+import com.example.user_service.datasource.AdvisoryLock;
+import com.example.user_service.partition.LoginHistoryPartitionProperties.RetentionAction;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(LoginHistoryPartitionProperties.class)
+@ConditionalOnProperty(prefix = "login-history.partitions", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LoginHistoryPartitionConfig {
+
+    @Bean
+    public LoginHistoryPartitionMaintainer loginHistoryPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                                                           LoginHistoryPartitionProperties properties,
+                                                                           LoginHistoryArchive loginHistoryArchive,
+                                                                           LoginHistoryArchiveProperties archiveProperties,
+                                                                           DataSource dataSource) {
+        Path archiveDirectory = archiveProperties.getDirectory();
+        if (properties.getRetentionAction() == RetentionAction.ARCHIVE && !Files.isDirectory(archiveDirectory)) {
+            // Created on the fly it would be local to this pod, and the others would never see what it archived.
+            throw new IllegalStateException("login-history.archive.directory " + archiveDirectory.toAbsolutePath()
+                    + " does not exist; archiving needs it to be a volume shared by every instance");
+        }
+        return new LoginHistoryPartitionMaintainer(jdbcTemplate, properties, Clock.systemUTC(), loginHistoryArchive,
+                new AdvisoryLock(dataSource));
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.user_service.partition;
+
+import com.example.user_service.archive.LoginHistoryArchive;
+import com.example.user_service.datasource.AdvisoryLock;
+import com.example.user_service.partition.LoginHistoryPartitionProperties.RetentionAction;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly partitions of {@code login_history} in step with the calendar: partitions for the
+ * coming months are created ahead of time and partitions older than the retention window are detached
+ * or dropped. Expired history therefore leaves as whole tables instead of through row-by-row deletes. With
+ * {@link RetentionAction#ARCHIVE} an expired partition is only detached after it was written to the archive.
+ * Every instance runs it at startup and on the schedule, but only the one holding the advisory lock does the
+ * work; a partition that fails is logged and retried on the next run without stopping the others.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class LoginHistoryPartitionMaintainer {
+
+    static final String TABLE = "login_history";
+
+    static final long LOCK_KEY = TABLE.hashCode();
+
+    private static final Pattern PARTITION_NAME = Pattern.compile(TABLE + "_y(\\d{4})m(\\d{2})");
+    private static final DateTimeFormatter BOUND = DateTimeFormatter.ofPattern("yyyy-MM-01");
+
+    private static final String ATTACHED_PARTITIONS = """
+            SELECT child.relname
+            FROM pg_inherits
+                     JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+                     JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+            WHERE parent.relname = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoginHistoryPartitionProperties properties;
+    private final Clock clock;
+    private final LoginHistoryArchive archive;
+    private final AdvisoryLock lock;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${login-history.partitions.cron:0 15 3 * * *}", zone = "UTC")
+    public void maintain() {
+        if (!lock.runIfFree(LOCK_KEY, this::run)) {
+            log.info("Partition maintenance is running on another instance");
+        }
+    }
+
+    private void run() {
+        Plan plan = plan(YearMonth.now(clock), jdbcTemplate.queryForList(ATTACHED_PARTITIONS, String.class, TABLE));
+        plan.toCreate().forEach(this::createPartition);
+        plan.toExpire().forEach(this::expirePartition);
+    }
+
+    Plan plan(YearMonth currentMonth, List<String> attached) {
+        List<YearMonth> attachedMonths = attached.stream().map(LoginHistoryPartitionMaintainer::monthOf)
+                .flatMap(Optional::stream).toList();
+        List<YearMonth> toCreate = new ArrayList<>();
+        for (int i = 0; i <= properties.getMonthsAhead(); i++) {
+            YearMonth month = currentMonth.plusMonths(i);
+            if (!attachedMonths.contains(month)) {
+                toCreate.add(month);
+            }
+        }
+        YearMonth oldestRetained = currentMonth.minusMonths(properties.getRetentionMonths());
+        List<YearMonth> toExpire = attachedMonths.stream().filter(month -> month.isBefore(oldestRetained)).sorted().toList();
+        return new Plan(toCreate, toExpire);
+    }
+
+    static String partitionName(YearMonth month) {
+        return String.format("%s_y%04dm%02d", TABLE, month.getYear(), month.getMonthValue());
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        try {
+            jdbcTemplate.execute(String.format(
+                    "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                    name, TABLE, month.format(BOUND), month.plusMonths(1).format(BOUND)));
+            log.info("Created partition {}", name);
+        } catch (RuntimeException exception) {
+            // Usually rows for that month already sit in the default partition; they have to be moved by hand.
+            log.error("Could not create partition {}", name, exception);
+        }
+    }
+
+    private void expirePartition(YearMonth month) {
+        String name = partitionName(month);
+        if (properties.getRetentionAction() == RetentionAction.ARCHIVE) {
+            try {
+                archive.archive(name, month);
+            } catch (IOException | RuntimeException exception) {
+                // The partition stays attached and is retried on the next run.
+                log.error("Could not archive partition {}", name, exception);
+                return;
+            }
+        }
+        try {
+            jdbcTemplate.execute(String.format("ALTER TABLE %s DETACH PARTITION %s", TABLE, name));
+            if (properties.getRetentionAction() != RetentionAction.DETACH) {
+                jdbcTemplate.execute("DROP TABLE " + name);
+                log.info("Dropped expired partition {}", name);
+            } else {
+                log.info("Detached expired partition {}", name);
+            }
+        } catch (RuntimeException exception) {
+            // A detached partition is no longer listed and has to be dropped by hand; an attached one is retried.
+            log.error("Could not expire partition {}", name, exception);
+        }
+    }
+
+    private static Optional<YearMonth> monthOf(String partition) {
+        Matcher matcher = PARTITION_NAME.matcher(partition);
+        return matcher.matches()
+                ? Optional.of(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))))
+                : Optional.empty();
+    }
+
+    record Plan(List<YearMonth> toCreate, List<YearMonth> toExpire) {
+    }
+}
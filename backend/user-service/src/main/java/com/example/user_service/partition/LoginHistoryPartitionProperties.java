@@ -0,0 +1,31 @@
+package com.example.user_service.partition;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "login-history.partitions")
+public class LoginHistoryPartitionProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Number of future monthly partitions kept ready beyond the current month.
+     */
+    private int monthsAhead = 3;
+
+    /**
+     * Full months of history kept attached, not counting the current month.
+     */
+    private int retentionMonths = 12;
+
+    /**
+     * DETACH leaves expired partitions as standalone tables for archiving; DROP removes them; ARCHIVE copies
+     * them to the {@code login-history.archive} files first and drops them once the copy is written.
+     */
+    private RetentionAction retentionAction = RetentionAction.DROP;
+
+    public enum RetentionAction { DETACH, DROP, ARCHIVE }
+}
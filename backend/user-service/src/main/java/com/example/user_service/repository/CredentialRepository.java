@@ -1,7 +1,11 @@
 package com.example.user_service.repository;
 
 import com.example.user_service.entity.CredentialEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,4 +14,8 @@ import java.util.Optional;
 public interface CredentialRepository extends JpaRepository<CredentialEntity, Long> {
 
     Optional<CredentialEntity> getCredentialByUserEntityId(Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CredentialEntity c WHERE c.userEntity.id = :userId")
+    Optional<CredentialEntity> findForUpdateByUserEntityId(@Param("userId") Long userId);
 }
@@ -1,9 +1,64 @@
 package com.example.user_service.repository;
 
+import com.example.user_service.dto.LoginHistory;
 import com.example.user_service.entity.LoginHistoryEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 @Repository
-public interface LoginHistoryRepository extends JpaRepository<LoginHistoryEntity, Long> {}
+public interface LoginHistoryRepository extends JpaRepository<LoginHistoryEntity, Long> {
+
+    String EXPORT_FETCH_SIZE = "1000";
+
+    @Query("""
+            select new com.example.user_service.dto.LoginHistory(l.id, l.user.id, l.loginTime, l.ip, ua.userAgent, l.success)
+            from LoginHistoryEntity l left join UserAgentEntity ua on ua.id = l.userAgentId
+            where l.user.id = :userId
+            order by l.loginTime desc, l.id desc
+            """)
+    List<LoginHistory> findLatest(@Param("userId") Long userId, Limit limit);
+
+    /**
+     * Seek to the page after {@code (loginTime, id)}; the row-value comparison lets Postgres walk the
+     * {@code (user_id, login_time)} index from the cursor instead of skipping an offset.
+     */
+    @Query("""
+            select new com.example.user_service.dto.LoginHistory(l.id, l.user.id, l.loginTime, l.ip, ua.userAgent, l.success)
+            from LoginHistoryEntity l left join UserAgentEntity ua on ua.id = l.userAgentId
+            where l.user.id = :userId and (l.loginTime, l.id) < (:loginTime, :id)
+            order by l.loginTime desc, l.id desc
+            """)
+    List<LoginHistory> findLatestBefore(@Param("userId") Long userId,
+                                        @Param("loginTime") LocalDateTime loginTime,
+                                        @Param("id") Long id,
+                                        Limit limit);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("""
+            select new com.example.user_service.dto.LoginHistory(l.id, l.user.id, l.loginTime, l.ip, ua.userAgent, l.success)
+            from LoginHistoryEntity l left join UserAgentEntity ua on ua.id = l.userAgentId
+            order by l.loginTime, l.id
+            """)
+    Stream<LoginHistory> streamAll();
 
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("""
+            select new com.example.user_service.dto.LoginHistory(l.id, l.user.id, l.loginTime, l.ip, ua.userAgent, l.success)
+            from LoginHistoryEntity l left join UserAgentEntity ua on ua.id = l.userAgentId
+            where l.user.id = :userId
+            order by l.loginTime, l.id
+            """)
+    Stream<LoginHistory> streamByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,24 @@
+package com.example.user_service.repository;
+
+import com.example.user_service.entity.UserAgentEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserAgentRepository extends JpaRepository<UserAgentEntity, Integer> {
+
+    @Query("select u.id from UserAgentEntity u where u.userAgent = :userAgent")
+    Optional<Integer> findIdByUserAgent(@Param("userAgent") String userAgent);
+
+    /**
+     * Adds the user agent unless a concurrent insert got there first; either way it exists afterwards.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_agents (user_agent) VALUES (:userAgent) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userAgent") String userAgent);
+}
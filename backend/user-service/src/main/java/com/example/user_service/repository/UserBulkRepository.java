@@ -0,0 +1,139 @@
+package com.example.user_service.repository;
+
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.With;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based updates for bulk admin operations. Callers select a chunk of matching users with
+ * {@link #findForUpdate} and change all of them with one {@code UPDATE}, inside one transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserBulkRepository {
+
+    private static final String LOCK = """
+            UPDATE users SET account_non_locked = FALSE, token_version = token_version + 1,
+                             updated_at = :now, updated_by = :actor
+            WHERE id IN (:ids)
+            """;
+
+    private static final String UNLOCK = """
+            UPDATE users SET account_non_locked = TRUE, login_attempts = 0, updated_at = :now, updated_by = :actor
+            WHERE id IN (:ids)
+            """;
+
+    private static final String CHANGE_ROLE = "UPDATE user_roles SET role_id = :roleId WHERE user_id IN (:ids)";
+
+    private static final String INVALIDATE_TOKENS = """
+            UPDATE users SET token_version = token_version + 1, updated_at = :now, updated_by = :actor
+            WHERE id IN (:ids)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Locks and returns up to {@code limit} users matching {@code selection} with an id above
+     * {@code afterId}, in id order.
+     */
+    public List<UserRef> findForUpdate(Selection selection, long afterId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT u.id, u.email FROM users u WHERE u.id > :afterId");
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+        appendCriteria(selection, sql, params);
+        sql.append(" ORDER BY u.id LIMIT :limit FOR UPDATE");
+        return jdbcTemplate.query(sql.toString(), params,
+                (resultSet, rowNum) -> new UserRef(resultSet.getLong("id"), resultSet.getString("email")));
+    }
+
+    /**
+     * Whether any user matching {@code selection} holds one of {@code roleIds}.
+     */
+    public boolean anyInRoles(Selection selection, Collection<Long> roleIds) {
+        StringBuilder sql = new StringBuilder("SELECT EXISTS (SELECT 1 FROM users u WHERE EXISTS (SELECT 1 FROM"
+                + " user_roles ur WHERE ur.user_id = u.id AND ur.role_id IN (:inRoleIds))");
+        MapSqlParameterSource params = new MapSqlParameterSource("inRoleIds", roleIds);
+        appendCriteria(selection, sql, params);
+        sql.append(")");
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(sql.toString(), params, Boolean.class));
+    }
+
+    private static void appendCriteria(Selection selection, StringBuilder sql, MapSqlParameterSource params) {
+        if (selection.ids() != null) {
+            sql.append(" AND u.id IN (:ids)");
+            params.addValue("ids", selection.ids());
+        }
+        if (selection.roleId() != null) {
+            sql.append(" AND EXISTS (SELECT 1 FROM user_roles ur WHERE ur.user_id = u.id AND ur.role_id = :roleId)");
+            params.addValue("roleId", selection.roleId());
+        }
+        if (selection.notRoleId() != null) {
+            sql.append(" AND NOT EXISTS (SELECT 1 FROM user_roles ur WHERE ur.user_id = u.id AND ur.role_id = :notRoleId)");
+            params.addValue("notRoleId", selection.notRoleId());
+        }
+        if (selection.excludedRoleIds() != null && !selection.excludedRoleIds().isEmpty()) {
+            sql.append(" AND NOT EXISTS (SELECT 1 FROM user_roles ur WHERE ur.user_id = u.id AND ur.role_id IN (:excludedRoleIds))");
+            params.addValue("excludedRoleIds", selection.excludedRoleIds());
+        }
+        if (selection.locked() != null) {
+            sql.append(" AND u.account_non_locked = :nonLocked");
+            params.addValue("nonLocked", !selection.locked());
+        }
+        if (selection.minLoginAttempts() != null) {
+            sql.append(" AND u.login_attempts >= :minLoginAttempts");
+            params.addValue("minLoginAttempts", selection.minLoginAttempts());
+        }
+        if (selection.createdBefore() != null) {
+            sql.append(" AND u.created_at < :createdBefore");
+            params.addValue("createdBefore", Timestamp.valueOf(selection.createdBefore()));
+        }
+        if (selection.excludedUserId() != null) {
+            sql.append(" AND u.id <> :excludedUserId");
+            params.addValue("excludedUserId", selection.excludedUserId());
+        }
+    }
+
+    public int lock(Collection<Long> ids, Long actorId) {
+        return jdbcTemplate.update(LOCK, auditParams(ids, actorId));
+    }
+
+    public int unlock(Collection<Long> ids, Long actorId) {
+        return jdbcTemplate.update(UNLOCK, auditParams(ids, actorId));
+    }
+
+    /**
+     * Moves the users to {@code roleId} and invalidates their tokens, which still carry the old role.
+     */
+    public int changeRole(Collection<Long> ids, Long roleId, Long actorId) {
+        jdbcTemplate.update(CHANGE_ROLE, new MapSqlParameterSource("ids", ids).addValue("roleId", roleId));
+        return jdbcTemplate.update(INVALIDATE_TOKENS, auditParams(ids, actorId));
+    }
+
+    private static MapSqlParameterSource auditParams(Collection<Long> ids, Long actorId) {
+        return new MapSqlParameterSource("ids", ids)
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()))
+                .addValue("actor", actorId);
+    }
+
+    public record UserRef(Long id, String email) {
+    }
+
+    /**
+     * Criteria for {@link #findForUpdate}; {@code null} fields do not restrict the selection.
+     */
+    @With
+    @Builder
+    public record Selection(List<Long> ids, Long roleId, Long notRoleId, Collection<Long> excludedRoleIds,
+                            Boolean locked, Integer minLoginAttempts, LocalDateTime createdBefore,
+                            Long excludedUserId) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.user_service.repository;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Statements for deleting a user. {@link #disable} runs first, inside the caller's transaction; the purge
+ * methods are meant to run outside one, so every chunk commits on its own and never holds locks for long.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserDeletionRepository {
+
+    private static final String FIND_EMAIL_FOR_UPDATE = "SELECT email FROM users WHERE id = :id FOR UPDATE";
+
+    private static final String DISABLE = """
+            UPDATE users SET enabled = FALSE, account_non_locked = FALSE, token_version = token_version + 1,
+                             updated_at = :now, updated_by = :actor
+            WHERE id = :id
+            """;
+
+    private static final String DELETE_USER = "DELETE FROM users WHERE id = :id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Disables the user and invalidates its tokens; returns its email, or empty when there is no such user.
+     */
+    public Optional<String> disable(Long userId, Long actorId) {
+        Map<String, Object> params = Map.of("id", userId);
+        List<String> emails = jdbcTemplate.queryForList(FIND_EMAIL_FOR_UPDATE, params, String.class);
+        if (emails.isEmpty()) {
+            return Optional.empty();
+        }
+        jdbcTemplate.update(DISABLE, new MapSqlParameterSource(params)
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()))
+                .addValue("actor", actorId));
+        return Optional.of(emails.get(0));
+    }
+
+    /**
+     * Deletes up to {@code limit} rows of {@code table} that belong to the user and returns how many were deleted.
+     */
+    public int purge(PurgedTable table, Long userId, int limit) {
+        return jdbcTemplate.update(table.deleteChunk, Map.of("userId", userId, "limit", limit));
+    }
+
+    public int deleteUser(Long userId) {
+        return jdbcTemplate.update(DELETE_USER, Map.of("id", userId));
+    }
+
+    /**
+     * Tables referencing {@code users}, in the order they are purged. Each chunk is picked through the
+     * table's {@code user_id} index and deleted by key.
+     */
+    @Getter
+    public enum PurgedTable {
+        LOGIN_HISTORY("login_history", "id, login_time"),
+        CONFIRMATIONS("confirmations", "id"),
+        CREDENTIALS("credentials", "id"),
+        USER_ROLES("user_roles", "role_id");
+
+        private final String tableName;
+        private final String deleteChunk;
+
+        PurgedTable(String tableName, String key) {
+            this.tableName = tableName;
+            this.deleteChunk = "DELETE FROM " + tableName + " WHERE user_id = :userId AND (" + key + ") IN ("
+                    + "SELECT " + key + " FROM " + tableName + " WHERE user_id = :userId LIMIT :limit)";
+        }
+    }
+}
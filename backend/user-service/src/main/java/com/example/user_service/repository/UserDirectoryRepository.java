@@ -0,0 +1,92 @@
+package com.example.user_service.repository;
+
+import com.example.user_service.directory.UserSnapshot;
+import com.example.user_service.dto.UserView;
+import com.example.user_service.enumeration.Authority;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Reads for the in-memory user directory: the same columns as {@link UserRepository#USER_VIEW} plus the
+ * normalized email and {@code directory_version} maintained by the V7 triggers.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserDirectoryRepository {
+
+    private static final String FIND_VERSIONS = "SELECT id, directory_version FROM users";
+
+    private static final String FIND_BY_IDS = """
+            SELECT u.id, u.created_by, u.updated_by, u.user_id, u.first_name, u.last_name, u.email, u.phone, u.bio,
+                   u.image_url, u.last_login, u.created_at, u.updated_at, r.name AS role_name, r.authorities,
+                   u.account_non_expired, u.account_non_locked, u.enabled, u.mfa, u.token_version,
+                   c.updated_at AS credential_updated_at, u.email_normalized, u.directory_version
+            FROM users u
+                     JOIN user_roles ur ON ur.user_id = u.id
+                     JOIN roles r ON r.id = ur.role_id
+                     JOIN credentials c ON c.user_id = u.id
+            WHERE u.id IN (:ids)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns the current version of every user, keyed by id.
+     */
+    public Map<Long, Long> findVersions() {
+        Map<Long, Long> versions = new HashMap<>();
+        jdbcTemplate.getJdbcTemplate().query(FIND_VERSIONS,
+                resultSet -> { versions.put(resultSet.getLong("id"), resultSet.getLong("directory_version")); });
+        return versions;
+    }
+
+    /**
+     * Loads the given users; ids without a user (or without a role or credential yet) are left out.
+     */
+    public List<UserSnapshot> findByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(FIND_BY_IDS, Map.of("ids", ids), (resultSet, rowNum) -> toSnapshot(resultSet));
+    }
+
+    private static UserSnapshot toSnapshot(ResultSet resultSet) throws SQLException {
+        Date lastLogin = resultSet.getDate("last_login");
+        String authorities = resultSet.getString("authorities");
+        UserView view = new UserView(
+                resultSet.getLong("id"),
+                resultSet.getLong("created_by"),
+                resultSet.getLong("updated_by"),
+                resultSet.getString("user_id"),
+                resultSet.getString("first_name"),
+                resultSet.getString("last_name"),
+                resultSet.getString("email"),
+                resultSet.getString("phone"),
+                resultSet.getString("bio"),
+                resultSet.getString("image_url"),
+                lastLogin == null ? null : lastLogin.toLocalDate(),
+                toLocalDateTime(resultSet.getTimestamp("created_at")),
+                toLocalDateTime(resultSet.getTimestamp("updated_at")),
+                resultSet.getString("role_name"),
+                authorities == null ? null : Authority.fromValue(authorities),
+                resultSet.getBoolean("account_non_expired"),
+                resultSet.getBoolean("account_non_locked"),
+                resultSet.getBoolean("enabled"),
+                resultSet.getBoolean("mfa"),
+                resultSet.getInt("token_version"),
+                toLocalDateTime(resultSet.getTimestamp("credential_updated_at")));
+        return new UserSnapshot(view, resultSet.getString("email_normalized"), resultSet.getLong("directory_version"));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
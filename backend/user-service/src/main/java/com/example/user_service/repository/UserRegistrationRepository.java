@@ -0,0 +1,100 @@
+package com.example.user_service.repository;
+
+import com.example.user_service.entity.UserEntity;
+import com.example.user_service.utils.ReferenceIdGenerator;
+import com.example.user_service.utils.UserUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Registers a user with one statement: a data-modifying CTE inserts the user, its role and its credential
+ * together, and {@code ON CONFLICT DO NOTHING} turns a taken email into an empty result instead of an error.
+ * All three rows are audited as created by the acting user, as {@code Auditable} entities are. The statement
+ * needs PostgreSQL; callers check {@link #isSupported()} and register through the entities elsewhere (dev-h2).
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserRegistrationRepository {
+
+    private static final String REGISTER = """
+            WITH ids AS (
+                SELECT nextval('primary_key_seq') AS user_id, nextval('primary_key_seq') AS credential_id
+            ), new_user AS (
+                INSERT INTO users (id, user_id, reference_id, created_at, created_by, updated_at, updated_by, email,
+                                   email_normalized, first_name, last_name, login_attempts, phone, bio, image_url, mfa,
+                                   enabled, account_non_expired, account_non_locked, qr_code_secret, last_login)
+                SELECT ids.user_id, :userId, :userReferenceId, :now, :actor, :now, :actor, :email,
+                       :emailNormalized, :firstName, :lastName, :loginAttempts, :phone, :bio, :imageUrl, :mfa,
+                       :enabled, :accountNonExpired, :accountNonLocked, :qrCodeSecret, :lastLogin
+                FROM ids
+                ON CONFLICT DO NOTHING
+                RETURNING id
+            ), new_role AS (
+                INSERT INTO user_roles (user_id, role_id)
+                SELECT id, :roleId FROM new_user
+            ), new_credential AS (
+                INSERT INTO credentials (id, reference_id, created_at, created_by, updated_at, updated_by, password, user_id)
+                SELECT ids.credential_id, :credentialReferenceId, :now, :actor, :now, :actor, :password, new_user.id
+                FROM new_user JOIN ids ON ids.user_id = new_user.id
+            )
+            SELECT id FROM new_user
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private volatile Boolean supported;
+
+    /**
+     * Whether the database runs data-modifying CTEs with {@code ON CONFLICT}, which only PostgreSQL does.
+     */
+    public boolean isSupported() {
+        Boolean current = supported;
+        if (current == null) {
+            current = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+            supported = current;
+        }
+        return Boolean.TRUE.equals(current);
+    }
+
+    /**
+     * Inserts {@code user} with its role and password hash in one round trip and returns the new id,
+     * or empty when the email or user id is already taken.
+     */
+    public Optional<Long> register(UserEntity user, Long roleId, String passwordHash, Long actorId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", user.getUserId())
+                .addValue("userReferenceId", ReferenceIdGenerator.generate())
+                .addValue("credentialReferenceId", ReferenceIdGenerator.generate())
+                .addValue("now", now)
+                .addValue("actor", actorId)
+                .addValue("email", user.getEmail())
+                .addValue("emailNormalized", UserUtils.normalizeEmail(user.getEmail()))
+                .addValue("firstName", user.getFirstName())
+                .addValue("lastName", user.getLastName())
+                .addValue("loginAttempts", user.getLoginAttempts())
+                .addValue("phone", user.getPhone())
+                .addValue("bio", user.getBio())
+                .addValue("imageUrl", user.getImageUrl())
+                .addValue("mfa", user.isMfa())
+                .addValue("enabled", user.isEnabled())
+                .addValue("accountNonExpired", user.isAccountNonExpired())
+                .addValue("accountNonLocked", user.isAccountNonLocked())
+                .addValue("qrCodeSecret", user.getQrCodeSecret())
+                .addValue("lastLogin", user.getLastLogin() == null ? null : Date.valueOf(user.getLastLogin()))
+                .addValue("roleId", roleId)
+                .addValue("password", passwordHash);
+        List<Long> ids = jdbcTemplate.queryForList(REGISTER, params, Long.class);
+        return ids.stream().findFirst();
+    }
+}
@@ -1,18 +1,45 @@
 package com.example.user_service.repository;
 
+import com.example.user_service.dto.UserView;
 import com.example.user_service.entity.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
 
-    Optional<UserEntity> findByEmailIgnoreCase(String email);
+    String USER_VIEW = """
+            select new com.example.user_service.dto.UserView(u.id, u.createdBy, u.updatedBy, u.userId, u.firstName,
+                u.lastName, u.email, u.phone, u.bio, u.imageUrl, u.lastLogin, u.createdAt, u.updatedAt, r.name,
+                r.authorities, u.accountNonExpired, u.accountNonLocked, u.enabled, u.mfa, u.tokenVersion, c.updatedAt)
+            from UserEntity u join u.role r join CredentialEntity c on c.userEntity = u
+            """;
+
+    Optional<UserEntity> findByEmailNormalized(String emailNormalized);
 
     Optional<UserEntity> findUserByUserId(String username);
 
-    boolean existsByEmail(String email);
+    boolean existsByEmailNormalized(String emailNormalized);
+
+    @Query(USER_VIEW + "where u.userId = :userId")
+    Optional<UserView> findViewByUserId(@Param("userId") String userId);
+
+    @Query(USER_VIEW + "where u.emailNormalized = :emailNormalized")
+    Optional<UserView> findViewByEmailNormalized(@Param("emailNormalized") String emailNormalized);
+
+    /**
+     * Enables a not yet enabled account without loading it; returns 0 when there is nothing to enable.
+     * Native because the role join table makes Hibernate stage JPQL bulk updates through a temporary table.
+     */
+    @Modifying
+    @Query(value = "UPDATE users SET enabled = TRUE, updated_at = :now, updated_by = id WHERE id = :id AND enabled = FALSE",
+            nativeQuery = true)
+    int enableUser(@Param("id") Long id, @Param("now") LocalDateTime now);
 }
 
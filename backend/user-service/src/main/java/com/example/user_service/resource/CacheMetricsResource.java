@@ -0,0 +1,35 @@
+package com.example.user_service.resource;
+
+import com.example.user_service.cache.SingleFlight;
+import com.example.user_service.cache.UserProfileCache;
+import com.example.user_service.domain.Response;
+import com.example.user_service.dto.UserView;
+import com.example.user_service.utils.RequestUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping(path = "/api/v1/user/admin/cache-metrics")
+@RequiredArgsConstructor
+public class CacheMetricsResource {
+
+    private final UserProfileCache userProfileCache;
+    private final SingleFlight<String, Optional<UserView>> userLookups;
+
+    @PreAuthorize("hasAuthority('user:read')")
+    @GetMapping
+    public ResponseEntity<Response> getCacheMetrics(HttpServletRequest request) {
+        Map<String, Object> metrics = Map.of("userProfile", userProfileCache.getStats(), "userLookups", userLookups.getStats());
+        return ResponseEntity.ok().body(RequestUtils.getResponse(request, metrics,
+                "Cache metrics retrieved successfully.", HttpStatus.OK));
+    }
+}
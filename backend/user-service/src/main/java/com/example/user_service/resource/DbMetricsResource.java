@@ -0,0 +1,32 @@
+package com.example.user_service.resource;
+
+import com.example.user_service.domain.Response;
+import com.example.user_service.metrics.EndpointDbMetrics;
+import com.example.user_service.utils.RequestUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping(path = "/api/v1/user/admin/db-metrics")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "db-metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DbMetricsResource {
+
+    private final EndpointDbMetrics endpointDbMetrics;
+
+    @PreAuthorize("hasAuthority('user:read')")
+    @GetMapping
+    public ResponseEntity<Response> getDbMetrics(HttpServletRequest request) {
+        return ResponseEntity.ok().body(RequestUtils.getResponse(request, Map.of("endpoints", endpointDbMetrics.snapshot()),
+                "Database metrics retrieved successfully.", HttpStatus.OK));
+    }
+}
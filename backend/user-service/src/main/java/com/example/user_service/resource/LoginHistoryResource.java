@@ -0,0 +1,67 @@
+package com.example.user_service.resource;
+
+import com.example.user_service.domain.Response;
+import com.example.user_service.dto.LoginHistory;
+import com.example.user_service.service.LoginHistoryService;
+import com.example.user_service.service.LoginHistoryService.LoginHistoryPage;
+import com.example.user_service.utils.RequestUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping(path = "/api/v1/user")
+@RequiredArgsConstructor
+public class LoginHistoryResource {
+
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final LoginHistoryService loginHistoryService;
+
+    @PreAuthorize("hasAuthority('user:read') or #userId == authentication.principal.id")
+    @GetMapping("/{userId}/logins")
+    public ResponseEntity<Response> getLoginHistory(@PathVariable Long userId,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "20") int size,
+                                                    HttpServletRequest request) {
+        LoginHistoryPage page = loginHistoryService.getLoginHistory(userId, cursor, size);
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("logins", page.logins());
+        if (page.nextCursor() != null) {
+            data.put("nextCursor", page.nextCursor());
+        }
+        return ResponseEntity.ok().body(RequestUtils.getResponse(request, data, "Login history retrieved successfully.", HttpStatus.OK));
+    }
+
+    @PreAuthorize("hasAuthority('user:read')")
+    @GetMapping("/logins/export")
+    public ResponseEntity<StreamingResponseBody> exportLoginHistory(@RequestParam(required = false) Long userId) {
+        log.info("Exporting login history{}", userId == null ? "" : " for user " + userId);
+        StreamingResponseBody body = outputStream -> loginHistoryService.exportLoginHistory(userId, outputStream);
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    @PreAuthorize("hasAuthority('user:read')")
+    @GetMapping("/logins/archive")
+    public ResponseEntity<Response> searchArchivedLoginHistory(@RequestParam(required = false) Long userId,
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                               HttpServletRequest request) {
+        List<LoginHistory> logins = loginHistoryService.searchArchivedLoginHistory(userId, from, to);
+        return ResponseEntity.ok().body(RequestUtils.getResponse(request, Map.of("logins", logins),
+                "Archived login history retrieved successfully.", HttpStatus.OK));
+    }
+}
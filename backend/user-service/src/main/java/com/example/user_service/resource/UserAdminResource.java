@@ -0,0 +1,53 @@
+package com.example.user_service.resource;
+
+import com.example.user_service.domain.Response;
+import com.example.user_service.dto.RoleChangeRequest;
+import com.example.user_service.dto.User;
+import com.example.user_service.dto.UserSelector;
+import com.example.user_service.service.UserAdminService;
+import com.example.user_service.utils.RequestUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping(path = "/api/v1/user/admin")
+@RequiredArgsConstructor
+public class UserAdminResource {
+
+    private final UserAdminService userAdminService;
+
+    @PreAuthorize("hasAuthority('user:update')")
+    @PostMapping("/lock")
+    public ResponseEntity<Response> lockUsers(@Valid @RequestBody UserSelector selector, HttpServletRequest request) {
+        int updated = userAdminService.lockUsers(selector);
+        return ResponseEntity.ok().body(RequestUtils.getResponse(request, Map.of("updated", updated),
+                "Users locked successfully.", HttpStatus.OK));
+    }
+
+    @PreAuthorize("hasAuthority('user:update')")
+    @PostMapping("/unlock")
+    public ResponseEntity<Response> unlockUsers(@Valid @RequestBody UserSelector selector, HttpServletRequest request) {
+        int updated = userAdminService.unlockUsers(selector);
+        return ResponseEntity.ok().body(RequestUtils.getResponse(request, Map.of("updated", updated),
+                "Users unlocked successfully.", HttpStatus.OK));
+    }
+
+    @PreAuthorize("hasAuthority('user:update')")
+    @PostMapping("/role")
+    public ResponseEntity<Response> changeRole(@AuthenticationPrincipal User user,
+                                               @Valid @RequestBody RoleChangeRequest roleChangeRequest,
+                                               HttpServletRequest request) {
+        int updated = userAdminService.changeRole(roleChangeRequest.getUsers(), roleChangeRequest.getRole(),
+                user.getRole());
+        return ResponseEntity.ok().body(RequestUtils.getResponse(request, Map.of("updated", updated),
+                "User roles changed successfully.", HttpStatus.OK));
+    }
+}
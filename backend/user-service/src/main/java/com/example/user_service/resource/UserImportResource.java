@@ -0,0 +1,63 @@
+package com.example.user_service.resource;
+
+import com.example.user_service.domain.Response;
+import com.example.user_service.dto.UserImportStatus;
+import com.example.user_service.exception.ApiException;
+import com.example.user_service.importer.ImportFormat;
+import com.example.user_service.service.UserImportService;
+import com.example.user_service.utils.RequestUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping(path = "/api/v1/user/import")
+@RequiredArgsConstructor
+public class UserImportResource {
+
+    private final UserImportService userImportService;
+
+    @PreAuthorize("hasAuthority('user:create')")
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Response> importUsers(@RequestParam("file") MultipartFile file,
+                                                @RequestParam(required = false) String format,
+                                                @RequestParam(defaultValue = "false") boolean sendVerificationEmails,
+                                                HttpServletRequest request) throws IOException {
+        ImportFormat importFormat;
+        try {
+            importFormat = ImportFormat.detect(format, file.getOriginalFilename(), file.getContentType());
+        } catch (IllegalArgumentException exception) {
+            throw new ApiException("Unsupported import format: " + format);
+        }
+        log.info("Importing users from {} as {}", file.getOriginalFilename(), importFormat);
+        // The multipart upload is deleted when the request ends, so the background import reads its own copy.
+        Path copy = Files.createTempFile("user-import-", "." + importFormat.name().toLowerCase());
+        file.transferTo(copy);
+        InputStream inputStream = Files.newInputStream(copy, StandardOpenOption.DELETE_ON_CLOSE);
+        UserImportStatus status = userImportService.startImport(inputStream, importFormat, sendVerificationEmails);
+        return ResponseEntity.accepted().body(RequestUtils.getResponse(request, Map.of("import", status),
+                "Import started.", HttpStatus.ACCEPTED));
+    }
+
+    @PreAuthorize("hasAuthority('user:create')")
+    @GetMapping("/{jobId}")
+    public ResponseEntity<Response> getImportStatus(@PathVariable String jobId, HttpServletRequest request) {
+        UserImportStatus status = userImportService.getImportStatus(jobId);
+        return ResponseEntity.ok().body(RequestUtils.getResponse(request, Map.of("import", status),
+                "Import status retrieved successfully.", HttpStatus.OK));
+    }
+}
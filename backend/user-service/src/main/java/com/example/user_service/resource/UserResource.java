@@ -1,12 +1,15 @@
 package com.example.user_service.resource;
 
+import com.example.user_service.async.AsyncRequests;
 import com.example.user_service.domain.Response;
 import com.example.user_service.domain.TokenData;
 import com.example.user_service.dto.LoginRequest;
 import com.example.user_service.dto.User;
+import com.example.user_service.dto.UserDeletionStatus;
 import com.example.user_service.dto.UserRequest;
 import com.example.user_service.enumeration.TokenType;
 import com.example.user_service.service.JwtService;
+import com.example.user_service.service.UserDeletionService;
 import com.example.user_service.service.UserService;
 import com.example.user_service.utils.RequestUtils;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,14 +21,23 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import java.net.URI;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static java.util.Collections.emptyMap;
 
+/**
+ * Login and refresh return a {@link WebAsyncTask}: they run on the bounded async request pool (see
+ * {@link AsyncRequests}) instead of holding a container thread while they wait for the database. The access
+ * token itself is resolved by {@code JwtAuthenticationFilter} on the container thread, so the profile is served
+ * from that principal without a second lookup.
+ */
 @Slf4j
 @RestController
 //@RequestMapping(path = "${api.endpoint.base-url}/user")
@@ -34,7 +46,9 @@ import static java.util.Collections.emptyMap;
 public class UserResource {
 
     private final UserService userService;
+    private final UserDeletionService userDeletionService;
     private final JwtService jwtService;
+    private final AsyncRequests asyncRequests;
 
     private URI getUri() {
         return URI.create("");
@@ -65,27 +79,69 @@ public class UserResource {
                 HttpStatus.OK));
     }
 
-    @PostMapping("/login")
-    public ResponseEntity<Response> loginUser(@RequestBody @Valid LoginRequest loginRequest, HttpServletRequest request, HttpServletResponse response) {
-        log.info("Logging in user with email into controller: {}", loginRequest.getEmail());
-        Authentication authentication = userService.authenticateUser(loginRequest.getEmail(), loginRequest.getPassword(), request);
-        log.info("User logged in successfully with email into controller: {}", loginRequest.getEmail());
-        jwtService.addCookie(response, (User) authentication.getPrincipal(), TokenType.ACCESS);
-        jwtService.addCookie(response, (User) authentication.getPrincipal(), TokenType.REFRESH);
+    @PostMapping("/verify/account/resend")
+    public ResponseEntity<Response> resendVerification(@RequestBody Map<String, String> resendMap, HttpServletRequest request) {
+        userService.resendVerification(resendMap.get("email"));
+        return ResponseEntity.ok().body(RequestUtils.getResponse(
+                request,
+                emptyMap(),
+                "If an unverified account exists for this email, a new verification link has been sent.",
+                HttpStatus.OK));
+    }
+
+    @PostMapping("/password/reset")
+    public ResponseEntity<Response> requestPasswordReset(@RequestBody Map<String, String> resetMap, HttpServletRequest request) {
+        userService.requestPasswordReset(resetMap.get("email"));
+        return ResponseEntity.ok().body(RequestUtils.getResponse(
+                request,
+                emptyMap(),
+                "If an account exists for this email, a password reset link has been sent.",
+                HttpStatus.OK));
+    }
+
+    @GetMapping("/verify/password")
+    public ResponseEntity<Response> verifyPasswordResetKey(@RequestParam("key") String key, HttpServletRequest request) {
+        userService.verifyPasswordResetKey(key);
+        return ResponseEntity.ok().body(RequestUtils.getResponse(
+                request,
+                emptyMap(),
+                "Password reset link is valid.",
+                HttpStatus.OK));
+    }
+
+    @PostMapping("/verify/password")
+    public ResponseEntity<Response> resetPassword(@RequestParam("key") String key, @RequestBody Map<String, String> passwordMap, HttpServletRequest request) {
+        userService.resetPassword(key, passwordMap.get("newPassword"), passwordMap.get("confirmNewPassword"));
         return ResponseEntity.ok().body(RequestUtils.getResponse(
                 request,
-                Map.of("user", (User) authentication.getPrincipal()),
-                "Login successful into controller.",
+                emptyMap(),
+                "Password reset successfully.",
                 HttpStatus.OK));
     }
 
+    @PostMapping("/login")
+    public WebAsyncTask<ResponseEntity<Response>> loginUser(@RequestBody @Valid LoginRequest loginRequest, HttpServletRequest request, HttpServletResponse response) {
+        return asyncRequests.run(() -> {
+            log.info("Logging in user with email into controller: {}", loginRequest.getEmail());
+            Authentication authentication = userService.authenticateUser(loginRequest.getEmail(), loginRequest.getPassword(), request);
+            log.info("User logged in successfully with email into controller: {}", loginRequest.getEmail());
+            jwtService.addCookie(response, (User) authentication.getPrincipal(), TokenType.ACCESS);
+            jwtService.addCookie(response, (User) authentication.getPrincipal(), TokenType.REFRESH);
+            return ResponseEntity.ok().body(RequestUtils.getResponse(
+                    request,
+                    Map.of("user", (User) authentication.getPrincipal()),
+                    "Login successful into controller.",
+                    HttpStatus.OK));
+        });
+    }
+
     @PreAuthorize("hasAuthority('user:update') or #userId == authentication.principal.id")
     @PostMapping("/enable-mfa")
     public ResponseEntity<Response> enableMfa(@RequestParam String email, HttpServletRequest request) {
-        userService.enableMfa(email);
+        String qrCodeImageUrl = userService.enableMfa(email);
         return ResponseEntity.ok().body(RequestUtils.getResponse(
                 request,
-                Map.of(),
+                Map.of("qrCodeImageUrl", qrCodeImageUrl),
                 "MFA enabled successfully. Scan QR code in Google Authenticator.",
                 HttpStatus.OK));
     }
@@ -135,30 +191,33 @@ public class UserResource {
 
 
     @PostMapping("/refresh")
-    public ResponseEntity<Response> refreshTokens(HttpServletRequest request, HttpServletResponse response) {
-        Optional<String> refreshToken = jwtService.extractToken(request, TokenType.REFRESH.getValue());
-        if (refreshToken.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(RequestUtils.getResponse(request, Map.of(), "Unauthorized access", HttpStatus.UNAUTHORIZED));
-        }
+    public WebAsyncTask<ResponseEntity<Response>> refreshTokens(HttpServletRequest request, HttpServletResponse response) {
+        return asyncRequests.run(() -> {
+            Optional<String> refreshToken = jwtService.extractToken(request, TokenType.REFRESH.getValue());
+            if (refreshToken.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(RequestUtils.getResponse(request, Map.of(), "Unauthorized access", HttpStatus.UNAUTHORIZED));
+            }
 
-        User tokenData = jwtService.getTokenData(refreshToken.get(), TokenData::getUser);
-        User user = userService.getUserByUserId(tokenData.getUserId());
+            TokenData tokenData = jwtService.getTokenData(refreshToken.get(), Function.identity());
+            if (!tokenData.isValid()) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(RequestUtils.getResponse(request, Map.of(), "Unauthorized access", HttpStatus.UNAUTHORIZED));
+            }
+            User user = tokenData.getUser();
 
-        jwtService.addCookie(response, user, TokenType.ACCESS);
-        jwtService.addCookie(response, user, TokenType.REFRESH);
+            jwtService.addCookie(response, user, TokenType.ACCESS);
+            jwtService.addCookie(response, user, TokenType.REFRESH);
 
-        return ResponseEntity.ok().body(RequestUtils.getResponse(request, Map.of(), "Tokens refreshed successfully.", HttpStatus.OK));
+            return ResponseEntity.ok().body(RequestUtils.getResponse(request, Map.of(), "Tokens refreshed successfully.", HttpStatus.OK));
+        });
     }
 
     @GetMapping("/profile")
-    public ResponseEntity<Response> getUserProfile(HttpServletRequest request) {
-        Optional<String> optionalAccessToken = jwtService.extractToken(request, TokenType.ACCESS.getValue());
-        if (optionalAccessToken.isEmpty()) {
+    public ResponseEntity<Response> getUserProfile(@AuthenticationPrincipal User user, HttpServletRequest request) {
+        if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(RequestUtils.getResponse(request, emptyMap(), "Unauthorized access.", HttpStatus.UNAUTHORIZED));
         }
-        var tokenData = jwtService.getTokenData(optionalAccessToken.get(), TokenData::getUser);
-        User user = userService.getUserByUserId(tokenData.getUserId());
         return ResponseEntity.ok().body(RequestUtils.getResponse(request, Map.of("user", user), "User profile retrieved successfully.", HttpStatus.OK));
     }
 
@@ -185,9 +244,17 @@ public class UserResource {
 
     @PreAuthorize("hasAuthority('user:delete')")
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Response> deleteUser(@PathVariable Long userId, HttpServletRequest request, Authentication authentication) {
+    public ResponseEntity<Response> deleteUser(@PathVariable Long userId, HttpServletRequest request) {
+        UserDeletionStatus status = userDeletionService.startDeletion(userId);
+        return ResponseEntity.accepted().body(RequestUtils.getResponse(request, Map.of("deletion", status),
+                "User disabled. Data is being deleted.", HttpStatus.ACCEPTED));
+    }
 
-        userService.deleteUser(userId, authentication);
-        return ResponseEntity.ok().body(RequestUtils.getResponse(request, emptyMap(), "User deleted successfully.", HttpStatus.OK));
+    @PreAuthorize("hasAuthority('user:delete')")
+    @GetMapping("/deletion/{jobId}")
+    public ResponseEntity<Response> getDeletionStatus(@PathVariable String jobId, HttpServletRequest request) {
+        UserDeletionStatus status = userDeletionService.getDeletionStatus(jobId);
+        return ResponseEntity.ok().body(RequestUtils.getResponse(request, Map.of("deletion", status),
+                "Deletion status retrieved successfully.", HttpStatus.OK));
     }
 }
\ No newline at end of file
@@ -1,10 +1,12 @@
 package com.example.user_service.security;
 
+import com.example.user_service.cache.SingleFlightTimeoutException;
 import com.example.user_service.domain.RequestContext;
 import com.example.user_service.dto.User;
 import com.example.user_service.enumeration.TokenType;
 import com.example.user_service.service.JwtService;
 import com.example.user_service.domain.TokenData;
+import com.example.user_service.utils.RequestUtils;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,6 +21,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Slf4j
 @Component
@@ -36,13 +39,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         Optional<String> token = jwtService.extractToken(request, TokenType.ACCESS.getValue());
 
-        if (token.isPresent() && jwtService.getTokenData(token.get(), TokenData::isValid)) {
+        // One lookup per request: validity, user and authorities all come from the same token data.
+        TokenData tokenData;
+        try {
+            tokenData = token.map(value -> jwtService.getTokenData(value, Function.identity())).orElse(null);
+        } catch (SingleFlightTimeoutException exception) {
+            // The database is too slow to check the token now; answer at once rather than hold this thread.
+            log.warn("Token check rejected: {}", exception.getMessage());
+            RequestUtils.handlerErrorResponse(request, response, exception);
+            return;
+        }
+        if (tokenData != null && tokenData.isValid()) {
             log.info("JWT token found and valid");
-            User user = jwtService.getTokenData(token.get(), TokenData::getUser);
+            User user = tokenData.getUser();
 
             RequestContext.setUserId(user.getId());
             Authentication authentication = new UsernamePasswordAuthenticationToken(
-                    user, null, jwtService.getTokenData(token.get(), TokenData::getAuthorities)
+                    user, null, tokenData.getAuthorities()
             );
             SecurityContextHolder.getContext().setAuthentication(authentication);
         } else {
@@ -60,6 +60,9 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorize -> authorize
 //                        .requestMatchers(HttpMethod.POST, baseUrl + "/user/register").permitAll()
                         .requestMatchers(HttpMethod.GET, baseUrl + "/user/verify/account").permitAll()
+                        .requestMatchers(baseUrl + "/user/verify/password").permitAll()
+                        .requestMatchers(HttpMethod.POST, baseUrl + "/user/verify/account/resend").permitAll()
+                        .requestMatchers(HttpMethod.POST, baseUrl + "/user/password/reset").permitAll()
                         .requestMatchers(HttpMethod.POST, baseUrl + "/user/login").permitAll()
                         .requestMatchers(SWAGGER_WHITELIST).permitAll()
                         .requestMatchers(H2_CONSOLE_WHITELIST).permitAll()
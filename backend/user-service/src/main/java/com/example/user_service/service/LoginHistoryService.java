@@ -0,0 +1,32 @@
+package com.example.user_service.service;
+
+import com.example.user_service.dto.LoginHistory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface LoginHistoryService {
+
+    /**
+     * Returns up to {@code size} of the user's logins, newest first, starting after {@code cursor}
+     * (null for the first page). {@link LoginHistoryPage#nextCursor()} is null on the last page.
+     */
+    LoginHistoryPage getLoginHistory(Long userId, String cursor, int size);
+
+    /**
+     * Writes the login history, oldest first, to {@code outputStream} as newline-delimited JSON.
+     * Rows are read through a forward-only cursor so memory use does not grow with the history.
+     */
+    void exportLoginHistory(Long userId, OutputStream outputStream) throws IOException;
+
+    /**
+     * Searches the archived months of login history (see {@code login-history.archive}), newest first.
+     * Any criterion may be null, but not all of them; {@code to} is exclusive.
+     */
+    List<LoginHistory> searchArchivedLoginHistory(Long userId, LocalDateTime from, LocalDateTime to);
+
+    record LoginHistoryPage(List<LoginHistory> logins, String nextCursor) {
+    }
+}
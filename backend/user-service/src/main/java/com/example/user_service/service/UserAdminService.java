@@ -0,0 +1,20 @@
+package com.example.user_service.service;
+
+import com.example.user_service.dto.UserSelector;
+
+/**
+ * Admin operations over many users at once. Each returns the number of users it changed.
+ */
+public interface UserAdminService {
+
+    int lockUsers(UserSelector selector);
+
+    int unlockUsers(UserSelector selector);
+
+    /**
+     * Moves the selected users to {@code roleName} on behalf of an actor holding {@code actorRoleName}. Roles
+     * above the actor's own, and without {@code user:role} any elevated role, can neither be granted nor taken
+     * away, and a selection including users who hold them is refused.
+     */
+    int changeRole(UserSelector selector, String roleName, String actorRoleName);
+}
@@ -0,0 +1,14 @@
+package com.example.user_service.service;
+
+import com.example.user_service.dto.UserDeletionStatus;
+
+public interface UserDeletionService {
+
+    /**
+     * Disables the user and revokes its tokens right away, then purges its data in the background.
+     * Returns the job status; a deletion already in progress for the user is returned instead of a new one.
+     */
+    UserDeletionStatus startDeletion(Long userId);
+
+    UserDeletionStatus getDeletionStatus(String jobId);
+}
@@ -0,0 +1,18 @@
+package com.example.user_service.service;
+
+import com.example.user_service.dto.UserImportStatus;
+import com.example.user_service.importer.ImportFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface UserImportService {
+
+    /**
+     * Starts importing users from {@code inputStream} in the background and returns the job status.
+     * The stream is owned by the import and closed when it ends.
+     */
+    UserImportStatus startImport(InputStream inputStream, ImportFormat format, boolean sendVerificationEmails) throws IOException;
+
+    UserImportStatus getImportStatus(String jobId);
+}
@@ -9,7 +9,6 @@ import com.example.user_service.entity.UserEntity;
 import com.example.user_service.enumeration.LoginType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
-import org.springframework.security.core.Authentication;
 
 public interface UserService {
 
@@ -19,6 +18,14 @@ public interface UserService {
 
     void verifyAccountKey(String key);
 
+    void resendVerification(String email);
+
+    void requestPasswordReset(String email);
+
+    void verifyPasswordResetKey(String key);
+
+    void resetPassword(String key, String newPassword, String confirmNewPassword);
+
     User getUserByUserId(String apply);
 
     User getUserByEmail(String email);
@@ -29,7 +36,7 @@ public interface UserService {
 
     ApiAuthentication authenticateUser(String email, String password, HttpServletRequest request);
 
-    void enableMfa(String email);
+    String enableMfa(String email);
 
     boolean verifyMfa(String email, int code);
 
@@ -43,8 +50,6 @@ public interface UserService {
 
     void changePassword(Long id, String oldPassword, String newPassword, String confirmNewPassword);
 
-    void deleteUser(Long userId, Authentication authentication);
-
     void lockedUser(String email);
 }
 
@@ -1,5 +1,6 @@
 package com.example.user_service.service.impl;
 
+import com.example.user_service.cache.RoleRegistry;
 import com.example.user_service.domain.Token;
 import com.example.user_service.domain.TokenData;
 import com.example.user_service.dto.User;
@@ -35,7 +36,6 @@ import static io.jsonwebtoken.Header.JWT_TYPE;
 import static io.jsonwebtoken.Header.TYPE;
 import static java.util.Arrays.stream;
 import static java.util.Optional.empty;
-import static org.springframework.security.core.authority.AuthorityUtils.commaSeparatedStringToAuthorityList;
 
 @Service
 @Slf4j
@@ -44,6 +44,8 @@ public class JwtServiceImpl extends JwrConfig implements JwtService {
 
     private final UserService userService;
 
+    private final RoleRegistry roleRegistry;
+
     private final Supplier<SecretKey> key = () -> Keys.hmacShaKeyFor(Decoders.BASE64.decode(getSecret()));
 
     private final Function<String, Claims> claimsFunction = token ->
@@ -84,10 +86,12 @@ public class JwtServiceImpl extends JwrConfig implements JwtService {
                             .subject(user.getUserId())
                             .claim(AUTHORITIES, user.getAuthorities())
                             .claim(ROLE, user.getRole())
+                            .claim(TOKEN_VERSION, user.getTokenVersion())
                             .expiration(Date.from(Instant.now().plusSeconds(getExpiration())))
                             .compact() :
                     builder.get()
                             .subject(user.getUserId())
+                            .claim(TOKEN_VERSION, user.getTokenVersion())
                             .expiration(Date.from(Instant.now().plusSeconds(getExpiration())))
                             .compact();
 
@@ -127,11 +131,11 @@ public class JwtServiceImpl extends JwrConfig implements JwtService {
         return claimsFunction.andThen(claims).apply(token);
     }
 
-    public Function<String, List<GrantedAuthority>> authorities = token -> commaSeparatedStringToAuthorityList(
-            new StringJoiner(AUTHORITY_DELIMITER)
-                    .add(claimsFunction.apply(token).get(AUTHORITIES, String.class))
-                    .add((ROLE_PREFIX + claimsFunction.apply(token).get(ROLE, String.class))).toString()
-    );
+    private List<GrantedAuthority> getAuthorities(Claims claims) {
+        return roleRegistry.getTokenAuthorities(claims.get(ROLE, String.class), claims.get(AUTHORITIES, String.class));
+    }
+
+    public Function<String, List<GrantedAuthority>> authorities = token -> getAuthorities(claimsFunction.apply(token));
 
     @Override
     public String createToken(User user, Function<Token, String> tokenFunction) {
@@ -155,13 +159,15 @@ public class JwtServiceImpl extends JwrConfig implements JwtService {
 
     @Override
     public <T> T getTokenData(String token, Function<TokenData, T> tokenFunction) {
+        Claims claims = claimsFunction.apply(token);
+        User user = userService.getUserByUserId(claims.getSubject());
         return tokenFunction.apply(
                 TokenData.builder()
-                        .isValid(Objects.equals(userService.getUserByUserId(subject.apply(token)).getUserId(), claimsFunction.apply(token).getSubject()))
-                        .authorities(authorities.apply(token))
-                        .claims(claimsFunction.apply(token))
-                        .user(userService.getUserByUserId(subject.apply(token)))
-
+                        .isValid(Objects.equals(user.getUserId(), claims.getSubject())
+                                && Objects.equals(claims.get(TOKEN_VERSION, Integer.class), user.getTokenVersion()))
+                        .authorities(getAuthorities(claims))
+                        .claims(claims)
+                        .user(user)
                         .build());
     }
 
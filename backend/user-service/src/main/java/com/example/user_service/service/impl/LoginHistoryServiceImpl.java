@@ -0,0 +1,110 @@
+package com.example.user_service.service.impl;
+
+import com.example.user_service.archive.ArchiveQuery;
+import com.example.user_service.archive.LoginHistoryArchive;
+import com.example.user_service.dto.LoginHistory;
+import com.example.user_service.exception.ApiException;
+import com.example.user_service.repository.LoginHistoryRepository;
+import com.example.user_service.service.LoginHistoryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoginHistoryServiceImpl implements LoginHistoryService {
+
+    static final int MAX_PAGE_SIZE = 100;
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    private static final char CURSOR_SEPARATOR = '|';
+
+    private final LoginHistoryRepository loginHistoryRepository;
+    private final ObjectMapper objectMapper;
+    private final LoginHistoryArchive loginHistoryArchive;
+
+    @Override
+    @Transactional(readOnly = true)
+    public LoginHistoryPage getLoginHistory(Long userId, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ApiException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // One extra row tells whether another page follows without a count query.
+        Limit limit = Limit.of(size + 1);
+        List<LoginHistory> logins;
+        if (cursor == null || cursor.isBlank()) {
+            logins = loginHistoryRepository.findLatest(userId, limit);
+        } else {
+            Cursor position = decodeCursor(cursor);
+            logins = loginHistoryRepository.findLatestBefore(userId, position.loginTime(), position.id(), limit);
+        }
+        if (logins.size() <= size) {
+            return new LoginHistoryPage(logins, null);
+        }
+        List<LoginHistory> page = logins.subList(0, size);
+        return new LoginHistoryPage(List.copyOf(page), encodeCursor(page.get(size - 1)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportLoginHistory(Long userId, OutputStream outputStream) throws IOException {
+        long rows = 0;
+        OutputStream out = new BufferedOutputStream(outputStream, EXPORT_BUFFER_SIZE);
+        try (Stream<LoginHistory> logins = userId == null
+                ? loginHistoryRepository.streamAll()
+                : loginHistoryRepository.streamByUserId(userId)) {
+            Iterator<LoginHistory> iterator = logins.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+                rows++;
+            }
+        }
+        out.flush();
+        log.info("Exported {} login history rows", rows);
+    }
+
+    @Override
+    public List<LoginHistory> searchArchivedLoginHistory(Long userId, LocalDateTime from, LocalDateTime to) {
+        if (userId == null && from == null && to == null) {
+            throw new ApiException("A user id or a time range is required to search the archive");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new ApiException("The start of the range must be before its end");
+        }
+        return loginHistoryArchive.search(new ArchiveQuery(userId, from, to));
+    }
+
+    static String encodeCursor(LoginHistory login) {
+        String position = login.getLoginTime().toString() + CURSOR_SEPARATOR + login.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Cursor decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf(CURSOR_SEPARATOR);
+            return new Cursor(LocalDateTime.parse(position.substring(0, separator)),
+                    Long.parseLong(position.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException exception) {
+            throw new ApiException("Invalid cursor");
+        }
+    }
+
+    record Cursor(LocalDateTime loginTime, Long id) {
+    }
+}
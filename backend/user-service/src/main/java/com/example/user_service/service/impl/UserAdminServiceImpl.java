@@ -0,0 +1,170 @@
+package com.example.user_service.service.impl;
+
+import com.example.user_service.cache.CacheStore;
+import com.example.user_service.event.UserChangedEvent;
+import com.example.user_service.cache.RoleRegistry;
+import com.example.user_service.domain.RequestContext;
+import com.example.user_service.dto.UserSelector;
+import com.example.user_service.entity.RoleEntity;
+import com.example.user_service.enumeration.Authority;
+import com.example.user_service.exception.ApiException;
+import com.example.user_service.repository.UserBulkRepository;
+import com.example.user_service.repository.UserBulkRepository.Selection;
+import com.example.user_service.repository.UserBulkRepository.UserRef;
+import com.example.user_service.service.UserAdminService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static com.example.user_service.constant.Constants.ROLE_GRANT_AUTHORITY;
+
+/**
+ * Runs bulk admin operations as one set-based {@code UPDATE} per chunk of users. Each chunk is its own
+ * short transaction, so a large operation never holds row locks on the whole table, and the login
+ * attempt cache of a chunk is cleared once that chunk has committed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserAdminServiceImpl implements UserAdminService {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private final UserBulkRepository userBulkRepository;
+    private final RoleRegistry roleRegistry;
+    private final CacheStore<String, Integer> userCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher publisher;
+
+    @Override
+    public int lockUsers(UserSelector selector) {
+        Long actorId = getActorId();
+        // Only users that are not locked yet, and never the admin running the operation.
+        Selection selection = toSelection(selector).withLocked(false).withExcludedUserId(actorId);
+        int locked = apply(selection, ids -> userBulkRepository.lock(ids, actorId));
+        log.info("User {} locked {} users", actorId, locked);
+        return locked;
+    }
+
+    @Override
+    public int unlockUsers(UserSelector selector) {
+        Long actorId = getActorId();
+        int unlocked = apply(toSelection(selector), ids -> userBulkRepository.unlock(ids, actorId));
+        log.info("User {} unlocked {} users", actorId, unlocked);
+        return unlocked;
+    }
+
+    @Override
+    public int changeRole(UserSelector selector, String roleName, String actorRoleName) {
+        Long actorId = getActorId();
+        RoleEntity role = getRole(roleName);
+        Authority actorRank = rank(getRole(actorRoleName));
+        if (isProtectedFrom(rank(role), actorRank)) {
+            throw new ApiException("You are not allowed to grant the " + role.getName() + " role");
+        }
+        // Users whose role the actor may not take away are refused up front, and kept out of the update in
+        // case one is promoted while the operation runs.
+        List<Long> protectedRoleIds = roleRegistry.findAll().stream()
+                .filter(candidate -> isProtectedFrom(rank(candidate), actorRank))
+                .map(RoleEntity::getId)
+                .toList();
+        Selection selection = toSelection(selector).withNotRoleId(role.getId()).withExcludedUserId(actorId);
+        if (!protectedRoleIds.isEmpty() && partition(selection).stream()
+                .anyMatch(part -> userBulkRepository.anyInRoles(part, protectedRoleIds))) {
+            throw new ApiException("The selection includes users whose role you are not allowed to change");
+        }
+        Long roleId = role.getId();
+        int changed = apply(selection.withExcludedRoleIds(protectedRoleIds),
+                ids -> userBulkRepository.changeRole(ids, roleId, actorId));
+        log.info("User {} moved {} users to role {}", actorId, changed, roleName);
+        return changed;
+    }
+
+    private int apply(Selection selection, Function<List<Long>, Integer> update) {
+        int updated = 0;
+        for (Selection part : partition(selection)) {
+            long afterId = 0;
+            List<UserRef> chunk;
+            do {
+                long after = afterId;
+                List<UserRef> refs = new ArrayList<>();
+                Integer count = transactionTemplate.execute(status -> {
+                    refs.addAll(userBulkRepository.findForUpdate(part, after, CHUNK_SIZE));
+                    return refs.isEmpty() ? 0 : update.apply(refs.stream().map(UserRef::id).toList());
+                });
+                chunk = refs;
+                chunk.forEach(ref -> {
+                    userCache.evict(ref.email());
+                    publisher.publishEvent(new UserChangedEvent(ref.id(), null));
+                });
+                updated += count == null ? 0 : count;
+                if (!chunk.isEmpty()) {
+                    afterId = chunk.get(chunk.size() - 1).id();
+                }
+            } while (chunk.size() == CHUNK_SIZE);
+        }
+        return updated;
+    }
+
+    /**
+     * Splits an id list into chunks so that no statement binds more than {@link #CHUNK_SIZE} ids.
+     */
+    private static List<Selection> partition(Selection selection) {
+        if (selection.ids() == null) {
+            return List.of(selection);
+        }
+        List<Long> ids = selection.ids().stream().distinct().sorted().toList();
+        List<Selection> parts = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            parts.add(selection.withIds(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()))));
+        }
+        return parts;
+    }
+
+    private Selection toSelection(UserSelector selector) {
+        if (selector == null || selector.isEmpty()) {
+            throw new ApiException("At least one user id or filter is required");
+        }
+        List<Long> ids = selector.getIds() == null || selector.getIds().isEmpty() ? null : selector.getIds();
+        return Selection.builder()
+                .ids(ids)
+                .roleId(selector.getRole() == null ? null : getRoleId(selector.getRole()))
+                .locked(selector.getLocked())
+                .minLoginAttempts(selector.getMinLoginAttempts())
+                .createdBefore(selector.getCreatedBefore())
+                .build();
+    }
+
+    private Long getRoleId(String roleName) {
+        return getRole(roleName).getId();
+    }
+
+    private RoleEntity getRole(String roleName) {
+        return roleRegistry.findByName(roleName).orElseThrow(() -> new ApiException("Role not found"));
+    }
+
+    /**
+     * Whether an actor of {@code actorRank} may neither grant nor take away a role of {@code rank}.
+     */
+    private static boolean isProtectedFrom(Authority rank, Authority actorRank) {
+        return rank.isAbove(actorRank) || rank.isElevated() && !actorRank.grants(ROLE_GRANT_AUTHORITY);
+    }
+
+    private static Authority rank(RoleEntity role) {
+        return role.getAuthorities() == null ? Authority.USER : role.getAuthorities();
+    }
+
+    private static Long getActorId() {
+        Long actorId = RequestContext.getUserId();
+        if (actorId == null) {
+            throw new ApiException("Cannot update users without user ID in Request Context for this thread");
+        }
+        return actorId;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.user_service.service.impl;
+
+import com.example.user_service.cache.CacheStore;
+import com.example.user_service.event.UserChangedEvent;
+import com.example.user_service.deletion.UserDeletionJob;
+import com.example.user_service.deletion.UserDeletionProperties;
+import com.example.user_service.domain.RequestContext;
+import com.example.user_service.dto.UserDeletionStatus;
+import com.example.user_service.enumeration.DeletionStatus;
+import com.example.user_service.exception.ApiException;
+import com.example.user_service.repository.UserDeletionRepository;
+import com.example.user_service.repository.UserDeletionRepository.PurgedTable;
+import com.example.user_service.service.UserDeletionService;
+import com.example.user_service.utils.ReferenceIdGenerator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+/**
+ * Deletes users in two steps. The request disables the account and bumps its token version in one short
+ * transaction, so the user is locked out immediately. A background job then purges the user's rows table by
+ * table in chunks of {@code user-deletion.chunk-size}, each committed on its own with a pause in between, and
+ * removes the user row last. A deletion interrupted by a restart leaves a disabled user that can be deleted again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserDeletionServiceImpl implements UserDeletionService {
+
+    private final UserDeletionRepository userDeletionRepository;
+    private final UserDeletionProperties properties;
+    private final CacheStore<String, Integer> userCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher publisher;
+
+    private final Map<String, UserDeletionJob> jobs = new ConcurrentHashMap<>();
+
+    private ExecutorService purgeExecutor;
+
+    @PostConstruct
+    void startExecutor() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("user-deletion-");
+        threadFactory.setDaemon(true);
+        purgeExecutor = Executors.newFixedThreadPool(properties.getMaxConcurrentDeletions(), threadFactory);
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        purgeExecutor.shutdownNow();
+    }
+
+    @Override
+    public synchronized UserDeletionStatus startDeletion(Long userId) {
+        removeExpiredJobs();
+        Long actorId = RequestContext.getUserId();
+        if (Objects.equals(actorId, userId)) {
+            throw new ApiException("You cannot delete your own account");
+        }
+        Optional<UserDeletionJob> pending = jobs.values().stream()
+                .filter(job -> job.getUserId().equals(userId) && !job.isFinished())
+                .findFirst();
+        if (pending.isPresent()) {
+            return pending.get().toStatus();
+        }
+        String email = transactionTemplate.execute(status -> userDeletionRepository.disable(userId, actorId).orElse(null));
+        if (email == null) {
+            throw new ApiException("User not found");
+        }
+        userCache.evict(email);
+        publisher.publishEvent(new UserChangedEvent(userId, null));
+        UserDeletionJob job = new UserDeletionJob(ReferenceIdGenerator.generate(), userId);
+        jobs.put(job.getId(), job);
+        purgeExecutor.execute(() -> run(job));
+        log.info("User {} disabled by {}; purge queued as job {}", userId, actorId, job.getId());
+        return job.toStatus();
+    }
+
+    @Override
+    public UserDeletionStatus getDeletionStatus(String jobId) {
+        UserDeletionJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ApiException("Deletion job not found");
+        }
+        return job.toStatus();
+    }
+
+    void run(UserDeletionJob job) {
+        job.start();
+        try {
+            for (PurgedTable table : PurgedTable.values()) {
+                purge(job, table);
+            }
+            userDeletionRepository.deleteUser(job.getUserId());
+            job.finish(DeletionStatus.COMPLETED, null);
+            log.info("Deletion {} of user {} completed: {}", job.getId(), job.getUserId(), job.toStatus().getDeleted());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            job.finish(DeletionStatus.FAILED, "Deletion was interrupted");
+        } catch (Exception exception) {
+            log.error("Deletion {} of user {} failed", job.getId(), job.getUserId(), exception);
+            job.finish(DeletionStatus.FAILED, exception.getMessage());
+        }
+    }
+
+    private void purge(UserDeletionJob job, PurgedTable table) throws InterruptedException {
+        int deleted;
+        do {
+            deleted = userDeletionRepository.purge(table, job.getUserId(), properties.getChunkSize());
+            job.deleted(table, deleted);
+            if (deleted == properties.getChunkSize()) {
+                Thread.sleep(properties.getPause().toMillis());
+            }
+        } while (deleted == properties.getChunkSize());
+    }
+
+    private void removeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getJobRetention());
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.user_service.service.impl;
+
+import com.example.user_service.cache.RoleRegistry;
+import com.example.user_service.domain.RequestContext;
+import com.example.user_service.dto.UserImportStatus;
+import com.example.user_service.entity.RoleEntity;
+import com.example.user_service.entity.UserEntity;
+import com.example.user_service.enumeration.Authority;
+import com.example.user_service.enumeration.EventType;
+import com.example.user_service.enumeration.ImportStatus;
+import com.example.user_service.event.UserEvent;
+import com.example.user_service.exception.ApiException;
+import com.example.user_service.importer.*;
+import com.example.user_service.link.LinkPurpose;
+import com.example.user_service.link.SignedLinkCodec;
+import com.example.user_service.service.UserImportService;
+import com.example.user_service.utils.ReferenceIdGenerator;
+import com.example.user_service.utils.UserUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk user import. Rows are read in batches; each batch is validated, de-duplicated against the file
+ * and against the database with one query, and its passwords are hashed on a bounded pool while the
+ * previous batch is being written. Each batch is inserted with JDBC batches in its own transaction;
+ * if that fails, the batch is retried row by row so one bad row does not sink its neighbours.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    private final UserImportWriter userImportWriter;
+    private final UserImportProperties properties;
+    private final RoleRegistry roleRegistry;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher publisher;
+    private final ObjectMapper objectMapper;
+    private final SignedLinkCodec signedLinkCodec;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    private ExecutorService importExecutor;
+    private ExecutorService hashingExecutor;
+
+    @PostConstruct
+    void startExecutors() {
+        importExecutor = new ThreadPoolExecutor(properties.getMaxConcurrentImports(), properties.getMaxConcurrentImports(),
+                0, TimeUnit.MILLISECONDS, new SynchronousQueue<>(), namedThreads("user-import-"));
+        // At most two batches are in flight, so this queue never fills; if it did, the importer hashes itself.
+        hashingExecutor = new ThreadPoolExecutor(properties.getHashingThreads(), properties.getHashingThreads(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getBatchSize() * 2),
+                namedThreads("password-hashing-"), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void stopExecutors() {
+        importExecutor.shutdownNow();
+        hashingExecutor.shutdownNow();
+    }
+
+    @Override
+    public UserImportStatus startImport(InputStream inputStream, ImportFormat format, boolean sendVerificationEmails) throws IOException {
+        removeExpiredJobs();
+        ImportJob job = new ImportJob(ReferenceIdGenerator.generate(), properties.getMaxReportedErrors());
+        Long actorId = RequestContext.getUserId();
+        UserImportReader reader = new UserImportReader(
+                new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)), format, objectMapper);
+        try {
+            importExecutor.execute(() -> run(job, reader, actorId, sendVerificationEmails));
+        } catch (RejectedExecutionException exception) {
+            reader.close();
+            throw new ApiException("Another import is already running. Try again later");
+        }
+        jobs.put(job.getId(), job);
+        return job.toStatus();
+    }
+
+    @Override
+    public UserImportStatus getImportStatus(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ApiException("Import job not found");
+        }
+        return job.toStatus();
+    }
+
+    void run(ImportJob job, UserImportReader reader, Long actorId, boolean sendVerificationEmails) {
+        RequestContext.setUserId(actorId);
+        try (reader) {
+            RoleEntity role = roleRegistry.findByName(Authority.USER.name())
+                    .orElseThrow(() -> new ApiException("Role not found"));
+            Set<String> seenEmails = new HashSet<>();
+            List<Future<PreparedUser>> pending = List.of();
+            List<ImportRow> rows;
+            while (!(rows = reader.read(properties.getBatchSize())).isEmpty()) {
+                job.getRowsRead().addAndGet(rows.size());
+                List<Future<PreparedUser>> hashing = hash(accept(job, rows, seenEmails));
+                write(job, pending, role, actorId, sendVerificationEmails);
+                pending = hashing;
+            }
+            write(job, pending, role, actorId, sendVerificationEmails);
+            job.finish(ImportStatus.COMPLETED, null);
+            log.info("Import {} completed: {} imported, {} duplicates, {} failed",
+                    job.getId(), job.getImported(), job.getDuplicates(), job.getFailed());
+        } catch (Exception exception) {
+            log.error("Import {} failed", job.getId(), exception);
+            job.finish(ImportStatus.FAILED, exception.getMessage());
+        } finally {
+            RequestContext.setUserId(null);
+        }
+    }
+
+    private List<ImportRow> accept(ImportJob job, List<ImportRow> rows, Set<String> seenEmails) {
+        List<ImportRow> valid = new ArrayList<>(rows.size());
+        Map<String, ImportRow> byEmail = new LinkedHashMap<>();
+        for (ImportRow row : rows) {
+            String problem = validate(row);
+            if (problem != null) {
+                job.rejected(row, problem);
+                continue;
+            }
+            String email = UserUtils.normalizeEmail(row.email());
+            if (!seenEmails.add(email)) {
+                job.getDuplicates().incrementAndGet();
+                continue;
+            }
+            byEmail.put(email, row);
+        }
+        Set<String> existing = userImportWriter.findExistingEmails(byEmail.keySet());
+        byEmail.forEach((email, row) -> {
+            if (existing.contains(email)) {
+                job.getDuplicates().incrementAndGet();
+            } else {
+                valid.add(row);
+            }
+        });
+        return valid;
+    }
+
+    private static String validate(ImportRow row) {
+        if (isBlank(row.firstName()) || isBlank(row.lastName()) || isBlank(row.email()) || isBlank(row.password())) {
+            return "firstName, lastName, email and password are required";
+        }
+        if (!EMAIL.matcher(row.email().trim()).matches()) {
+            return "invalid email address";
+        }
+        return null;
+    }
+
+    private List<Future<PreparedUser>> hash(List<ImportRow> rows) {
+        List<Future<PreparedUser>> futures = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            futures.add(hashingExecutor.submit(() ->
+                    new PreparedUser(row, UserUtils.normalizeEmail(row.email()), passwordEncoder.encode(row.password()))));
+        }
+        return futures;
+    }
+
+    private void write(ImportJob job, List<Future<PreparedUser>> pending, RoleEntity role, Long actorId,
+                       boolean sendVerificationEmails) throws InterruptedException, ExecutionException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<PreparedUser> users = new ArrayList<>(pending.size());
+        for (Future<PreparedUser> future : pending) {
+            users.add(future.get());
+        }
+        try {
+            List<Long> ids = transactionTemplate.execute(status -> userImportWriter.insert(users, role.getId(), actorId, !sendVerificationEmails));
+            imported(job, users, ids, sendVerificationEmails);
+        } catch (DataAccessException batchFailure) {
+            log.warn("Import {} batch failed, retrying {} rows one by one: {}", job.getId(), users.size(), batchFailure.getMessage());
+            for (PreparedUser user : users) {
+                try {
+                    List<Long> ids = transactionTemplate.execute(status -> userImportWriter.insert(List.of(user), role.getId(), actorId, !sendVerificationEmails));
+                    imported(job, List.of(user), ids, sendVerificationEmails);
+                } catch (DataAccessException rowFailure) {
+                    job.rejected(user.row(), rowFailure.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private void imported(ImportJob job, List<PreparedUser> users, List<Long> ids, boolean sendVerificationEmails) {
+        job.getImported().addAndGet(users.size());
+        if (!sendVerificationEmails) {
+            return;
+        }
+        for (int i = 0; i < users.size(); i++) {
+            ImportRow row = users.get(i).row();
+            UserEntity user = UserEntity.builder().firstName(row.firstName()).email(row.email().trim()).build();
+            String key = signedLinkCodec.issue(LinkPurpose.VERIFY_ACCOUNT, ids.get(i), 0);
+            publisher.publishEvent(new UserEvent(user, EventType.REGISTRATION, Map.of("key", key)));
+        }
+    }
+
+    private void removeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getJobRetention());
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        ThreadFactory defaults = Executors.defaultThreadFactory();
+        return runnable -> {
+            Thread thread = defaults.newThread(runnable);
+            thread.setName(prefix + thread.getName());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,44 +1,62 @@
 package com.example.user_service.service.impl;
 
 import com.example.user_service.cache.CacheStore;
+import com.example.user_service.cache.UserProfileCache;
+import com.example.user_service.cache.RoleRegistry;
+import com.example.user_service.cache.SingleFlight;
+import com.example.user_service.cache.UserAgentRegistry;
+import com.example.user_service.datasource.ReadWriteRoutingDataSource;
+import com.example.user_service.directory.UserDirectory;
 import com.example.user_service.domain.ApiAuthentication;
 import com.example.user_service.domain.RequestContext;
 import com.example.user_service.dto.User;
 import com.example.user_service.dto.UserRequest;
+import com.example.user_service.dto.UserView;
 import com.example.user_service.entity.*;
 import com.example.user_service.enumeration.Authority;
 import com.example.user_service.enumeration.EventType;
 import com.example.user_service.enumeration.LoginType;
+import com.example.user_service.event.UserChangedEvent;
 import com.example.user_service.event.UserEvent;
 import com.example.user_service.exception.ApiException;
+import com.example.user_service.link.LinkPurpose;
+import com.example.user_service.link.SignedLink;
+import com.example.user_service.link.SignedLinkCodec;
 import com.example.user_service.repository.*;
 import com.example.user_service.service.MfaService;
 import com.example.user_service.service.UserService;
 import com.example.user_service.utils.UserUtils;
+import com.google.common.net.InetAddresses;
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.net.InetAddress;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 
 
 @Service
-@Transactional(rollbackOn = Exception.class)
+@Transactional(rollbackFor = Exception.class)
 @RequiredArgsConstructor
 @Slf4j
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final UserRegistrationRepository userRegistrationRepository;
+    private final RoleRegistry roleRegistry;
+    private final UserAgentRegistry userAgentRegistry;
+    private final UserDirectory userDirectory;
+    private final UserProfileCache userProfileCache;
+    private final SingleFlight<String, Optional<UserView>> userLookups;
     private final CredentialRepository credentialRepository;
     private final ConfirmationRepository confirmationRepository;
     private final LoginHistoryRepository loginHistoryRepository;
@@ -46,39 +64,123 @@ public class UserServiceImpl implements UserService {
     private final CacheStore<String, Integer> userCache;
     private final PasswordEncoder passwordEncoder;
     private final MfaService mfaService;
+    private final SignedLinkCodec signedLinkCodec;
 
     @Override
     public void createUser(String firstName, String lastName, String email, String password) {
-        if (userRepository.existsByEmail(email)) {
-            throw new ApiException("User with this email already exists");
+        RoleEntity role = getRoleName(Authority.USER.name());
+        UserEntity userEntity = UserUtils.createUserEntity(firstName, lastName, email, role);
+        // One insert-on-conflict statement: no exists check to race with and no separate credential insert.
+        Long actorId = RequestContext.getUserId();
+        if (actorId == null) {
+            throw new ApiException("Cannot persist entity without user ID in Request Context for this thread");
         }
-        UserEntity userEntity = userRepository.save(createNewUser(firstName, lastName, email));
-        CredentialEntity credentialEntity = new CredentialEntity(userEntity, passwordEncoder.encode(password));
-        credentialRepository.save(credentialEntity);
-        ConfirmationEntity confirmationEntity = new ConfirmationEntity(userEntity);
-        confirmationRepository.save(confirmationEntity);
-        publisher.publishEvent(new UserEvent(userEntity, EventType.REGISTRATION, Map.of("key", confirmationEntity.getKey())));
+        Long id = userRegistrationRepository.isSupported()
+                ? userRegistrationRepository.register(userEntity, role.getId(), passwordEncoder.encode(password), actorId)
+                        .orElseThrow(() -> new ApiException("User with this email already exists"))
+                : registerWithEntities(userEntity, password);
+        String key = signedLinkCodec.issue(LinkPurpose.VERIFY_ACCOUNT, id, 0);
+        publisher.publishEvent(new UserEvent(userEntity, EventType.REGISTRATION, Map.of("key", key)));
     }
 
-    private UserEntity createNewUser(String firstName, String lastName, String email) {
-        RoleEntity role = getRoleName(Authority.USER.name());
-        return UserUtils.createUserEntity(firstName, lastName, email, role);
+    /**
+     * Registration for databases without data-modifying CTEs (the dev-h2 profile): an exists check and two
+     * inserts, audited by {@code Auditable} from the same request context.
+     */
+    private Long registerWithEntities(UserEntity userEntity, String password) {
+        if (userRepository.existsByEmailNormalized(UserUtils.normalizeEmail(userEntity.getEmail()))) {
+            throw new ApiException("User with this email already exists");
+        }
+        UserEntity saved = userRepository.save(userEntity);
+        credentialRepository.save(new CredentialEntity(saved, passwordEncoder.encode(password)));
+        return saved.getId();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public RoleEntity getRoleName(String name) {
-        return roleRepository.findByNameIgnoreCase(name)
+        return roleRegistry.findByName(name)
                 .orElseThrow(() -> new ApiException("Role not found"));
     }
 
     @Override
     public void verifyAccountKey(String key) {
+        if (SignedLinkCodec.isSignedLink(key)) {
+            SignedLink link = signedLinkCodec.parse(key, LinkPurpose.VERIFY_ACCOUNT);
+            RequestContext.setUserId(link.userId());
+            // Only a disabled user is enabled, so the row itself makes the link single-use on every instance.
+            if (userRepository.enableUser(link.userId(), LocalDateTime.now()) == 0) {
+                throw new ApiException("Link has already been used");
+            }
+            userChanged(link.userId(), null);
+            return;
+        }
+        // Keys sent before verification links were signed are still stored as confirmations.
         ConfirmationEntity confirmationEntity = getUserConfirmation(key);
         UserEntity userEntity = getUserEntityByEmail(confirmationEntity.getUserEntity().getEmail());
         RequestContext.setUserId(userEntity.getId());
         userEntity.setEnabled(true);
         userRepository.save(userEntity);
         confirmationRepository.delete(confirmationEntity);
+        userChanged(userEntity);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void resendVerification(String email) {
+        // Like password resets, unknown and already enabled accounts are ignored silently.
+        userRepository.findByEmailNormalized(UserUtils.normalizeEmail(email))
+                .filter(userEntity -> !userEntity.isEnabled())
+                .ifPresent(userEntity -> {
+                    String key = signedLinkCodec.issue(LinkPurpose.VERIFY_ACCOUNT, userEntity.getId(), 0);
+                    publisher.publishEvent(new UserEvent(userEntity, EventType.REGISTRATION, Map.of("key", key)));
+                });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void requestPasswordReset(String email) {
+        // Unknown emails are ignored silently so that the endpoint does not reveal which accounts exist.
+        userRepository.findByEmailNormalized(UserUtils.normalizeEmail(email)).ifPresent(userEntity -> {
+            CredentialEntity credentialEntity = getUserCredentialById(userEntity.getId());
+            String key = signedLinkCodec.issue(LinkPurpose.RESET_PASSWORD, userEntity.getId(),
+                    SignedLinkCodec.fingerprint(credentialEntity.getPassword()));
+            publisher.publishEvent(new UserEvent(userEntity, EventType.RESETPASSWORD, Map.of("key", key)));
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void verifyPasswordResetKey(String key) {
+        getResetCredential(signedLinkCodec.parse(key, LinkPurpose.RESET_PASSWORD),
+                credentialRepository::getCredentialByUserEntityId);
+    }
+
+    @Override
+    public void resetPassword(String key, String newPassword, String confirmNewPassword) {
+        SignedLink link = signedLinkCodec.parse(key, LinkPurpose.RESET_PASSWORD);
+        validateNewPassword(newPassword, confirmNewPassword);
+        // The row lock makes a concurrent use of the same link wait, then find the password changed.
+        CredentialEntity credentialEntity = getResetCredential(link, credentialRepository::findForUpdateByUserEntityId);
+        RequestContext.setUserId(link.userId());
+        credentialEntity.setPassword(passwordEncoder.encode(newPassword));
+        // Sessions opened with the old password end with it.
+        UserEntity userEntity = credentialEntity.getUserEntity();
+        userEntity.setTokenVersion(userEntity.getTokenVersion() + 1);
+        userChanged(userEntity);
+    }
+
+    /**
+     * A reset link is bound to the password it replaces, so it stops working once any password change
+     * has happened, on every instance. That binding is what makes the link single-use.
+     */
+    private CredentialEntity getResetCredential(SignedLink link, Function<Long, Optional<CredentialEntity>> lookup) {
+        CredentialEntity credentialEntity = lookup.apply(link.userId())
+                .orElseThrow(() -> new ApiException("Unable to find user credential"));
+        if (SignedLinkCodec.fingerprint(credentialEntity.getPassword()) != link.binding()) {
+            throw new ApiException("Link has already been used");
+        }
+        return credentialEntity;
     }
 
     private ConfirmationEntity getUserConfirmation(String key) {
@@ -87,24 +189,39 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserEntity getUserEntityByEmail(String email) {
-        return userRepository.findByEmailIgnoreCase(email)
+        return userRepository.findByEmailNormalized(UserUtils.normalizeEmail(email))
                 .orElseThrow(() -> new ApiException("User by email not found"));
     }
 
+    /**
+     * The profile cache is filled from the primary: a replica may still hold the row as it was before the change
+     * that evicted it, and caching that would outlive the replication lag.
+     */
     @Override
+    @Transactional(readOnly = true)
     public User getUserByUserId(String userId) {
-        UserEntity userEntity = userRepository.findUserByUserId(userId).orElseThrow(() -> new ApiException("User by user id not found"));
-        return UserUtils.fromUserEntity(userEntity, userEntity.getRole(),getUserCredentialById(userEntity.getId()));
+        return userDirectory.findByUserId(userId)
+                .or(() -> userProfileCache.get(userId, (id, version) -> userLookups.execute("user-id:" + id + "@" + version,
+                        () -> ReadWriteRoutingDataSource.onPrimary(() -> userRepository.findViewByUserId(id)))))
+                .map(UserUtils::fromUserView)
+                .orElseThrow(() -> new ApiException("User by user id not found"));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public User getUserByEmail(String email) {
-        UserEntity userEntity = getUserEntityByEmail(email);
-        return UserUtils.fromUserEntity(userEntity, userEntity.getRole(),getUserCredentialById(userEntity.getId()));
+        String emailNormalized = UserUtils.normalizeEmail(email);
+        return userDirectory.findByEmailNormalized(emailNormalized)
+                .or(() -> userLookups.execute("email:" + emailNormalized,
+                        () -> userRepository.findViewByEmailNormalized(emailNormalized)))
+                .map(UserUtils::fromUserView)
+                .orElseThrow(() -> new ApiException("User by email not found"));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CredentialEntity getUserCredentialById(Long userId) {
         return credentialRepository.getCredentialByUserEntityId(userId)
                 .orElseThrow(() -> new ApiException("Unable to find user credential"));
@@ -126,12 +243,12 @@ public class UserServiceImpl implements UserService {
 
         return ApiAuthentication.authenticated(
                 UserUtils.fromUserEntity(userEntity, userEntity.getRole(), credential),
-                AuthorityUtils.commaSeparatedStringToAuthorityList(userEntity.getRole().getAuthorities().getValue())
+                userEntity.getRole().getAuthorities().getGrantedAuthorities()
         );
     }
 
     @Override
-    public void enableMfa(String email) {
+    public String enableMfa(String email) {
         UserEntity user = getUserEntityByEmail(email);
         String secretKey = mfaService.generateSecretKey();
         String qrCodeUrl = mfaService.generateQrCodeUrl(user.getEmail(), secretKey);
@@ -141,9 +258,12 @@ public class UserServiceImpl implements UserService {
         user.setQrCodeImageUrl(qrCodeUrl);
 
         userRepository.save(user);
+        userChanged(user);
+        return qrCodeUrl;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public boolean verifyMfa(String email, int code) {
         UserEntity user = getUserEntityByEmail(email);
         return mfaService.validateOtp(user.getQrCodeSecret(), code);
@@ -154,13 +274,24 @@ public class UserServiceImpl implements UserService {
         LoginHistoryEntity log = LoginHistoryEntity.builder()
                 .user(user)
                 .loginTime(LocalDateTime.now())
-                .ip(ip)
-                .userAgent(userAgent)
+                .ip(parseIp(ip))
+                .userAgentId(userAgentRegistry.idOf(userAgent))
                 .success(success)
                 .build();
         loginHistoryRepository.save(log);
     }
 
+    /**
+     * Only literal addresses are accepted; unlike {@link InetAddress#getByName} this never does a DNS lookup.
+     */
+    private static InetAddress parseIp(String ip) {
+        try {
+            return ip == null ? null : InetAddresses.forString(ip);
+        } catch (IllegalArgumentException exception) {
+            return null;
+        }
+    }
+
     @Override
     public void updateLoginAttempt(String email, LoginType loginType, HttpServletRequest request) {
         UserEntity userEntity = getUserEntityByEmail(email);
@@ -170,9 +301,12 @@ public class UserServiceImpl implements UserService {
 
         switch (loginType) {
             case LOGIN_ATTEMPT -> {
-                userEntity.setLoginAttempts(userEntity.getLoginAttempts() + 1);
-                userCache.put(userEntity.getEmail(), userEntity.getLoginAttempts());
-                if (userCache.get(userEntity.getEmail()) > 5) {
+                // Counted atomically in the cache, so concurrent failures for the same user are not lost.
+                int stored = userEntity.getLoginAttempts();
+                int attempts = userCache.compute(userEntity.getEmail(),
+                        (key, cached) -> Math.max(cached == null ? 0 : cached, stored) + 1);
+                userEntity.setLoginAttempts(attempts);
+                if (attempts > 5) {
                     userEntity.setAccountNonLocked(false);
                 }
 
@@ -186,6 +320,7 @@ public class UserServiceImpl implements UserService {
             }
         }
         userRepository.save(userEntity);
+        userChanged(userEntity);
     }
 
     @Override
@@ -195,14 +330,16 @@ public class UserServiceImpl implements UserService {
         userEntity.setLoginAttempts(0);
         userEntity.setAccountNonLocked(true);
         userRepository.save(userEntity);
+        userChanged(userEntity);
     }
 
     @Override
     public void updateUser(Long userId, UserRequest userRequest) {
         UserEntity userEntity = userRepository.findById(userId)
                 .orElseThrow(() -> new ApiException("User not found"));
-        if (userRepository.existsByEmail(userRequest.getEmail())) {
-            if (!userEntity.getEmail().equals(userRequest.getEmail())) {
+        String requestedEmail = UserUtils.normalizeEmail(userRequest.getEmail());
+        if (userRepository.existsByEmailNormalized(requestedEmail)) {
+            if (!UserUtils.normalizeEmail(userEntity.getEmail()).equals(requestedEmail)) {
                 throw new ApiException("User with this email already exists");
             }
         }
@@ -211,13 +348,16 @@ public class UserServiceImpl implements UserService {
         userEntity.setPhone(userRequest.getPhone());
         userEntity.setBio(userRequest.getBio());
         userRepository.save(userEntity);
+        userChanged(userEntity);
     }
 
     @Override
     public void lockedUser(String email) {
         UserEntity userEntity = getUserEntityByEmail(email);
         userEntity.setAccountNonLocked(false);
+        userEntity.setTokenVersion(userEntity.getTokenVersion() + 1);
         userRepository.save(userEntity);
+        userChanged(userEntity);
     }
 
     @Override
@@ -227,7 +367,24 @@ public class UserServiceImpl implements UserService {
         if (!passwordEncoder.matches(oldPassword, credentialEntity.getPassword())) {
             throw new BadCredentialsException("Old password is incorrect");
         }
-        if (!newPassword.equals(confirmNewPassword)) {
+        validateNewPassword(newPassword, confirmNewPassword);
+        credentialEntity.setPassword(passwordEncoder.encode(newPassword));
+        userChanged(id, null);
+    }
+
+    private void userChanged(UserEntity userEntity) {
+        userChanged(userEntity.getId(), userEntity.getUserId());
+    }
+
+    /**
+     * Cached profiles of the user are dropped once the surrounding transaction commits.
+     */
+    private void userChanged(Long id, String userId) {
+        publisher.publishEvent(new UserChangedEvent(id, userId));
+    }
+
+    private static void validateNewPassword(String newPassword, String confirmNewPassword) {
+        if (newPassword == null || !newPassword.equals(confirmNewPassword)) {
             throw new ApiException("New password and confirm new password do not match");
         }
         //The new password must contain at least one digit, one lowercase letter, one uppercase letter, and be at least 8 characters long.
@@ -235,14 +392,5 @@ public class UserServiceImpl implements UserService {
         if (!newPassword.matches(passwordPolicy)) {
             throw new ApiException("New password does not conform to password policy");
         }
-        credentialEntity.setPassword(passwordEncoder.encode(newPassword));
     }
-
-    @Override
-    public void deleteUser(Long userId, Authentication authentication) {
-
-    }
-
-
 }
-
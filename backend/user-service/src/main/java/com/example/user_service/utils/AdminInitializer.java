@@ -33,7 +33,7 @@ public class AdminInitializer {
 
     @PostConstruct
     public void initAdminUser() {
-        if (!userRepository.existsByEmail("admin@mail.com")) {
+        if (!userRepository.existsByEmailNormalized(UserUtils.normalizeEmail("admin@mail.com"))) {
             RoleEntity adminRole = roleRepository.findByNameIgnoreCase("ADMIN")
                     .orElseGet(() -> {
                         RoleEntity role = new RoleEntity();
@@ -0,0 +1,64 @@
+package com.example.user_service.utils;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Shared, lock-free generator of time-ordered (UUIDv7 layout) reference ids.
+ * The 48-bit millisecond timestamp and a 12-bit sequence live in one {@link AtomicLong},
+ * so ids are strictly increasing within the JVM and new rows always land on the right
+ * edge of the reference id index.
+ */
+public final class ReferenceIdGenerator {
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final long VARIANT_IETF = 0x8000000000000000L;
+    private static final long MAX_DRIFT_MILLIS = 1;
+    private static final long WAIT_NANOS = 50_000;
+    private static final long MAX_WAIT_MILLIS = 10;
+
+    private static final AtomicLong STATE = new AtomicLong();
+
+    private ReferenceIdGenerator() {}
+
+    public static UUID generateId() {
+        long state = nextState(STATE, System::currentTimeMillis);
+        long timestamp = state >>> SEQUENCE_BITS;
+        long sequence = state & ((1L << SEQUENCE_BITS) - 1);
+        long mostSigBits = (timestamp << 16) | VERSION_7 | sequence;
+        long leastSigBits = (ThreadLocalRandom.current().nextLong() & VARIANT_MASK) | VARIANT_IETF;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    public static String generate() {
+        return generateId().toString();
+    }
+
+    /*
+     * Sequence overflow within one millisecond borrows from the next millisecond instead of
+     * blocking, but never more than MAX_DRIFT_MILLIS ahead of the wall clock: beyond that the
+     * caller waits for the clock to catch up, so embedded timestamps stay close to real time
+     * under sustained bursts. A clock step-back also leaves the last issued id ahead of the
+     * clock; waiting for it is bounded by MAX_WAIT_MILLIS, and after a larger step generation
+     * continues from the last issued timestamp with the sequence, without waiting, until the
+     * clock passes it again. Ids stay monotonic and writes never stall on the clock.
+     */
+    static long nextState(AtomicLong state, LongSupplier clock) {
+        while (true) {
+            long current = state.get();
+            long now = clock.getAsLong();
+            long next = Math.max(now << SEQUENCE_BITS, current + 1);
+            long drift = (next >>> SEQUENCE_BITS) - now;
+            if (drift > MAX_DRIFT_MILLIS && drift <= MAX_WAIT_MILLIS) {
+                LockSupport.parkNanos(WAIT_NANOS);
+            } else if (state.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.user_service.utils;
 
+import com.example.user_service.cache.SingleFlightTimeoutException;
 import com.example.user_service.domain.Response;
 import com.example.user_service.exception.ApiException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -20,6 +21,7 @@ import java.util.function.BiFunction;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMessage;
 import static org.springframework.http.HttpStatus.FORBIDDEN;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
@@ -42,6 +44,9 @@ public class RequestUtils {
         if (httpStatus.isSameCodeAs(UNAUTHORIZED)) {
             return "You are not logged in";
         }
+        if (httpStatus.isSameCodeAs(SERVICE_UNAVAILABLE)) {
+            return "Service is busy, please retry";
+        }
         if (exception instanceof DisabledException ||
                 exception instanceof LockedException ||
                 exception instanceof BadCredentialsException ||
@@ -82,6 +87,8 @@ public class RequestUtils {
             return HttpStatus.FORBIDDEN;
         } else if (exception instanceof CredentialsExpiredException) {
             return HttpStatus.UNAUTHORIZED;
+        } else if (exception instanceof SingleFlightTimeoutException) {
+            return HttpStatus.SERVICE_UNAVAILABLE;
         } else {
             return HttpStatus.INTERNAL_SERVER_ERROR;
         }
@@ -2,14 +2,17 @@ package com.example.user_service.utils;
 
 
 import com.example.user_service.dto.User;
+import com.example.user_service.dto.UserView;
 import com.example.user_service.entity.CredentialEntity;
 import com.example.user_service.entity.RoleEntity;
 import com.example.user_service.entity.UserEntity;
 import org.springframework.beans.BeanUtils;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.UUID;
 
+import static com.example.user_service.constant.Constants.DEFAULT_IMAGE_URL;
 import static com.example.user_service.constant.Constants.NINETY_DAYS;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 
@@ -30,7 +33,7 @@ public class UserUtils {
                 .qrCodeSecret(EMPTY)
                 .phone(EMPTY)
                 .bio(EMPTY)
-                .imageUrl("https://cdn-icons-png.flaticon.com/512/149/149071.png")
+                .imageUrl(DEFAULT_IMAGE_URL)
                 .role(role)
                 .build();
     }
@@ -48,6 +51,36 @@ public class UserUtils {
         return user;
     }
 
+    public static User fromUserView(UserView view) {
+        return User.builder()
+                .id(view.id())
+                .createdBy(view.createdBy())
+                .updatedBy(view.updatedBy())
+                .userId(view.userId())
+                .firstName(view.firstName())
+                .lastName(view.lastName())
+                .email(view.email())
+                .phone(view.phone())
+                .bio(view.bio())
+                .imageUrl(view.imageUrl())
+                .lastLogin(view.lastLogin().toString())
+                .createdAt(view.createdAt().toString())
+                .updatedAt(view.updatedAt().toString())
+                .role(view.role())
+                .authorities(view.authorities().getValue())
+                .accountNonExpired(view.accountNonExpired())
+                .accountNonLocked(view.accountNonLocked())
+                .credentialsNonExpired(view.credentialUpdatedAt().plusDays(NINETY_DAYS).isAfter(LocalDateTime.now()))
+                .enabled(view.enabled())
+                .mfa(view.mfa())
+                .tokenVersion(view.tokenVersion())
+                .build();
+    }
+
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
     public static boolean isCredentialNonExpired(CredentialEntity credentialEntity) {
         return credentialEntity.getUpdatedAt().plusDays(NINETY_DAYS).isAfter(LocalDateTime.now());
     }
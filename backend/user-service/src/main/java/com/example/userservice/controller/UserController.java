@@ -2,14 +2,25 @@ package com.example.userservice.controller;
 
 import com.example.userservice.dto.Result;
 import com.example.userservice.dto.StatusCode;
+import com.example.userservice.dto.UserFilter;
 import com.example.userservice.dto.UserRq;
 import com.example.userservice.dto.UserRs;
+import com.example.userservice.dto.UserSliceRs;
 import com.example.userservice.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.IOException;
 
 
 @RestController
@@ -17,7 +28,10 @@ import java.util.List;
 @RequestMapping("${api.endpoint.base-url}/user")
 public class UserController {
 
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping()
     Result createUser(@Valid @RequestBody UserRq rq){
@@ -35,11 +49,36 @@ public class UserController {
 
 
     @GetMapping
-    public Result findAll() {
+    public Result findAll(UserFilter filter, @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+
+        UserSliceRs slice = userService.findAll(filter, pageable);
+
+        return new Result(true,StatusCode.SUCCESS, "Found all", slice);
+    }
+
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll(UserFilter filter) {
 
-        List<UserRs> usersRs = userService.findAll();
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            try {
+                userService.streamAll(filter, user -> writeLine(out, user));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+        };
 
-        return new Result(true,StatusCode.SUCCESS, "Found all", usersRs);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE)).body(body);
+    }
+
+    private void writeLine(OutputStream out, UserRs user) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(user));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     @PutMapping("/{id}")
@@ -66,4 +105,12 @@ public class UserController {
         return new Result(true,StatusCode.SUCCESS,"Role assign success");
     }
 
+    @PostMapping("/change-role")
+    public Result assignRoleToUsers(UserFilter filter, @RequestBody String roleName){
+
+        int assigned = userService.assignRoleToUsers(filter, roleName);
+
+        return new Result(true,StatusCode.SUCCESS,"Role assign success", assigned);
+    }
+
 }
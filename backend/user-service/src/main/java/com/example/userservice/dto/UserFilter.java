@@ -0,0 +1,22 @@
+package com.example.userservice.dto;
+
+import com.example.userservice.entity.RoleType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Optional listing filters; {@code username} and {@code email} match case-insensitive substrings.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserFilter {
+
+    String username;
+    String email;
+    RoleType role;
+    Boolean enabled;
+}
@@ -0,0 +1,16 @@
+package com.example.userservice.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Builder
+@Data
+public class UserSliceRs {
+
+    List<UserRs> content;
+    int page;
+    int size;
+    boolean hasNext;
+}
@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.HashSet;
@@ -18,8 +19,14 @@ import java.util.Set;
 @Builder
 @Entity
 @Table(name = "users")
+@NamedEntityGraph(name = User.WITH_ROLES, attributeNodes = @NamedAttributeNode("roles"))
 public class User {
 
+    /**
+     * Fetch plan for reads that return or convert the user; roles are otherwise loaded lazily.
+     */
+    public static final String WITH_ROLES = "User.withRoles";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -34,13 +41,16 @@ public class User {
     @NotEmpty(message = "password must be filled")
     private String password;
 
-    @ManyToMany(fetch = FetchType.EAGER, cascade = CascadeType.PERSIST)
+    // Lists that do not fetch roles through the entity graph initialize them for up to 100 users per query.
+    @ManyToMany(fetch = FetchType.LAZY, cascade = CascadeType.PERSIST)
     @JoinTable(
             name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
             inverseJoinColumns = @JoinColumn(name = "role_id")
     )
+    @BatchSize(size = 100)
     @Builder.Default
+    @ToString.Exclude
     private Set<Role> roles = new HashSet<>();
 
     private boolean enabled;
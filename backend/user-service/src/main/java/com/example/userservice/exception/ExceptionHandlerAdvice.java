@@ -44,6 +44,12 @@ public class ExceptionHandlerAdvice {
 //        return new Result(false, StatusCode.INVALID_ARGUMENT,"Provided arguments are not valid", ex.getMessage());
 //    }
 
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    Result handleIllegalArgumentException(@NotNull IllegalArgumentException ex) {
+        return new Result(false, StatusCode.INVALID_ARGUMENT, "Provided arguments are not valid", ex.getMessage());
+    }
+
     @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     Result handleHttpMediaTypeNotSupportedException(@NotNull HttpMediaTypeNotSupportedException ex) {
@@ -119,5 +125,4 @@ public class ExceptionHandlerAdvice {
 //    ServletException
 //    DataIntegrityViolationException
 //    ConstraintDefinitionException
-//    IllegalArgumentException
 }
@@ -1,14 +1,80 @@
 package com.example.userservice.repo;
 
+import com.example.userservice.entity.RoleType;
 import com.example.userservice.entity.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    String FILTER = """
+            (:username is null or lower(u.username) like lower(concat('%', :username, '%')))
+            and (:email is null or lower(u.email) like lower(concat('%', :email, '%')))
+            and (:enabled is null or u.enabled = :enabled)
+            and (:role is null or exists (select r.id from User f join f.roles r where f = u and r.name = :role))
+            """;
+
+    @Override
+    @EntityGraph(User.WITH_ROLES)
+    Optional<User> findById(Long id);
+
+    @EntityGraph(User.WITH_ROLES)
     Optional<User> findByUsername(String username);
 
+    @EntityGraph(User.WITH_ROLES)
     Optional<User> findByEmail(String email);
 
+    /**
+     * All users with their roles in one query. Paged variants keep lazy roles, batch-loaded per page,
+     * because a fetch-joined collection would make Hibernate page in memory.
+     */
+    @Override
+    @EntityGraph(User.WITH_ROLES)
+    List<User> findAll();
+
+    /**
+     * Ids of one page of matching users. Roles are loaded afterwards for just these ids, so paging
+     * happens in the database instead of over a fetch-joined collection in memory.
+     */
+    @Query("select u.id from User u where " + FILTER)
+    Slice<Long> findIds(@Param("username") String username,
+                        @Param("email") String email,
+                        @Param("role") RoleType role,
+                        @Param("enabled") Boolean enabled,
+                        Pageable pageable);
+
+    @Query("select u.id from User u where u.id > :afterId and " + FILTER + " order by u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId,
+                            @Param("username") String username,
+                            @Param("email") String email,
+                            @Param("role") RoleType role,
+                            @Param("enabled") Boolean enabled,
+                            Limit limit);
+
+    @Query("select distinct u from User u left join fetch u.roles where u.id in :ids")
+    List<User> findAllWithRolesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Grants {@code roleId} to every listed user that does not have it yet, in one statement.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+            insert into user_roles (user_id, role_id)
+            select u.id, :roleId from users u
+            where u.id in :ids
+              and not exists (select 1 from user_roles ur where ur.user_id = u.id and ur.role_id = :roleId)
+            """, nativeQuery = true)
+    int addRoleToUsers(@Param("ids") Collection<Long> ids, @Param("roleId") Long roleId);
 }
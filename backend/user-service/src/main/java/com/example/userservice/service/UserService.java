@@ -1,8 +1,10 @@
 package com.example.userservice.service;
 
+import com.example.userservice.dto.UserFilter;
 import com.example.userservice.dto.UserRq;
 import com.example.userservice.dto.UserRqToUserConverter;
 import com.example.userservice.dto.UserRs;
+import com.example.userservice.dto.UserSliceRs;
 import com.example.userservice.dto.UserToUserRsConverter;
 import com.example.userservice.entity.Role;
 import com.example.userservice.entity.RoleType;
@@ -16,17 +18,29 @@ import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
+    static final int MAX_PAGE_SIZE = 100;
+    static final int STREAM_CHUNK_SIZE = 500;
+    static final int BULK_CHUNK_SIZE = 1000;
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "username", "email", "enabled");
+
     private final UserRqToUserConverter userRqToUserConverter;
     private final UserToUserRsConverter userToUserRsConverter;
     private final UserRepository userRepository;
@@ -80,11 +94,62 @@ public class UserService {
                 .orElseThrow(() -> new UserNotFoundException("User not found"));
     }
 
-    public List<UserRs> findAll() {
+    @Transactional(readOnly = true)
+    public UserSliceRs findAll(UserFilter filter, Pageable pageable) {
+
+        Pageable page = PageRequest.of(pageable.getPageNumber(), Math.min(pageable.getPageSize(), MAX_PAGE_SIZE),
+                validatedSort(pageable.getSort()));
+        Slice<Long> ids = userRepository.findIds(filter.getUsername(), filter.getEmail(), filter.getRole(),
+                filter.getEnabled(), page);
+
+        return UserSliceRs.builder()
+                .content(loadInOrder(ids.getContent()))
+                .page(page.getPageNumber())
+                .size(page.getPageSize())
+                .hasNext(ids.hasNext())
+                .build();
+    }
+
+    /**
+     * Hands every matching user, in id order, to {@code consumer}. Users are read in fixed-size
+     * chunks seeked by id, each with its own short-lived persistence context, so heap use does not
+     * depend on how many users match.
+     */
+    public void streamAll(UserFilter filter, Consumer<UserRs> consumer) {
+
+        Long afterId = 0L;
+        List<Long> ids;
+        do {
+            ids = userRepository.findIdsAfter(afterId, filter.getUsername(), filter.getEmail(), filter.getRole(),
+                    filter.getEnabled(), Limit.of(STREAM_CHUNK_SIZE));
+            loadInOrder(ids).forEach(consumer);
+            if (!ids.isEmpty()) {
+                afterId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == STREAM_CHUNK_SIZE);
+    }
 
-        List<User> users = userRepository.findAll();
+    private List<UserRs> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, User> usersById = userRepository.findAllWithRolesByIdIn(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return ids.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .map(userToUserRsConverter::convert)
+                .toList();
+    }
 
-        return users.stream().map(userToUserRsConverter::convert).toList();
+    private static Sort validatedSort(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort users by " + order.getProperty());
+            }
+        }
+        // id breaks ties so that pages are stable.
+        return sort.getOrderFor("id") == null ? sort.and(Sort.by("id")) : sort;
     }
 
     @Transactional
@@ -135,6 +200,31 @@ public class UserService {
         user.addRoleIfNotExists(role);
         userRepository.save(user);
     }
-}
 
+    /**
+     * Grants {@code roleName} to every user matching {@code filter} and returns how many users gained it.
+     * Users are seeked by id in chunks and each chunk is granted with one set-based insert.
+     */
+    public int assignRoleToUsers(UserFilter filter, String roleName) {
+
+        if (filter.getUsername() == null && filter.getEmail() == null && filter.getRole() == null
+                && filter.getEnabled() == null) {
+            throw new IllegalArgumentException("At least one filter is required");
+        }
+        Role role = roleRepository.findByName(RoleType.valueOf(roleName))
+                .orElseThrow(() -> new EntityNotFoundException("Role not found"));
 
+        int assigned = 0;
+        Long afterId = 0L;
+        List<Long> ids;
+        do {
+            ids = userRepository.findIdsAfter(afterId, filter.getUsername(), filter.getEmail(), filter.getRole(),
+                    filter.getEnabled(), Limit.of(BULK_CHUNK_SIZE));
+            if (!ids.isEmpty()) {
+                assigned += userRepository.addRoleToUsers(ids, role.getId());
+                afterId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == BULK_CHUNK_SIZE);
+        return assigned;
+    }
+}
@@ -0,0 +1,12 @@
+-- Case-insensitive email lookups compare against a pre-normalized column so they can use a plain b-tree index
+-- instead of upper(email) = upper(?), which forces a sequential scan.
+ALTER TABLE public.users
+    ADD COLUMN email_normalized VARCHAR(255);
+
+UPDATE public.users
+SET email_normalized = lower(trim(email));
+
+ALTER TABLE public.users
+    ALTER COLUMN email_normalized SET NOT NULL;
+
+CREATE UNIQUE INDEX users_email_normalized_key ON public.users (email_normalized);
@@ -0,0 +1,40 @@
+-- V1 creates confirmations and credentials without keys, while databases baselined from ddl-auto may already
+-- have them. Both get a primary key and a foreign key to users where missing. Rows that would break the keys or
+-- the one-per-user indexes below go first: orphans, and all but the newest row of each user.
+DELETE FROM public.confirmations c WHERE NOT EXISTS (SELECT 1 FROM public.users u WHERE u.id = c.user_id);
+DELETE FROM public.confirmations c USING public.confirmations newer WHERE newer.user_id = c.user_id AND newer.id > c.id;
+DELETE FROM public.credentials c WHERE NOT EXISTS (SELECT 1 FROM public.users u WHERE u.id = c.user_id);
+DELETE FROM public.credentials c USING public.credentials newer WHERE newer.user_id = c.user_id AND newer.id > c.id;
+
+DO
+$$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'public.confirmations'::regclass AND contype = 'p') THEN
+        ALTER TABLE public.confirmations ADD CONSTRAINT confirmations_pkey PRIMARY KEY (id);
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'public.confirmations'::regclass AND contype = 'f') THEN
+        ALTER TABLE public.confirmations
+            ADD CONSTRAINT confirmations_user_id_fkey FOREIGN KEY (user_id) REFERENCES public.users (id);
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'public.credentials'::regclass AND contype = 'p') THEN
+        ALTER TABLE public.credentials ADD CONSTRAINT credentials_pkey PRIMARY KEY (id);
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'public.credentials'::regclass AND contype = 'f') THEN
+        ALTER TABLE public.credentials
+            ADD CONSTRAINT credentials_user_id_fkey FOREIGN KEY (user_id) REFERENCES public.users (id);
+    END IF;
+END
+$$;
+
+-- ConfirmationRepository.findByKey
+CREATE UNIQUE INDEX IF NOT EXISTS confirmations_key_idx ON public.confirmations (key);
+-- ConfirmationRepository.findByUserEntity (one confirmation per user)
+CREATE UNIQUE INDEX IF NOT EXISTS confirmations_user_id_idx ON public.confirmations (user_id);
+-- CredentialRepository.getCredentialByUserEntityId (one credential per user)
+CREATE UNIQUE INDEX IF NOT EXISTS credentials_user_id_idx ON public.credentials (user_id);
+-- Per-user login history, newest first
+CREATE INDEX IF NOT EXISTS login_history_user_id_login_time_idx ON public.login_history (user_id, login_time DESC);
+-- RoleRepository.findByNameIgnoreCase
+CREATE INDEX IF NOT EXISTS roles_upper_name_idx ON public.roles (upper(name));
+-- Role deletes and "users in role" lookups on the join table; user_id is led by the primary key
+CREATE INDEX IF NOT EXISTS user_roles_role_id_idx ON public.user_roles (role_id);
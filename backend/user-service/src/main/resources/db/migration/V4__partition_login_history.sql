@@ -0,0 +1,53 @@
+-- login_history becomes a table range-partitioned by month on login_time. Retention is applied by detaching or
+-- dropping whole partitions (see LoginHistoryPartitionMaintainer), never by DELETE, so the append-only insert
+-- path no longer fights vacuum and index bloat.
+ALTER TABLE public.login_history RENAME TO login_history_unpartitioned;
+ALTER TABLE public.login_history_unpartitioned RENAME CONSTRAINT login_history_pkey TO login_history_unpartitioned_pkey;
+DROP INDEX IF EXISTS public.login_history_user_id_login_time_idx;
+
+CREATE TABLE public.login_history
+(
+    id           BIGINT       NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL,
+    created_by   BIGINT       NOT NULL,
+    reference_id VARCHAR(255),
+    updated_at   TIMESTAMP(6) NOT NULL,
+    updated_by   BIGINT       NOT NULL,
+    ip           VARCHAR(255),
+    login_time   TIMESTAMP(6) NOT NULL,
+    success      BOOLEAN      NOT NULL,
+    user_agent   VARCHAR(255),
+    user_id      BIGINT       NOT NULL REFERENCES public.users (id),
+    CONSTRAINT login_history_pkey PRIMARY KEY (id, login_time)
+) PARTITION BY RANGE (login_time);
+
+CREATE INDEX login_history_user_id_login_time_idx ON public.login_history (user_id, login_time DESC);
+
+-- Safety net so logins keep being recorded if the maintainer falls behind; it is expected to stay empty.
+CREATE TABLE public.login_history_default PARTITION OF public.login_history DEFAULT;
+
+-- Monthly partitions for the existing history and the next three months.
+DO
+$$
+    DECLARE
+        month_start DATE := date_trunc('month', COALESCE(
+                (SELECT min(COALESCE(login_time, created_at)) FROM public.login_history_unpartitioned), now()));
+        last_month  DATE := date_trunc('month', now()) + INTERVAL '3 months';
+    BEGIN
+        WHILE month_start <= last_month
+            LOOP
+                EXECUTE format('CREATE TABLE public.%I PARTITION OF public.login_history FOR VALUES FROM (%L) TO (%L)',
+                               'login_history_' || to_char(month_start, '"y"YYYY"m"MM'),
+                               month_start, month_start + INTERVAL '1 month');
+                month_start := month_start + INTERVAL '1 month';
+            END LOOP;
+    END
+$$;
+
+INSERT INTO public.login_history (id, created_at, created_by, reference_id, updated_at, updated_by, ip, login_time,
+                                  success, user_agent, user_id)
+SELECT id, created_at, created_by, reference_id, updated_at, updated_by, ip, COALESCE(login_time, created_at),
+       success, user_agent, user_id
+FROM public.login_history_unpartitioned;
+
+DROP TABLE public.login_history_unpartitioned;
@@ -0,0 +1,6 @@
+-- Bumped whenever a user's existing tokens must stop working (lock, role change); tokens carry the
+-- version they were issued with and are rejected once it no longer matches.
+ALTER TABLE users ADD COLUMN token_version INT NOT NULL DEFAULT 0;
+
+-- Bulk admin selections filter on these.
+CREATE INDEX users_created_at_idx ON users (created_at);
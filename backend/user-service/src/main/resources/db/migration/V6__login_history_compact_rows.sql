@@ -0,0 +1,39 @@
+-- login_history repeated the same few hundred user agent strings in every row and kept IPs as text.
+-- User agents move to a dictionary referenced by a 4-byte id, and IPs become inet (7 bytes for IPv4).
+CREATE TABLE public.user_agents
+(
+    id         INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_agent VARCHAR(255) NOT NULL,
+    CONSTRAINT user_agents_user_agent_key UNIQUE (user_agent)
+);
+
+INSERT INTO public.user_agents (user_agent)
+SELECT DISTINCT user_agent
+FROM public.login_history
+WHERE user_agent IS NOT NULL;
+
+ALTER TABLE public.login_history
+    ADD COLUMN user_agent_id INTEGER REFERENCES public.user_agents (id);
+
+UPDATE public.login_history l
+SET user_agent_id = ua.id
+FROM public.user_agents ua
+WHERE ua.user_agent = l.user_agent;
+
+ALTER TABLE public.login_history
+    DROP COLUMN user_agent;
+
+-- Addresses that do not parse (e.g. forwarded-for garbage) are dropped rather than failing the migration.
+CREATE FUNCTION pg_temp.to_inet(value TEXT) RETURNS inet
+    LANGUAGE plpgsql
+    IMMUTABLE AS
+$$
+BEGIN
+    RETURN value::inet;
+EXCEPTION
+    WHEN others THEN RETURN NULL;
+END
+$$;
+
+ALTER TABLE public.login_history
+    ALTER COLUMN ip TYPE inet USING pg_temp.to_inet(ip);
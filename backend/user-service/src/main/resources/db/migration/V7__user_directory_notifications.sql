@@ -0,0 +1,75 @@
+-- Every change to what a user read returns (the user row, its role link or its credential) gives the user a new
+-- directory_version and sends its id on the user_directory channel. In-memory directories apply the
+-- notifications as they arrive and, after a reconnect, reload the users whose version they have not seen.
+CREATE SEQUENCE public.user_directory_version_seq;
+
+ALTER TABLE public.users
+    ADD COLUMN directory_version BIGINT NOT NULL DEFAULT nextval('public.user_directory_version_seq');
+
+CREATE FUNCTION public.users_directory_changed() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM pg_notify('user_directory', OLD.id::text);
+        RETURN OLD;
+    END IF;
+    NEW.directory_version := nextval('public.user_directory_version_seq');
+    PERFORM pg_notify('user_directory', NEW.id::text);
+    RETURN NEW;
+END
+$$;
+
+CREATE TRIGGER users_directory_changed
+    BEFORE INSERT OR UPDATE OR DELETE
+    ON public.users
+    FOR EACH ROW
+EXECUTE FUNCTION public.users_directory_changed();
+
+-- Touching the user row re-runs the trigger above, which assigns the version and notifies.
+CREATE FUNCTION public.user_dependent_directory_changed() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        UPDATE public.users SET directory_version = 0 WHERE id = OLD.user_id;
+    ELSE
+        UPDATE public.users SET directory_version = 0 WHERE id = NEW.user_id;
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+-- Role links and credentials are inserted in the same transaction as their user, whose own insert already
+-- notifies, so only later updates and deletes need to touch the user row.
+CREATE TRIGGER user_roles_directory_changed
+    AFTER UPDATE OR DELETE
+    ON public.user_roles
+    FOR EACH ROW
+EXECUTE FUNCTION public.user_dependent_directory_changed();
+
+CREATE TRIGGER credentials_directory_changed
+    AFTER UPDATE OR DELETE
+    ON public.credentials
+    FOR EACH ROW
+EXECUTE FUNCTION public.user_dependent_directory_changed();
+
+-- A role's name or authorities change for every user holding it.
+CREATE FUNCTION public.roles_directory_changed() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    UPDATE public.users u
+    SET directory_version = 0
+    FROM public.user_roles ur
+    WHERE ur.user_id = u.id
+      AND ur.role_id = NEW.id;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER roles_directory_changed
+    AFTER UPDATE OF name, authorities
+    ON public.roles
+    FOR EACH ROW
+EXECUTE FUNCTION public.roles_directory_changed();
@@ -0,0 +1,5 @@
+-- Granting ADMIN or SUPER_ADMIN, or changing the role of users holding them, now takes user:role, which only
+-- SUPER_ADMIN has. Roles store their authorities as the full list, so existing SUPER_ADMIN rows are rewritten.
+UPDATE roles
+SET authorities = 'user:create,user:read,user:update,user:unlock,user:role,user:delete,document:create,document:read,document:update,document:delete'
+WHERE authorities = 'user:create,user:read,user:update,user:unlock,user:delete,document:create,document:read,document:update,document:delete';
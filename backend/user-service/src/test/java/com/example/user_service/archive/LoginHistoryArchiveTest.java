@@ -0,0 +1,182 @@
+package com.example.user_service.archive;
+
+import com.example.user_service.datasource.AdvisoryLock;
+import com.example.user_service.dto.LoginHistory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Archives partitions created in H2 (PostgreSQL mode) into a temporary directory and searches them.
+ */
+class LoginHistoryArchiveTest {
+
+    private static final LocalDateTime JANUARY = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final LocalDateTime FEBRUARY = LocalDateTime.of(2026, 2, 1, 0, 0);
+
+    @TempDir
+    private Path directory;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private LoginHistoryArchiveProperties properties;
+    private AdvisoryLock lock;
+    private LoginHistoryArchive archive;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:archive-" + System.nanoTime() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.execute("CREATE TABLE user_agents (id INTEGER PRIMARY KEY, user_agent VARCHAR(255) NOT NULL)");
+        jdbcTemplate.update("INSERT INTO user_agents VALUES (1, 'Firefox'), (2, 'Chrome')");
+        createPartition("login_history_y2026m01", JANUARY, 0);
+        createPartition("login_history_y2026m02", FEBRUARY, 1000);
+        properties = new LoginHistoryArchiveProperties();
+        properties.setDirectory(directory);
+        properties.setScanThreads(2);
+        lock = mock(AdvisoryLock.class);
+        when(lock.callIfFree(eq(LoginHistoryArchive.LOCK_KEY), any())).thenAnswer(invocation ->
+                Optional.of(invocation.<Supplier<?>>getArgument(1).get()));
+        archive = start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        archive.stop();
+    }
+
+    @Test
+    void archivedRowsRoundTripWithAllColumns() throws Exception {
+        assertEquals(100, archive.archive("login_history_y2026m01", YearMonth.of(2026, 1)));
+
+        List<LoginHistory> logins = archive.search(new ArchiveQuery(3L, null, null));
+
+        assertEquals(10, logins.size());
+        LoginHistory newest = logins.get(0);
+        assertEquals(93L, newest.getId());
+        assertEquals(3L, newest.getUserId());
+        assertEquals(JANUARY.plusHours(93).plusNanos(123_000), newest.getLoginTime());
+        assertEquals("10.0.0.93", newest.getIp());
+        assertEquals("Chrome", newest.getUserAgent());
+        assertTrue(newest.isSuccess());
+        assertFalse(logins.get(1).isSuccess());
+        assertEquals("Firefox", archive.search(new ArchiveQuery(4L, null, null)).get(0).getUserAgent());
+        LoginHistory oldest = logins.get(9);
+        assertEquals(3L, oldest.getId());
+        assertNull(oldest.getUserAgent());
+        List<Long> withoutIp = archive.search(new ArchiveQuery(0L, null, null)).stream()
+                .filter(login -> login.getIp() == null).map(LoginHistory::getId).toList();
+        assertEquals(List.of(50L), withoutIp);
+    }
+
+    @Test
+    void indexPrunesMonthsAndSurvivesARestart() throws Exception {
+        archive.archive("login_history_y2026m01", YearMonth.of(2026, 1));
+        archive.archive("login_history_y2026m02", YearMonth.of(2026, 2));
+        // A file outside the requested range is never opened, so a corrupt one does not break the search.
+        Files.write(directory.resolve("login_history_y2026m01" + ArchiveFile.EXTENSION), new byte[]{1, 2, 3});
+        archive.stop();
+        archive = start();
+
+        assertEquals(2, archive.getSegments().size());
+        List<LoginHistory> logins = archive.search(new ArchiveQuery(null, FEBRUARY, FEBRUARY.plusHours(5)));
+
+        assertEquals(List.of(1004L, 1003L, 1002L, 1001L, 1000L), logins.stream().map(LoginHistory::getId).toList());
+    }
+
+    @Test
+    void searchSpanningMonthsMergesNewestFirstUpToTheLimit() throws Exception {
+        archive.archive("login_history_y2026m01", YearMonth.of(2026, 1));
+        archive.archive("login_history_y2026m02", YearMonth.of(2026, 2));
+        properties.setMaxResults(15);
+
+        List<LoginHistory> logins = archive.search(new ArchiveQuery(7L, null, null));
+
+        assertEquals(15, logins.size());
+        assertEquals(1097L, logins.get(0).getId());
+        assertEquals(97L, logins.get(10).getId());
+    }
+
+    @Test
+    void olderMonthsAreNotReadOnceNewerOnesFillTheLimit() throws Exception {
+        archive.archive("login_history_y2026m01", YearMonth.of(2026, 1));
+        archive.archive("login_history_y2026m02", YearMonth.of(2026, 2));
+        Files.write(directory.resolve("login_history_y2026m01" + ArchiveFile.EXTENSION), new byte[]{1, 2, 3});
+        properties.setMaxResults(3);
+
+        List<LoginHistory> logins = archive.search(new ArchiveQuery(7L, null, FEBRUARY.plusDays(30)));
+
+        assertEquals(List.of(1097L, 1087L, 1077L), logins.stream().map(LoginHistory::getId).toList());
+    }
+
+    @Test
+    void monthsArchivedByAnotherInstanceAreSearchableWithoutARestart() throws Exception {
+        LoginHistoryArchive other = start();
+        try {
+            other.archive("login_history_y2026m01", YearMonth.of(2026, 1));
+            assertEquals(10, archive.search(new ArchiveQuery(3L, null, null)).size());
+
+            // Archiving here starts from the index the other instance wrote instead of overwriting it.
+            archive.archive("login_history_y2026m02", YearMonth.of(2026, 2));
+            assertEquals(20, other.search(new ArchiveQuery(3L, null, null)).size());
+            assertEquals(2, other.getSegments().size());
+        } finally {
+            other.stop();
+        }
+    }
+
+    @Test
+    void archivingFailsWhileAnotherInstanceHoldsTheLock() {
+        reset(lock);
+        when(lock.callIfFree(anyLong(), any())).thenReturn(Optional.empty());
+
+        assertThrows(IOException.class, () -> archive.archive("login_history_y2026m01", YearMonth.of(2026, 1)));
+        assertFalse(Files.exists(directory.resolve(LoginHistoryArchive.INDEX_FILE)));
+    }
+
+    @Test
+    void emptyPartitionWritesNoFile() throws Exception {
+        jdbcTemplate.execute("DELETE FROM login_history_y2026m01");
+
+        assertEquals(0, archive.archive("login_history_y2026m01", YearMonth.of(2026, 1)));
+        assertTrue(archive.getSegments().isEmpty());
+        assertFalse(Files.exists(directory.resolve(LoginHistoryArchive.INDEX_FILE)));
+    }
+
+    private LoginHistoryArchive start() throws Exception {
+        LoginHistoryArchive started = new LoginHistoryArchive(jdbcTemplate, transactionTemplate, properties, lock);
+        started.start();
+        return started;
+    }
+
+    private void createPartition(String table, LocalDateTime start, long firstId) {
+        jdbcTemplate.execute("CREATE TABLE " + table + " (id BIGINT PRIMARY KEY, user_id BIGINT NOT NULL, "
+                + "login_time TIMESTAMP NOT NULL, ip VARCHAR(45), user_agent_id INTEGER, success BOOLEAN NOT NULL)");
+        for (int i = 0; i < 100; i++) {
+            jdbcTemplate.update("INSERT INTO " + table + " VALUES (?, ?, ?, ?, ?, ?)", firstId + i, (long) i % 10,
+                    start.plusHours(i).plusNanos(123_000), i == 50 ? null : "10.0.0." + i, i < 10 ? null : i % 2 + 1, i % 3 == 0);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.user_service.async;
+
+import com.example.user_service.domain.RequestContext;
+import com.example.user_service.exception.ExceptionHandlerAdvice;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Runs {@link AsyncRequests} handlers through the configured pool: one thread and no queue, so a second request
+ * while the first is blocked is rejected. MockMvc does not dispatch a rejected request, so the 503 mapping is
+ * checked separately. Plain {@code Callable} handlers, as streaming responses become, use the stream pool.
+ */
+@SpringJUnitWebConfig(AsyncRequestConfigTest.Config.class)
+@TestPropertySource(properties = {"async-requests.threads=1", "async-requests.queue-capacity=0", "async-requests.timeout=5s"})
+class AsyncRequestConfigTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private TestController controller;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        controller.started = new CountDownLatch(1);
+        controller.release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        controller.release.countDown();
+        RequestContext.setUserId(null);
+    }
+
+    @Test
+    void handlersRunOnThePoolWithTheCallersUserId() throws Exception {
+        RequestContext.setUserId(42L);
+        MvcResult result = mockMvc.perform(get("/user-id")).andExpect(request().asyncStarted()).andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("async-request-1 42"));
+    }
+
+    @Test
+    void requestsBeyondThePoolAreRejected() throws Exception {
+        MvcResult blocked = mockMvc.perform(get("/blocking")).andExpect(request().asyncStarted()).andReturn();
+        controller.started.await(5, TimeUnit.SECONDS);
+        MvcResult rejected = mockMvc.perform(get("/blocking")).andExpect(request().asyncStarted()).andReturn();
+
+        assertInstanceOf(TaskRejectedException.class,
+                WebAsyncUtils.getAsyncManager(rejected.getRequest()).getConcurrentResult());
+        controller.release.countDown();
+        mockMvc.perform(asyncDispatch(blocked)).andExpect(status().isOk());
+    }
+
+    @Test
+    void streamsRunOnTheirOwnPoolWhileTheAuthPoolIsFull() throws Exception {
+        MvcResult blocked = mockMvc.perform(get("/blocking")).andExpect(request().asyncStarted()).andReturn();
+        controller.started.await(5, TimeUnit.SECONDS);
+        MvcResult stream = mockMvc.perform(get("/stream")).andExpect(request().asyncStarted()).andReturn();
+
+        mockMvc.perform(asyncDispatch(stream))
+                .andExpect(status().isOk())
+                .andExpect(content().string("async-stream-1"));
+        controller.release.countDown();
+        mockMvc.perform(asyncDispatch(blocked)).andExpect(status().isOk());
+    }
+
+    @Test
+    void rejectionIsAnswered503() throws Exception {
+        mockMvc.perform(get("/rejected"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message").value("Service is busy, please retry"));
+    }
+
+    @Configuration
+    @EnableWebMvc
+    @Import({AsyncRequestConfig.class, ExceptionHandlerAdvice.class, TestController.class})
+    static class Config {
+    }
+
+    @RestController
+    static class TestController {
+
+        @Autowired
+        private AsyncRequests asyncRequests;
+        private volatile CountDownLatch started;
+        private volatile CountDownLatch release;
+
+        @GetMapping("/user-id")
+        WebAsyncTask<String> userId() {
+            return asyncRequests.run(() -> Thread.currentThread().getName() + " " + RequestContext.getUserId());
+        }
+
+        @GetMapping("/blocking")
+        WebAsyncTask<String> blocking() {
+            return asyncRequests.run(() -> {
+                started.countDown();
+                return String.valueOf(release.await(5, TimeUnit.SECONDS));
+            });
+        }
+
+        @GetMapping("/stream")
+        Callable<String> stream() {
+            return () -> Thread.currentThread().getName();
+        }
+
+        @GetMapping("/rejected")
+        String rejected() {
+            throw new TaskRejectedException("Executor is full");
+        }
+    }
+}
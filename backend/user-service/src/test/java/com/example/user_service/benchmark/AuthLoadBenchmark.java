@@ -0,0 +1,93 @@
+package com.example.user_service.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives {@code POST /api/v1/user/refresh} from many clients while a single client keeps probing a cheap
+ * endpoint, and prints refresh throughput, latency percentiles and status codes next to the probe latency.
+ * Run it against the servlet stack with different {@code async-requests} and {@code cache.single-flight-max-loads}
+ * settings, with the database slowed down (for example through a latency proxy), to compare how each keeps answering
+ * the probe:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.user_service.benchmark.AuthLoadBenchmark \
+ *     -Dexec.args="http://localhost:8080 &lt;refresh-token&gt; 400 30 /user/error"
+ * </pre>
+ */
+public class AuthLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        String refreshToken = args.length > 1 ? args[1] : "";
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 400;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        String probePath = args.length > 4 ? args[4] : "/user/error";
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        HttpRequest refresh = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/user/refresh"))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .header("Cookie", "refresh-token=" + refreshToken)
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        HttpRequest probe = HttpRequest.newBuilder(URI.create(baseUrl + probePath)).timeout(Duration.ofSeconds(30)).build();
+
+        List<Long> refreshLatencies = Collections.synchronizedList(new ArrayList<>());
+        List<Long> probeLatencies = Collections.synchronizedList(new ArrayList<>());
+        Map<Integer, AtomicInteger> statuses = new ConcurrentHashMap<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients + 1);
+        for (int i = 0; i < clients; i++) {
+            pool.execute(() -> run(client, refresh, deadline, refreshLatencies, statuses));
+        }
+        pool.execute(() -> run(client, probe, deadline, probeLatencies, new ConcurrentHashMap<>()));
+        pool.shutdown();
+        pool.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+
+        System.out.printf("refresh: %d requests, %.1f/s, %s, statuses %s%n", refreshLatencies.size(),
+                refreshLatencies.size() / (double) seconds, percentiles(refreshLatencies), statuses);
+        System.out.printf("probe:   %d requests, %s%n", probeLatencies.size(), percentiles(probeLatencies));
+    }
+
+    private static void run(HttpClient client, HttpRequest request, long deadline, List<Long> latencies,
+                            Map<Integer, AtomicInteger> statuses) {
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (Exception exception) {
+                status = -1;
+            }
+            latencies.add(System.nanoTime() - start);
+            statuses.computeIfAbsent(status, key -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    private static String percentiles(List<Long> latencies) {
+        if (latencies.isEmpty()) {
+            return "no samples";
+        }
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return String.format("p50 %.1f ms, p99 %.1f ms, max %.1f ms", millis(sorted, 0.50), millis(sorted, 0.99),
+                sorted.get(sorted.size() - 1) / 1e6);
+    }
+
+    private static double millis(List<Long> sorted, double quantile) {
+        return sorted.get((int) Math.min(sorted.size() - 1, Math.floor(quantile * sorted.size()))) / 1e6;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.user_service.benchmark;
+
+import com.example.user_service.cache.CacheSpec;
+import com.example.user_service.cache.CacheStore;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the Caffeine {@link CacheStore} with the previous Guava store on reads, writes and atomic increments over a
+ * key space larger than the bound, with a skewed key distribution like login traffic. Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.user_service.benchmark.CacheStoreBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheStoreBenchmark {
+
+    private static final int KEYS = 1 << 16;
+    private static final long MAXIMUM_SIZE = KEYS / 4;
+
+    @Param({"caffeine", "guava"})
+    private String backend;
+
+    private CacheStore<String, Integer> store;
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+        CacheSpec spec = CacheSpec.of(Duration.ofMinutes(15), MAXIMUM_SIZE);
+        store = "guava".equals(backend) ? new GuavaCacheStore<>(spec) : CacheStore.of(spec);
+        keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "user" + i + "@example.com";
+            store.put(keys[i], i);
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Integer get() {
+        return store.get(nextKey());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void put() {
+        store.put(nextKey(), 1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int increment() {
+        return store.increment(nextKey(), 1);
+    }
+
+    /**
+     * Squaring a uniform draw skews the keys towards the low indexes, so a small set of keys is hot.
+     */
+    private String nextKey() {
+        double uniform = ThreadLocalRandom.current().nextDouble();
+        return keys[(int) (uniform * uniform * KEYS)];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CacheStoreBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
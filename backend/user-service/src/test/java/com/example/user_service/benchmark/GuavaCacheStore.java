@@ -0,0 +1,72 @@
+package com.example.user_service.benchmark;
+
+import com.example.user_service.cache.CacheSpec;
+import com.example.user_service.cache.CacheStore;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * The previous Guava-based store, kept only as a baseline for {@link CacheStoreBenchmark}. Guava has no per-entry
+ * expiry, so {@link #put(Object, Object, Duration)} is not supported.
+ */
+class GuavaCacheStore<K, V> implements CacheStore<K, V> {
+
+    private final Cache<K, V> cache;
+
+    GuavaCacheStore(CacheSpec spec) {
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+                .concurrencyLevel(Runtime.getRuntime().availableProcessors());
+        if (spec.getTtl() != null) {
+            builder.expireAfterWrite(spec.getTtl());
+        }
+        if (spec.getMaximumSize() != null) {
+            builder.maximumSize(spec.getMaximumSize());
+        }
+        this.cache = builder.build();
+    }
+
+    @Override
+    public V get(@NonNull K key) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    public Map<K, V> getAll(@NonNull Iterable<? extends K> keys) {
+        return cache.getAllPresent(keys);
+    }
+
+    @Override
+    public void put(@NonNull K key, @NonNull V value) {
+        cache.put(key, value);
+    }
+
+    @Override
+    public void put(@NonNull K key, @NonNull V value, @NonNull Duration ttl) {
+        throw new UnsupportedOperationException("The Guava cache backend has no per-entry expiry");
+    }
+
+    @Override
+    public void putAll(@NonNull Map<? extends K, ? extends V> entries) {
+        cache.putAll(entries);
+    }
+
+    @Override
+    public V compute(@NonNull K key, @NonNull BiFunction<? super K, ? super V, ? extends V> remapping) {
+        return cache.asMap().compute(key, remapping);
+    }
+
+    @Override
+    public void evict(@NonNull K key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+}
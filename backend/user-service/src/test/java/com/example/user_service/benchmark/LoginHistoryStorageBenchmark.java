@@ -0,0 +1,118 @@
+package com.example.user_service.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Loads the same synthetic login history into the old row layout (text IP, inline user agent) and the compact one
+ * (inet IP, user agent dictionary id) and prints the size of both tables with their indexes. Needs a PostgreSQL
+ * database it may create tables in; run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.user_service.benchmark.LoginHistoryStorageBenchmark \
+ *     -Dexec.args="jdbc:postgresql://localhost:5432/user_service postgres postgres 1000000"
+ * </pre>
+ */
+public class LoginHistoryStorageBenchmark {
+
+    private static final int USER_AGENTS = 300;
+    private static final int BATCH_SIZE = 5_000;
+
+    public static void main(String[] args) throws SQLException {
+        String url = args.length > 0 ? args[0] : "jdbc:postgresql://localhost:5432/user_service";
+        String username = args.length > 1 ? args[1] : "postgres";
+        String password = args.length > 2 ? args[2] : "postgres";
+        int rows = args.length > 3 ? Integer.parseInt(args[3]) : 1_000_000;
+
+        try (Connection connection = DriverManager.getConnection(url, username, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_login_wide, bench_login_compact, bench_user_agents");
+            statement.execute("""
+                    CREATE TABLE bench_login_wide (id BIGSERIAL PRIMARY KEY, user_id BIGINT NOT NULL,
+                        login_time TIMESTAMP NOT NULL, ip VARCHAR(45), user_agent VARCHAR(255), success BOOLEAN NOT NULL)
+                    """);
+            statement.execute("""
+                    CREATE TABLE bench_user_agents (id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                        user_agent VARCHAR(255) NOT NULL UNIQUE)
+                    """);
+            statement.execute("""
+                    CREATE TABLE bench_login_compact (id BIGSERIAL PRIMARY KEY, user_id BIGINT NOT NULL,
+                        login_time TIMESTAMP NOT NULL, ip INET, user_agent_id INTEGER REFERENCES bench_user_agents (id),
+                        success BOOLEAN NOT NULL)
+                    """);
+            statement.execute("CREATE INDEX ON bench_login_wide (user_id, login_time)");
+            statement.execute("CREATE INDEX ON bench_login_compact (user_id, login_time)");
+            String[] userAgents = new String[USER_AGENTS];
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO bench_user_agents (id, user_agent) VALUES (?, ?)")) {
+                for (int i = 0; i < USER_AGENTS; i++) {
+                    userAgents[i] = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/"
+                            + (100 + i) + ".0.0.0 Safari/537.36";
+                    insert.setInt(1, i + 1);
+                    insert.setString(2, userAgents[i]);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+
+            connection.setAutoCommit(false);
+            try (PreparedStatement wide = connection.prepareStatement(
+                    "INSERT INTO bench_login_wide (user_id, login_time, ip, user_agent, success) VALUES (?, ?, ?, ?, ?)");
+                 PreparedStatement compact = connection.prepareStatement(
+                         "INSERT INTO bench_login_compact (user_id, login_time, ip, user_agent_id, success) VALUES (?, ?, ?::inet, ?, ?)")) {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                LocalDateTime start = LocalDateTime.now().minusYears(1);
+                for (int i = 0; i < rows; i++) {
+                    long userId = random.nextLong(1, 100_000);
+                    Timestamp loginTime = Timestamp.valueOf(start.plusSeconds(i * 30L));
+                    String ip = random.nextInt(1, 224) + "." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(1, 255);
+                    int userAgent = random.nextInt(USER_AGENTS);
+                    boolean success = random.nextInt(10) != 0;
+                    wide.setLong(1, userId);
+                    wide.setTimestamp(2, loginTime);
+                    wide.setString(3, ip);
+                    wide.setString(4, userAgents[userAgent]);
+                    wide.setBoolean(5, success);
+                    wide.addBatch();
+                    compact.setLong(1, userId);
+                    compact.setTimestamp(2, loginTime);
+                    compact.setString(3, ip);
+                    compact.setInt(4, userAgent + 1);
+                    compact.setBoolean(5, success);
+                    compact.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        wide.executeBatch();
+                        compact.executeBatch();
+                        connection.commit();
+                    }
+                }
+                wide.executeBatch();
+                compact.executeBatch();
+                connection.commit();
+            }
+            connection.setAutoCommit(true);
+            statement.execute("VACUUM ANALYZE bench_login_wide");
+            statement.execute("VACUUM ANALYZE bench_login_compact");
+
+            long wideSize = totalSize(statement, "bench_login_wide");
+            long compactSize = totalSize(statement, "bench_login_compact") + totalSize(statement, "bench_user_agents");
+            System.out.printf("%,d rows%n", rows);
+            System.out.printf("text ip + inline user agent: %,d bytes (%.1f bytes/row)%n", wideSize, (double) wideSize / rows);
+            System.out.printf("inet ip + user agent id:     %,d bytes (%.1f bytes/row)%n", compactSize, (double) compactSize / rows);
+            System.out.printf("saved %.1f%%%n", 100.0 * (wideSize - compactSize) / wideSize);
+            statement.execute("DROP TABLE bench_login_wide, bench_login_compact, bench_user_agents");
+        }
+    }
+
+    private static long totalSize(Statement statement, String table) throws SQLException {
+        try (var result = statement.executeQuery("SELECT pg_total_relation_size('" + table + "')")) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+}
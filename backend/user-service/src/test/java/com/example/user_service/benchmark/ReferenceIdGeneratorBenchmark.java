@@ -0,0 +1,50 @@
+package com.example.user_service.benchmark;
+
+import com.example.user_service.utils.ReferenceIdGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.util.AlternativeJdkIdGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old per-entity {@link AlternativeJdkIdGenerator} initializer with the shared
+ * {@link ReferenceIdGenerator}. Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.user_service.benchmark.ReferenceIdGeneratorBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReferenceIdGeneratorBenchmark {
+
+    @Benchmark
+    public UUID newAlternativeJdkIdGeneratorPerEntity() {
+        return new AlternativeJdkIdGenerator().generateId();
+    }
+
+    @Benchmark
+    public UUID sharedTimeOrderedGenerator() {
+        return ReferenceIdGenerator.generateId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public UUID sharedTimeOrderedGeneratorContended() {
+        return ReferenceIdGenerator.generateId();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ReferenceIdGeneratorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
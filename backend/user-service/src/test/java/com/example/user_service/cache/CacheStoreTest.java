@@ -0,0 +1,94 @@
+package com.example.user_service.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheStoreTest {
+
+    @Test
+    void concurrentIncrementsAreNotLost() throws Exception {
+        CacheStore<String, Integer> store = CacheStore.of(spec(Duration.ofMinutes(1)));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8_000; i++) {
+            executor.execute(() -> store.increment("user@example.com", 1));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(8_000, store.get("user@example.com"));
+    }
+
+    @Test
+    void configuredStoresAcceptAMaximumWeight() {
+        CacheSpec spec = spec(Duration.ofMinutes(1));
+        spec.setMaximumWeight(1_000_000L);
+        CacheProperties properties = new CacheProperties();
+        properties.getStores().put(CacheConfig.USER_LOGIN, spec);
+        properties.getStores().put(CacheConfig.USER_PROFILE, spec);
+        CacheConfig config = new CacheConfig();
+
+        CacheStore<String, Integer> logins = config.cacheStore(properties);
+        logins.increment("user@example.com", 1);
+
+        assertEquals(1, logins.get("user@example.com"));
+        assertNotNull(config.userProfileCache(properties, new StaticListableBeanFactory().getBeanProvider(RedisProfileTier.class)));
+    }
+
+    @Test
+    void bulkOperationsAndComputeRemoval() {
+        CacheStore<String, Integer> store = CacheStore.of(spec(Duration.ofMinutes(1)));
+        store.putAll(Map.of("a", 1, "b", 2));
+
+        assertEquals(Map.of("a", 1, "b", 2), store.getAll(List.of("a", "b", "c")));
+        assertNull(store.compute("a", (key, value) -> null));
+        assertNull(store.get("a"));
+        store.evict("b");
+        assertTrue(store.getAll(List.of("a", "b")).isEmpty());
+    }
+
+    @Test
+    void entryWithItsOwnTtlExpiresBeforeTheOthers() throws Exception {
+        CacheStore<String, Integer> store = CacheStore.of(spec(Duration.ofMinutes(1)));
+        store.put("short", 1, Duration.ofMillis(50));
+        store.put("default", 2);
+
+        Thread.sleep(200);
+
+        assertNull(store.get("short"));
+        assertEquals(2, store.get("default"));
+    }
+
+    @Test
+    void weightBoundNeedsAWeigher() {
+        CacheSpec spec = spec(null);
+        spec.setMaximumWeight(1_000L);
+
+        assertThrows(IllegalArgumentException.class, () -> CacheStore.of(spec));
+        assertNotNull(CacheStore.<String, String>of(spec, (key, value) -> key.length() + value.length()));
+    }
+
+    @Test
+    void configuredStoreKeepsTheDefaultTtlWhenItSetsNone() {
+        CacheProperties properties = new CacheProperties();
+        CacheSpec configured = new CacheSpec();
+        configured.setMaximumSize(10L);
+        properties.setStores(Map.of(CacheConfig.USER_LOGIN, configured));
+        CacheSpec defaults = CacheSpec.of(Duration.ofMinutes(15), 100L);
+
+        assertSame(defaults, properties.getStore("other", defaults));
+        assertEquals(Duration.ofMinutes(15), properties.getStore(CacheConfig.USER_LOGIN, defaults).getTtl());
+    }
+
+    private static CacheSpec spec(Duration ttl) {
+        return CacheSpec.of(ttl, 1_000L);
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.user_service.cache;
+
+import com.example.user_service.dto.UserView;
+import com.example.user_service.enumeration.Authority;
+import com.example.user_service.event.UserChangedEvent;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.github.fppt.jedismock.RedisServer;
+import io.lettuce.core.RedisClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two cache instances, as on two pods, sharing an in-process Redis stand-in.
+ */
+class RedisProfileTierTest {
+
+    private RedisServer server;
+    private RedisCacheProperties properties;
+    private final List<RedisClient> clients = new ArrayList<>();
+    private final List<RedisProfileTier> tiers = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = RedisServer.newRedisServer().start();
+        properties = new RedisCacheProperties();
+        properties.setHost(server.getHost());
+        properties.setPort(server.getBindPort());
+        // Generous, so a busy build machine does not turn a slow connect into a test failure.
+        properties.setTimeout(Duration.ofSeconds(2));
+        properties.setReconnectInterval(Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        tiers.forEach(RedisProfileTier::close);
+        clients.forEach(RedisClient::shutdown);
+        if (server.isRunning()) {
+            server.stop();
+        }
+    }
+
+    @Test
+    void profileLoadedOnOneInstanceIsServedToTheOtherUntilEitherChangesIt() throws Exception {
+        UserProfileCache first = newInstance();
+        UserProfileCache second = newInstance();
+
+        assertEquals("John", load(first).firstName());
+        // Profiles are shared without waiting for Redis to confirm.
+        await(() -> tiers.get(0).get("user-7").view() != null);
+        assertEquals("John", load(second).firstName());
+        assertEquals(1, loads.get());
+        assertEquals(1, second.getStats().sharedHits());
+
+        second.onUserChanged(new UserChangedEvent(7L, "user-7"));
+        await(() -> first.getStats().evictions() == 1);
+        load(first);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void changeKnownOnlyByIdIsResolvedThroughTheSharedAlias() throws Exception {
+        UserProfileCache first = newInstance();
+        UserProfileCache second = newInstance();
+        load(first);
+        await(() -> tiers.get(0).findUserId(7L) != null);
+
+        second.onUserChanged(new UserChangedEvent(7L, null));
+        await(() -> first.getStats().evictions() == 1);
+        load(second);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void loadThatReadTheDatabaseBeforeAChangeIsNotCachedAnywhere() throws Exception {
+        UserProfileCache first = newInstance();
+        UserProfileCache second = newInstance();
+
+        // The change commits and is announced while the first instance is still loading the old row.
+        Optional<UserView> stale = first.get("user-7", userId -> {
+            Optional<UserView> loaded = Optional.of(view(userId, "John"));
+            second.onUserChanged(new UserChangedEvent(7L, userId));
+            return loaded;
+        });
+
+        assertEquals("John", stale.orElseThrow().firstName());
+        assertEquals("Jane", second.get("user-7", this::loadJane).orElseThrow().firstName());
+        await(() -> "Jane".equals(first.get("user-7", this::loadJane).orElseThrow().firstName()));
+    }
+
+    @Test
+    void unreachableRedisFallsBackToTheInstanceCache() throws Exception {
+        UserProfileCache cache = newInstance();
+        server.stop();
+
+        load(cache);
+        load(cache);
+        cache.onUserChanged(new UserChangedEvent(7L, "user-7"));
+        load(cache);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getStats().hits());
+        assertEquals(1, cache.getStats().evictions());
+    }
+
+    @Test
+    void instanceStartedWhileRedisIsDownCachesOnItsOwnAndJoinsOnceRedisIsBack() throws Exception {
+        server.stop();
+        UserProfileCache first = newInstance();
+
+        load(first);
+        load(first);
+        assertEquals(1, loads.get());
+
+        server = RedisServer.newRedisServer(properties.getPort()).start();
+        await(() -> tiers.get(0).get("user-7") != null);
+        // The first load after the subscription came up misses, since missed changes drop the instance cache.
+        await(() -> {
+            load(first);
+            return tiers.get(0).get("user-7").view() != null;
+        });
+        UserProfileCache second = newInstance();
+        int loaded = loads.get();
+
+        load(second);
+        assertEquals(loaded, loads.get());
+        assertEquals(1, second.getStats().sharedHits());
+    }
+
+    private UserProfileCache newInstance() {
+        RedisClient client = new RedisCacheConfig().redisClient(properties);
+        clients.add(client);
+        RedisProfileTier tier = new RedisProfileTier(client, JsonMapper.builder().findAndAddModules().build(), properties);
+        tiers.add(tier);
+        return new UserProfileCache(CacheSpec.of(Duration.ofMinutes(5), 100L), tier);
+    }
+
+    private UserView load(UserProfileCache cache) {
+        return cache.get("user-7", userId -> {
+            loads.incrementAndGet();
+            return Optional.of(view(userId, "John"));
+        }).orElseThrow();
+    }
+
+    private Optional<UserView> loadJane(String userId) {
+        loads.incrementAndGet();
+        return Optional.of(view(userId, "Jane"));
+    }
+
+    private static UserView view(String userId, String firstName) {
+        LocalDateTime now = LocalDateTime.now();
+        return new UserView(7L, 1L, 1L, userId, firstName, "Doe", "john@example.com", "", "", "",
+                LocalDate.now(), now, now, Authority.USER.name(), Authority.USER, true, true, true, false, 0, now);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5s");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.user_service.cache;
+
+import com.example.user_service.entity.RoleEntity;
+import com.example.user_service.enumeration.Authority;
+import com.example.user_service.repository.RoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoleRegistryTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @InjectMocks
+    private RoleRegistry roleRegistry;
+
+    private RoleEntity userRole;
+    private RoleEntity adminRole;
+
+    @BeforeEach
+    void setUp() {
+        userRole = role(2L, "USER", Authority.USER);
+        adminRole = role(1L, "ADMIN", Authority.ADMIN);
+    }
+
+    @Test
+    void rolesAreLoadedOnceAndResolvedByNameAndId() {
+        when(roleRepository.findAll()).thenReturn(List.of(userRole, adminRole));
+
+        assertSame(userRole, roleRegistry.findByName("user").orElseThrow());
+        assertSame(adminRole, roleRegistry.findByName("ADMIN").orElseThrow());
+        assertSame(adminRole, roleRegistry.findById(1L).orElseThrow());
+        assertTrue(roleRegistry.findByName("MANAGER").isEmpty());
+
+        verify(roleRepository, times(1)).findAll();
+    }
+
+    @Test
+    void authoritiesAreInternedPerRole() {
+        when(roleRepository.findAll()).thenReturn(List.of(userRole));
+
+        List<GrantedAuthority> first = roleRegistry.getAuthorities("USER");
+        List<GrantedAuthority> second = roleRegistry.getTokenAuthorities("USER", Authority.USER.getValue());
+
+        assertSame(first, second);
+        assertTrue(first.contains(new SimpleGrantedAuthority("document:read")));
+        assertEquals(new SimpleGrantedAuthority("ROLE_USER"), first.get(first.size() - 1));
+        assertThrows(UnsupportedOperationException.class, () -> first.add(new SimpleGrantedAuthority("x")));
+    }
+
+    @Test
+    void unknownTokenClaimsAreParsedOnceAndInterned() {
+        when(roleRepository.findAll()).thenReturn(List.of(userRole));
+
+        List<GrantedAuthority> first = roleRegistry.getTokenAuthorities("USER", "READ,WRITE");
+        List<GrantedAuthority> second = roleRegistry.getTokenAuthorities("USER", "READ,WRITE");
+
+        assertSame(first, second);
+        assertEquals(List.of(new SimpleGrantedAuthority("READ"), new SimpleGrantedAuthority("WRITE"),
+                new SimpleGrantedAuthority("ROLE_USER")), first);
+    }
+
+    @Test
+    void reloadSwapsTheWholeSnapshot() {
+        when(roleRepository.findAll()).thenReturn(List.of(userRole)).thenReturn(List.of(userRole, adminRole));
+
+        assertTrue(roleRegistry.findByName("ADMIN").isEmpty());
+        roleRegistry.reload();
+
+        assertSame(adminRole, roleRegistry.findByName("ADMIN").orElseThrow());
+    }
+
+    private RoleEntity role(Long id, String name, Authority authority) {
+        RoleEntity role = RoleEntity.builder().name(name).authorities(authority).build();
+        ReflectionTestUtils.setField(role, "id", id);
+        return role;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.user_service.cache;
+
+import com.example.user_service.exception.ApiException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersForTheSameKeyShareOneLoad() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofSeconds(5));
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> flight.execute("user-7", this::blockingLoad)));
+        }
+        await(() -> flight.getStats().coalesced() == 7);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("loaded", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(new SingleFlight.Stats(1, 7, 0, 0, 0, 0), flight.getStats());
+    }
+
+    @Test
+    void differentKeysAndLaterCallsLoadOnTheirOwn() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofSeconds(5));
+        release.countDown();
+
+        flight.execute("user-7", this::blockingLoad);
+        flight.execute("user-7", this::blockingLoad);
+        flight.execute("user-8", this::blockingLoad);
+
+        assertEquals(3, loads.get());
+        assertEquals(0, flight.getStats().coalesced());
+    }
+
+    @Test
+    void failedLoadIsRethrownToEveryWaitingCallerAndNotRemembered() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofSeconds(5));
+
+        Future<String> leader = executor.submit(() -> flight.execute("user-7", () -> {
+            blockingLoad();
+            throw new ApiException("User by user id not found");
+        }));
+        await(() -> flight.getStats().inFlight() == 1);
+        Future<String> follower = executor.submit(() -> flight.execute("user-7", this::blockingLoad));
+        await(() -> flight.getStats().coalesced() == 1);
+        release.countDown();
+
+        for (Future<String> result : List.of(leader, follower)) {
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(ApiException.class, exception.getCause());
+            assertEquals("User by user id not found", exception.getCause().getMessage());
+        }
+        assertEquals("loaded", flight.execute("user-7", this::blockingLoad));
+        assertEquals(1, flight.getStats().failures());
+    }
+
+    @Test
+    void waitingCallerGivesUpAfterTheTimeoutWhileTheLoadGoesOn() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofMillis(50));
+
+        Future<String> leader = executor.submit(() -> flight.execute("user-7", this::blockingLoad));
+        await(() -> flight.getStats().inFlight() == 1);
+
+        assertThrows(SingleFlightTimeoutException.class, () -> flight.execute("user-7", this::blockingLoad));
+        release.countDown();
+        assertEquals("loaded", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(1, flight.getStats().timeouts());
+    }
+
+    @Test
+    void loadsBeyondTheLimitAreTurnedAwayWhileOthersRun() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofSeconds(5), 1);
+
+        Future<String> running = executor.submit(() -> flight.execute("user-7", this::blockingLoad));
+        await(() -> flight.getStats().inFlight() == 1);
+
+        assertThrows(SingleFlightTimeoutException.class, () -> flight.execute("user-8", this::blockingLoad));
+        release.countDown();
+        assertEquals("loaded", running.get(5, TimeUnit.SECONDS));
+        assertEquals("loaded", flight.execute("user-8", this::blockingLoad));
+        assertEquals(1, flight.getStats().rejected());
+    }
+
+    private String blockingLoad() {
+        loads.incrementAndGet();
+        try {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        return "loaded";
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5s");
+            Thread.sleep(5);
+        }
+    }
+}
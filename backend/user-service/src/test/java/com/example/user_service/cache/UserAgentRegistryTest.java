@@ -0,0 +1,70 @@
+package com.example.user_service.cache;
+
+import com.example.user_service.repository.UserAgentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserAgentRegistryTest {
+
+    @Mock
+    private UserAgentRepository userAgentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserAgentRegistry userAgentRegistry;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        userAgentRegistry = new UserAgentRegistry(userAgentRepository, transactionManager);
+    }
+
+    @Test
+    void knownUserAgentIsLookedUpOnce() {
+        when(userAgentRepository.findIdByUserAgent("JUnit")).thenReturn(Optional.of(3));
+
+        assertEquals(3, userAgentRegistry.idOf("JUnit"));
+        assertEquals(3, userAgentRegistry.idOf("JUnit"));
+
+        verify(userAgentRepository, times(1)).findIdByUserAgent("JUnit");
+        verify(userAgentRepository, never()).insertIfAbsent(any());
+    }
+
+    @Test
+    void unknownUserAgentIsInsertedInItsOwnTransaction() {
+        when(userAgentRepository.findIdByUserAgent("JUnit")).thenReturn(Optional.empty(), Optional.of(4));
+
+        assertEquals(4, userAgentRegistry.idOf("JUnit"));
+
+        verify(userAgentRepository).insertIfAbsent("JUnit");
+        verify(transactionManager).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+    }
+
+    @Test
+    void longUserAgentsAreTruncatedAndBlankOnesIgnored() {
+        String prefix = "x".repeat(UserAgentRegistry.MAX_LENGTH);
+        when(userAgentRepository.findIdByUserAgent(prefix)).thenReturn(Optional.of(5));
+
+        assertEquals(5, userAgentRegistry.idOf(prefix + "a"));
+        assertEquals(5, userAgentRegistry.idOf(prefix + "b"));
+        assertNull(userAgentRegistry.idOf(" "));
+        assertNull(userAgentRegistry.idOf(null));
+
+        verify(userAgentRepository, times(1)).findIdByUserAgent(anyString());
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.user_service.cache;
+
+import com.example.user_service.dto.UserView;
+import com.example.user_service.enumeration.Authority;
+import com.example.user_service.event.UserChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.event.TransactionalEventListenerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Publishes {@link UserChangedEvent}s through a Spring context so the after-commit listener runs as in the service.
+ */
+class UserProfileCacheTest {
+
+    private AnnotationConfigApplicationContext context;
+    private UserProfileCache cache;
+    private TransactionTemplate transactionTemplate;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        // Registered by @EnableTransactionManagement in the application.
+        context.registerBean(TransactionalEventListenerFactory.class);
+        context.registerBean(UserProfileCache.class, () -> new UserProfileCache(CacheSpec.of(Duration.ofMinutes(5), 100L)));
+        context.refresh();
+        cache = context.getBean(UserProfileCache.class);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(new DriverManagerDataSource(
+                "jdbc:h2:mem:profile-cache-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void changeEvictsOnlyAfterTheTransactionCommits() {
+        load();
+        transactionTemplate.executeWithoutResult(status -> {
+            context.publishEvent(new UserChangedEvent(7L, "user-7"));
+            load();
+            assertEquals(1, loads.get());
+        });
+        load();
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getStats().evictions());
+    }
+
+    @Test
+    void rolledBackChangeKeepsTheEntry() {
+        load();
+        transactionTemplate.executeWithoutResult(status -> {
+            context.publishEvent(new UserChangedEvent(7L, "user-7"));
+            status.setRollbackOnly();
+        });
+        load();
+
+        assertEquals(1, loads.get());
+        assertEquals(0.5, cache.getStats().hitRatio());
+    }
+
+    @Test
+    void changeByInternalIdOutsideATransactionEvictsRightAway() {
+        load();
+        context.publishEvent(new UserChangedEvent(7L, null));
+        load();
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void weightBoundedCacheKeepsProfiles() {
+        CacheSpec spec = CacheSpec.of(Duration.ofMinutes(5), null);
+        spec.setMaximumWeight(1_000_000L);
+        cache = new UserProfileCache(spec);
+
+        load();
+        load();
+
+        assertEquals(1, loads.get());
+    }
+
+    private void load() {
+        cache.get("user-7", userId -> {
+            loads.incrementAndGet();
+            LocalDateTime now = LocalDateTime.now();
+            return Optional.of(new UserView(7L, 1L, 1L, userId, "John", "Doe", "john@example.com", "", "", "",
+                    LocalDate.now(), now, now, Authority.USER.name(), Authority.USER, true, true, true, false, 0, now));
+        });
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.user_service.datasource;
+
+import com.example.user_service.domain.RequestContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the routing data source against two in-memory H2 databases standing in for the primary and a replica.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private static final String REPLICA = "replica-0";
+
+    private DriverManagerDataSource primary;
+    private DriverManagerDataSource replica;
+    private ReadWriteRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        routingDataSource = new ReadWriteRoutingDataSource(primary, Map.of(REPLICA, replica),
+                new ReadYourWritesTracker(Duration.ofSeconds(5)));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContext.setUserId(null);
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void readOnlyTransactionsAreServedByReplica() {
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readWriteTransactionsAreServedByPrimary() {
+        assertEquals("primary", readWrite.execute(status -> currentNode()));
+    }
+
+    @Test
+    void sessionReadsItsOwnWritesFromPrimary() {
+        RequestContext.setUserId(1L);
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET writes = writes + 1"));
+
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+
+        RequestContext.setUserId(2L);
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void rolledBackWritesDoNotPinTheSessionToPrimary() {
+        RequestContext.setUserId(1L);
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE node SET writes = writes + 1");
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readsPinnedToPrimaryBypassTheReplicaOnlyWhilePinned() {
+        assertEquals("primary", readOnly.execute(status -> ReadWriteRoutingDataSource.onPrimary(this::currentNode)));
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void ejectedReplicaFallsBackToPrimaryUntilReadmitted() {
+        routingDataSource.eject(REPLICA);
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+
+        routingDataSource.readmit(REPLICA);
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void healthMonitorEjectsUnreachableReplica() {
+        DataSourceRoutingProperties properties = new DataSourceRoutingProperties();
+        DriverManagerDataSource unreachable = new DriverManagerDataSource("jdbc:h2:mem:missing;IFEXISTS=TRUE", "sa", "");
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, Map.of(REPLICA, unreachable),
+                new ReadYourWritesTracker(Duration.ofSeconds(5)));
+
+        new ReplicaHealthMonitor(routing, properties).checkReplicas();
+
+        assertTrue(routing.isEjected(REPLICA));
+    }
+
+    @Test
+    void healthMonitorKeepsHealthyReplica() {
+        new ReplicaHealthMonitor(routingDataSource, new DataSourceRoutingProperties()).checkReplicas();
+
+        assertFalse(routingDataSource.isEjected(REPLICA));
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DriverManagerDataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(16), writes INT)");
+        jdbcTemplate.update("INSERT INTO node VALUES (?, 0)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.user_service.datasource;
+
+import com.example.user_service.datasource.SchemaIndexVerifier.ExpectedIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaIndexVerifierTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SchemaIndexVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:index-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE login_history (id BIGINT PRIMARY KEY, user_id BIGINT, login_time TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE credentials (id BIGINT PRIMARY KEY, user_id BIGINT)");
+        verifier = new SchemaIndexVerifier(dataSource);
+    }
+
+    @Test
+    void compositeIndexCoversItsLeadingColumns() {
+        jdbcTemplate.execute("CREATE INDEX login_history_user_id_login_time_idx ON login_history (user_id, login_time)");
+
+        List<ExpectedIndex> missing = verifier.findMissing(List.of(
+                new ExpectedIndex("login_history", "user_id", "login_time"),
+                new ExpectedIndex("login_history", "user_id")));
+
+        assertTrue(missing.isEmpty());
+    }
+
+    @Test
+    void indexWithDifferentLeadingColumnDoesNotCount() {
+        jdbcTemplate.execute("CREATE INDEX login_history_login_time_idx ON login_history (login_time, user_id)");
+
+        List<ExpectedIndex> missing = verifier.findMissing(List.of(new ExpectedIndex("login_history", "user_id")));
+
+        assertEquals(List.of(new ExpectedIndex("login_history", "user_id")), missing);
+    }
+
+    @Test
+    void reportsEveryMissingIndex() {
+        List<ExpectedIndex> missing = verifier.findMissing(List.of(
+                new ExpectedIndex("credentials", "user_id"),
+                new ExpectedIndex("credentials", "id"),
+                new ExpectedIndex("login_history", "user_id", "login_time")));
+
+        assertEquals(2, missing.size());
+        assertFalse(missing.contains(new ExpectedIndex("credentials", "id")));
+    }
+
+    @Test
+    void verifyFailsWhenExpectedIndexesAreMissing() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, verifier::verify);
+
+        assertTrue(exception.getMessage().startsWith("Missing database indexes"));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.user_service.directory;
+
+import com.example.user_service.dto.UserView;
+import com.example.user_service.enumeration.Authority;
+import com.example.user_service.repository.UserDirectoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserDirectoryTest {
+
+    private UserDirectory userDirectory;
+    private UserDirectoryRepository userDirectoryRepository;
+    private UserDirectorySynchronizer synchronizer;
+
+    @BeforeEach
+    void setUp() {
+        userDirectory = new UserDirectory(Duration.ofMinutes(1));
+        userDirectoryRepository = mock(UserDirectoryRepository.class);
+        UserDirectoryProperties properties = new UserDirectoryProperties();
+        properties.setLoadBatchSize(2);
+        synchronizer = new UserDirectorySynchronizer(userDirectory, userDirectoryRepository, new DataSourceProperties(), properties);
+    }
+
+    @Test
+    void nothingIsServedBeforeTheFirstLoad() {
+        userDirectory.put(snapshot(1L, "user@mail.com", 1));
+
+        assertFalse(userDirectory.isServing());
+        assertEquals(Optional.empty(), userDirectory.findById(1L));
+
+        userDirectory.markLoaded();
+        assertEquals("user@mail.com", userDirectory.findById(1L).orElseThrow().email());
+    }
+
+    @Test
+    void nothingIsServedOnceTheLastSyncIsOlderThanTheMaxStaleness() {
+        UserDirectory stale = new UserDirectory(Duration.ZERO);
+        stale.put(snapshot(1L, "user@mail.com", 1));
+        stale.markLoaded();
+
+        assertFalse(stale.isServing());
+        assertEquals(Optional.empty(), stale.findByUserId("user-1"));
+    }
+
+    @Test
+    void replacingASnapshotMovesItsIndexEntries() {
+        userDirectory.markLoaded();
+        userDirectory.put(snapshot(1L, "old@mail.com", 1));
+        userDirectory.put(snapshot(1L, "new@mail.com", 2));
+        userDirectory.put(snapshot(1L, "older@mail.com", 0));
+
+        assertEquals(Optional.empty(), userDirectory.findByEmailNormalized("old@mail.com"));
+        assertEquals(Optional.empty(), userDirectory.findByEmailNormalized("older@mail.com"));
+        assertEquals(1L, userDirectory.findByEmailNormalized("new@mail.com").orElseThrow().id());
+        assertEquals("new@mail.com", userDirectory.findByUserId("user-1").orElseThrow().email());
+        assertEquals(1, userDirectory.size());
+    }
+
+    @Test
+    void resyncReloadsChangedUsersInBatchesAndDropsDeletedOnes() {
+        userDirectory.put(snapshot(1L, "one@mail.com", 1));
+        userDirectory.put(snapshot(2L, "two@mail.com", 1));
+        userDirectory.put(snapshot(3L, "deleted@mail.com", 1));
+        when(userDirectoryRepository.findVersions()).thenReturn(Map.of(1L, 1L, 2L, 5L, 4L, 6L, 5L, 7L));
+        when(userDirectoryRepository.findByIds(anyList())).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).stream()
+                .filter(id -> id != 5L)
+                .map(id -> snapshot(id, "user" + id + "@mail.com", id + 3))
+                .toList());
+
+        synchronizer.resync();
+
+        assertTrue(userDirectory.isServing());
+        assertEquals(List.of(1L, 2L, 4L), List.of(1L, 2L, 3L, 4L, 5L).stream()
+                .filter(id -> userDirectory.findById(id).isPresent()).toList());
+        assertEquals("one@mail.com", userDirectory.findById(1L).orElseThrow().email());
+        assertEquals("user2@mail.com", userDirectory.findById(2L).orElseThrow().email());
+        verify(userDirectoryRepository, times(2)).findByIds(anyList());
+    }
+
+    @Test
+    void reloadRemovesUsersThatNoLongerExist() {
+        userDirectory.markLoaded();
+        userDirectory.put(snapshot(1L, "one@mail.com", 1));
+        when(userDirectoryRepository.findByIds(List.of(1L))).thenReturn(List.of());
+
+        synchronizer.reload(List.of(1L));
+
+        assertEquals(Optional.empty(), userDirectory.findByEmailNormalized("one@mail.com"));
+        assertEquals(0, userDirectory.size());
+    }
+
+    private static UserSnapshot snapshot(Long id, String email, long version) {
+        LocalDateTime now = LocalDateTime.now();
+        UserView view = new UserView(id, 0L, 0L, "user-" + id, "First", "Last", email, null, null, null, LocalDate.now(),
+                now, now, Authority.USER.name(), Authority.USER, true, true, true, false, 0, now);
+        return new UserSnapshot(view, email, version);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.user_service.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserImportReaderTest {
+
+    @Test
+    void readsCsvColumnsInHeaderOrderWithQuotedValues() {
+        UserImportReader reader = reader(ImportFormat.CSV, """
+                email,password,last_name,firstName
+                john@mail.com,"pa,ss""word",Doe,John
+
+                jane@mail.com,secret,Roe,Jane
+                """);
+
+        List<ImportRow> rows = reader.read(10);
+
+        assertEquals(List.of(
+                new ImportRow(2, "John", "Doe", "john@mail.com", "pa,ss\"word"),
+                new ImportRow(4, "Jane", "Roe", "jane@mail.com", "secret")), rows);
+        assertTrue(reader.read(10).isEmpty());
+    }
+
+    @Test
+    void readsInBatches() {
+        UserImportReader reader = reader(ImportFormat.NDJSON, """
+                {"firstName":"A","lastName":"A","email":"a@mail.com","password":"p"}
+                {"firstName":"B","lastName":"B","email":"b@mail.com","password":"p"}
+                {"firstName":"C","lastName":"C","email":"c@mail.com","password":"p"}
+                """);
+
+        assertEquals(2, reader.read(2).size());
+        List<ImportRow> last = reader.read(2);
+        assertEquals(1, last.size());
+        assertEquals("c@mail.com", last.get(0).email());
+    }
+
+    @Test
+    void malformedJsonBecomesAnEmptyRowWithItsLineNumber() {
+        List<ImportRow> rows = reader(ImportFormat.NDJSON, "{not json\n").read(10);
+
+        assertEquals(List.of(new ImportRow(1, null, null, null, null)), rows);
+    }
+
+    @Test
+    void csvWithoutRequiredColumnIsRejected() {
+        UserImportReader reader = reader(ImportFormat.CSV, "email,password\na@mail.com,p\n");
+
+        assertThrows(IllegalArgumentException.class, () -> reader.read(10));
+    }
+
+    @Test
+    void formatIsDetectedFromParameterThenFileName() {
+        assertEquals(ImportFormat.NDJSON, ImportFormat.detect("ndjson", "users.csv", null));
+        assertEquals(ImportFormat.NDJSON, ImportFormat.detect(null, "users.jsonl", null));
+        assertEquals(ImportFormat.CSV, ImportFormat.detect(null, "users.csv", "text/csv"));
+    }
+
+    private static UserImportReader reader(ImportFormat format, String content) {
+        return new UserImportReader(new BufferedReader(new StringReader(content)), format, new ObjectMapper());
+    }
+}
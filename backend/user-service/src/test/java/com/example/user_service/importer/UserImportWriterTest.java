@@ -0,0 +1,84 @@
+package com.example.user_service.importer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the import SQL against H2 in PostgreSQL mode with the columns the writer touches.
+ */
+class UserImportWriterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private UserImportWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:import-" + System.nanoTime() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE SEQUENCE primary_key_seq START WITH 10");
+        jdbcTemplate.execute("""
+                CREATE TABLE users (id BIGINT PRIMARY KEY, user_id VARCHAR(255) NOT NULL, reference_id VARCHAR(255),
+                    created_at TIMESTAMP NOT NULL, created_by BIGINT NOT NULL, updated_at TIMESTAMP NOT NULL,
+                    updated_by BIGINT NOT NULL, email VARCHAR(255) NOT NULL, email_normalized VARCHAR(255) NOT NULL UNIQUE,
+                    first_name VARCHAR(255), last_name VARCHAR(255), login_attempts INT, phone VARCHAR(255),
+                    bio VARCHAR(255), image_url VARCHAR(255), mfa BOOLEAN NOT NULL, enabled BOOLEAN NOT NULL,
+                    account_non_expired BOOLEAN NOT NULL, account_non_locked BOOLEAN NOT NULL,
+                    qr_code_secret VARCHAR(255), last_login DATE)
+                """);
+        jdbcTemplate.execute("CREATE TABLE user_roles (user_id BIGINT, role_id BIGINT)");
+        jdbcTemplate.execute("""
+                CREATE TABLE credentials (id BIGINT PRIMARY KEY, reference_id VARCHAR(255), created_at TIMESTAMP NOT NULL,
+                    created_by BIGINT NOT NULL, updated_at TIMESTAMP NOT NULL, updated_by BIGINT NOT NULL,
+                    password VARCHAR(255), user_id BIGINT NOT NULL REFERENCES users (id))
+                """);
+        writer = new UserImportWriter(new NamedParameterJdbcTemplate(dataSource));
+    }
+
+    @Test
+    void insertsUsersWithRoleCredentialAndConfirmation() {
+        List<Long> ids = writer.insert(List.of(user("Ann@Mail.com"), user("bob@mail.com")), 2L, 1L, false);
+
+        assertEquals(2, ids.size());
+        assertEquals(2, count("users"));
+        assertEquals(2, count("user_roles"));
+        assertEquals(2, count("credentials"));
+        assertEquals("hash", jdbcTemplate.queryForObject(
+                "SELECT c.password FROM credentials c JOIN users u ON u.id = c.user_id WHERE u.email = 'Ann@Mail.com'", String.class));
+        assertEquals(ids.get(1), jdbcTemplate.queryForObject(
+                "SELECT id FROM users WHERE email_normalized = 'bob@mail.com'", Long.class));
+        assertEquals(0, count("users WHERE enabled"));
+    }
+
+    @Test
+    void usersWithoutAVerificationEmailAreInsertedEnabled() {
+        writer.insert(List.of(user("ann@mail.com")), 2L, 1L, true);
+
+        assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject(
+                "SELECT enabled FROM users WHERE email_normalized = 'ann@mail.com'", Boolean.class));
+    }
+
+    @Test
+    void findExistingEmailsReturnsOnlyStoredOnes() {
+        writer.insert(List.of(user("ann@mail.com")), 2L, 1L, true);
+
+        assertEquals(Set.of("ann@mail.com"), writer.findExistingEmails(List.of("ann@mail.com", "bob@mail.com")));
+        assertEquals(Set.of(), writer.findExistingEmails(List.of()));
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Integer.class);
+    }
+
+    private static PreparedUser user(String email) {
+        return new PreparedUser(new ImportRow(1, "First", "Last", email, "secret"), email.toLowerCase(), "hash");
+    }
+}
@@ -4,19 +4,36 @@ import com.example.user_service.UserServiceApplication;
 import com.example.user_service.config.TestContainersConfig;
 import com.example.user_service.config.TestEmailConfig;
 import com.example.user_service.config.TestSecurityConfig;
+import com.example.user_service.domain.RequestContext;
+import com.example.user_service.domain.Token;
+import com.example.user_service.domain.TokenData;
+import com.example.user_service.dto.User;
+import com.example.user_service.metrics.ExpectedStatements;
+import com.example.user_service.metrics.QueryCountExtension;
+import com.example.user_service.metrics.QueryCounter;
 import com.example.user_service.security.SecurityConfig;
+import com.example.user_service.service.JwtService;
+import com.example.user_service.service.UserService;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 
+import java.util.function.Function;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
 
 @SpringBootTest
 @ActiveProfiles("test")
+@ExtendWith(QueryCountExtension.class)
 @ContextConfiguration(
     initializers = {TestContainersConfig.Initializer.class},
         classes = {UserServiceApplication.class, TestContainersConfig.class, TestEmailConfig.class, TestSecurityConfig.class}
@@ -32,8 +49,43 @@ public class UserServiceIntegrationTest {
     @MockBean
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtService jwtService;
+
     @Test
     void contextLoads() {
         assertThat(true).isTrue();
     }
-}
\ No newline at end of file
+
+    /**
+     * Statement budgets of the main user flows. A budget that starts failing usually means a lazy association
+     * or a per-row lookup crept in; raise it only together with the change that needs the extra statements.
+     */
+    @Test
+    @ExpectedStatements(12)
+    void mainFlowsStayWithinTheirStatementBudgets(QueryCounter counter) throws Throwable {
+        String email = "budget-" + System.nanoTime() + "@example.com";
+        given(passwordEncoder.encode(any())).willReturn("encoded");
+        given(passwordEncoder.matches(any(), any())).willReturn(true);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.1");
+        request.addHeader("User-Agent", "JUnit");
+
+        // Registration and login attempts are audited as the acting user, which the JWT filter sets per request.
+        RequestContext.setUserId(0L);
+        try {
+            counter.expect("register", 2, () -> userService.createUser("Budget", "User", email, "password"));
+            User user = (User) counter.expect("login", 6, () -> userService.authenticateUser(email, "password", request)).getPrincipal();
+            counter.expect("profile", 1, () -> userService.getUserByUserId(user.getUserId()));
+            String refreshToken = jwtService.createToken(user, Token::getRefresh);
+            TokenData tokenData = counter.expect("refresh", 1, () -> jwtService.getTokenData(refreshToken, Function.identity()));
+
+            assertThat(tokenData.isValid()).isTrue();
+        } finally {
+            RequestContext.setUserId(null);
+        }
+    }
+}
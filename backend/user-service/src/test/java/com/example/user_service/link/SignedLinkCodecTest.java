@@ -0,0 +1,73 @@
+package com.example.user_service.link;
+
+import com.example.user_service.exception.ApiException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SignedLinkCodecTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private SignedLinkProperties properties;
+    private SignedLinkCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SignedLinkProperties();
+        properties.setSecret("test-signed-link-secret");
+        codec = new SignedLinkCodec(properties, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void issuedLinkParsesBackWithItsClaims() {
+        String key = codec.issue(LinkPurpose.RESET_PASSWORD, 42L, 7L);
+
+        SignedLink link = codec.parse(key, LinkPurpose.RESET_PASSWORD);
+
+        assertTrue(SignedLinkCodec.isSignedLink(key));
+        assertEquals(42L, link.userId());
+        assertEquals(7L, link.binding());
+        assertEquals(NOW.plus(properties.getPasswordResetTtl()), link.expiresAt());
+        assertNotEquals(link.nonce(), codec.parse(codec.issue(LinkPurpose.RESET_PASSWORD, 42L, 7L), LinkPurpose.RESET_PASSWORD).nonce());
+    }
+
+    @Test
+    void linkForAnotherPurposeIsRejected() {
+        String key = codec.issue(LinkPurpose.VERIFY_ACCOUNT, 42L, 0);
+
+        assertThrows(ApiException.class, () -> codec.parse(key, LinkPurpose.RESET_PASSWORD));
+    }
+
+    @Test
+    void linkSignedWithAnotherSecretIsRejected() {
+        SignedLinkProperties other = new SignedLinkProperties();
+        other.setSecret("another-secret");
+        String key = new SignedLinkCodec(other, Clock.fixed(NOW, ZoneOffset.UTC)).issue(LinkPurpose.VERIFY_ACCOUNT, 42L, 0);
+
+        assertEquals("Invalid key", assertThrows(ApiException.class, () -> codec.parse(key, LinkPurpose.VERIFY_ACCOUNT)).getMessage());
+        assertThrows(ApiException.class, () -> codec.parse("not.base64!", LinkPurpose.VERIFY_ACCOUNT));
+        assertThrows(ApiException.class, () -> codec.parse("no-separator", LinkPurpose.VERIFY_ACCOUNT));
+    }
+
+    @Test
+    void expiredLinkIsRejected() {
+        String key = codec.issue(LinkPurpose.VERIFY_ACCOUNT, 42L, 0);
+        SignedLinkCodec later = new SignedLinkCodec(properties,
+                Clock.fixed(NOW.plus(properties.getVerificationTtl()).plus(Duration.ofSeconds(1)), ZoneOffset.UTC));
+
+        assertEquals("Link has expired", assertThrows(ApiException.class, () -> later.parse(key, LinkPurpose.VERIFY_ACCOUNT)).getMessage());
+    }
+
+    @Test
+    void confirmationKeysAreNotMistakenForSignedLinks() {
+        assertTrue(SignedLinkCodec.isSignedLink(codec.issue(LinkPurpose.VERIFY_ACCOUNT, 42L, 0)));
+        assertFalse(SignedLinkCodec.isSignedLink("0b3e1f0c-5d7a-4c1e-9f57-2f1d7f6f6a11"));
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.user_service.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the filter against an instrumented H2 data source.
+ */
+class DbMetricsFilterTest {
+
+    private static final String ENDPOINT = "GET /api/v1/user/{userId}";
+
+    private InstrumentedDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private EndpointDbMetrics endpointDbMetrics;
+    private DbMetricsProperties properties;
+    private DbMetricsFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new InstrumentedDataSource(new DriverManagerDataSource(
+                "jdbc:h2:mem:metrics-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY)");
+        endpointDbMetrics = new EndpointDbMetrics();
+        properties = new DbMetricsProperties();
+        filter = new DbMetricsFilter(endpointDbMetrics, properties);
+    }
+
+    @Test
+    void recordsStatementsAndConnectionsUnderTheMatchedPattern() throws Exception {
+        run(3);
+        run(1);
+
+        EndpointDbMetrics.Snapshot snapshot = endpointDbMetrics.snapshot().get(ENDPOINT);
+        assertEquals(2, snapshot.requests());
+        assertEquals(2.0, snapshot.avgStatements());
+        assertEquals(3, snapshot.maxStatements());
+        assertEquals(1, snapshot.maxActiveConnections());
+        assertEquals(0, dataSource.getActiveConnections());
+        assertNull(RequestDbStats.current());
+    }
+
+    @Test
+    void statementsOutsideRequestsAreNotRecorded() {
+        jdbcTemplate.queryForList("SELECT id FROM users", Long.class);
+
+        assertTrue(endpointDbMetrics.snapshot().isEmpty());
+    }
+
+    @Test
+    void requestsWithoutHandlerAreGroupedTogether() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/missing/1"), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(new MockHttpServletRequest("GET", "/missing/2"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals(2, endpointDbMetrics.snapshot().get("GET " + DbMetricsFilter.UNMATCHED).requests());
+    }
+
+    @Test
+    void exceededBudgetFailsWhenConfigured() throws Exception {
+        DbMetricsProperties.Budget budget = new DbMetricsProperties.Budget();
+        budget.setMaxStatements(2);
+        properties.setBudgets(Map.of(ENDPOINT, budget));
+        run(2);
+
+        properties.setFailOnBudgetExceeded(true);
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> run(3));
+
+        assertEquals("Database budget exceeded for " + ENDPOINT + ": 3 statements > 2", exception.getMessage());
+        assertEquals(2, endpointDbMetrics.snapshot().get(ENDPOINT).requests());
+    }
+
+    @Test
+    void asyncRequestsAreRecordedWithTheHandlerThreadsStatementsOnCompletion() throws Exception {
+        DbMetricsCallableInterceptor interceptor = new DbMetricsCallableInterceptor();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/user/abc");
+        request.setAsyncSupported(true);
+        ServletWebRequest webRequest = new ServletWebRequest(request);
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest servletRequest, jakarta.servlet.ServletResponse response) {
+                servletRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/user/{userId}");
+                servletRequest.startAsync();
+                interceptor.beforeConcurrentHandling(webRequest, () -> null);
+            }
+        };
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        assertTrue(endpointDbMetrics.snapshot().isEmpty());
+
+        Thread handler = new Thread(() -> {
+            interceptor.preProcess(webRequest, () -> null);
+            jdbcTemplate.queryForList("SELECT id FROM users", Long.class);
+            interceptor.postProcess(webRequest, () -> null, null);
+        });
+        handler.start();
+        handler.join();
+        request.getAsyncContext().complete();
+
+        EndpointDbMetrics.Snapshot snapshot = endpointDbMetrics.snapshot().get(ENDPOINT);
+        assertEquals(1, snapshot.requests());
+        assertEquals(1, snapshot.maxStatements());
+    }
+
+    @Test
+    void endpointBudgetFallsBackToDefaultLimits() {
+        DbMetricsProperties.Budget defaults = new DbMetricsProperties.Budget();
+        defaults.setMaxStatements(20);
+        defaults.setMaxAcquireTime(Duration.ofMillis(100));
+        DbMetricsProperties.Budget override = new DbMetricsProperties.Budget();
+        override.setMaxStatements(2);
+        properties.setDefaultBudget(defaults);
+        properties.setBudgets(Map.of(ENDPOINT, override));
+
+        assertEquals(2, properties.getBudget(ENDPOINT).getMaxStatements());
+        assertEquals(Duration.ofMillis(100), properties.getBudget(ENDPOINT).getMaxAcquireTime());
+        assertEquals(20, properties.getBudget("GET /other").getMaxStatements());
+    }
+
+    @Test
+    void instrumentedConnectionsKeepIdentitySemantics() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            assertEquals(connection, connection);
+            assertEquals(1, dataSource.getActiveConnections());
+            connection.close();
+        }
+        assertEquals(0, dataSource.getActiveConnections());
+    }
+
+    private void run(int statements) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/user/abc");
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest servletRequest, jakarta.servlet.ServletResponse response) {
+                servletRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/user/{userId}");
+                for (int i = 0; i < statements; i++) {
+                    jdbcTemplate.queryForList("SELECT id FROM users", Long.class);
+                }
+            }
+        };
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.user_service.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Statement budget for a whole test method run with {@link QueryCountExtension}: the test fails when its body
+ * executes more statements on the test thread than {@link #value()}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExpectedStatements {
+
+    int value();
+}
@@ -0,0 +1,52 @@
+package com.example.user_service.metrics;
+
+import org.junit.jupiter.api.extension.*;
+import org.opentest4j.AssertionFailedError;
+
+/**
+ * Counts the statements of every test body with a {@link QueryCounter}, which tests can take as a parameter to
+ * check budgets per operation, and enforces {@link ExpectedStatements} on the test as a whole. Statements in
+ * {@code @BeforeEach} and {@code @AfterEach} methods are not counted.
+ */
+public class QueryCountExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback, ParameterResolver {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryCountExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        counter(context);
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        QueryCounter counter = store(context).remove(QueryCounter.class, QueryCounter.class);
+        if (counter == null) {
+            return;
+        }
+        counter.stop();
+        ExpectedStatements expected = context.getRequiredTestMethod().getAnnotation(ExpectedStatements.class);
+        if (expected != null && counter.getStatements() > expected.value()) {
+            throw new AssertionFailedError(context.getDisplayName() + " executed " + counter.getStatements()
+                    + " statements, expected at most " + expected.value() + " " + counter.getOperations(),
+                    expected.value(), counter.getStatements());
+        }
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == QueryCounter.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return counter(extensionContext);
+    }
+
+    private static QueryCounter counter(ExtensionContext context) {
+        return store(context).getOrComputeIfAbsent(QueryCounter.class, key -> QueryCounter.start(), QueryCounter.class);
+    }
+
+    private static ExtensionContext.Store store(ExtensionContext context) {
+        return context.getStore(NAMESPACE.append(context.getUniqueId()));
+    }
+}
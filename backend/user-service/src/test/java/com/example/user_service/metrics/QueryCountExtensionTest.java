@@ -0,0 +1,85 @@
+package com.example.user_service.metrics;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.opentest4j.AssertionFailedError;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the statement-count harness against an instrumented H2 data source.
+ */
+@ExtendWith(QueryCountExtension.class)
+class QueryCountExtensionTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new InstrumentedDataSource(new DriverManagerDataSource(
+                "jdbc:h2:mem:query-count-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "")));
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY)");
+        jdbcTemplate.update("INSERT INTO users VALUES (1), (2)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        assertNull(RequestDbStats.current());
+    }
+
+    @Test
+    @ExpectedStatements(3)
+    void countsStatementsPerOperationButNotSetUp(QueryCounter counter) throws Throwable {
+        assertEquals(0, counter.getStatements());
+
+        Long count = counter.expect("count", 1, () -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class));
+        counter.expect("insert", 2, () -> {
+            jdbcTemplate.update("INSERT INTO users VALUES (3)");
+            jdbcTemplate.update("INSERT INTO users VALUES (4)");
+        });
+
+        assertEquals(2L, count);
+        assertEquals(3, counter.getStatements());
+        assertEquals(List.of("count=1", "insert=2"), counter.getOperations());
+    }
+
+    @Test
+    void operationOverBudgetFails(QueryCounter counter) {
+        AssertionFailedError error = assertThrows(AssertionFailedError.class, () -> counter.expect("n+1", 1, () -> {
+            for (long id : jdbcTemplate.queryForList("SELECT id FROM users", Long.class)) {
+                jdbcTemplate.queryForObject("SELECT id FROM users WHERE id = ?", Long.class, id);
+            }
+        }));
+
+        assertEquals("n+1 executed 3 statements, expected at most 1", error.getMessage());
+    }
+
+    @Test
+    void requestsInsideTheTestStillCount(QueryCounter counter) throws Exception {
+        DbMetricsFilter filter = new DbMetricsFilter(new EndpointDbMetrics(), new DbMetricsProperties());
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request,
+                                   HttpServletResponse response) {
+                jdbcTemplate.queryForList("SELECT id FROM users", Long.class);
+            }
+        });
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/user/profile"), new MockHttpServletResponse(), chain);
+
+        assertEquals(1, counter.getStatements());
+        assertEquals(1, RequestDbStats.current().getStatements());
+    }
+}
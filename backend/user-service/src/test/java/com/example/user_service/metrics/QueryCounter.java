@@ -0,0 +1,67 @@
+package com.example.user_service.metrics;
+
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+import org.opentest4j.AssertionFailedError;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts the statements the current thread executes through an {@link InstrumentedDataSource}, in total and
+ * per named operation. Counting goes through the data source rather than Hibernate statistics, so statements
+ * issued by {@code JdbcTemplate} repositories count as well. Work handed to other threads is not counted.
+ */
+public final class QueryCounter {
+
+    private final RequestDbStats stats;
+    private final List<String> operations = new ArrayList<>();
+
+    private QueryCounter(RequestDbStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Starts counting on the current thread; every counter must be {@link #stop() stopped} on the same thread.
+     */
+    public static QueryCounter start() {
+        return new QueryCounter(RequestDbStats.start());
+    }
+
+    public void stop() {
+        RequestDbStats.clear();
+    }
+
+    public int getStatements() {
+        return stats.getStatements();
+    }
+
+    /**
+     * The operations run through {@code expect} so far, as {@code name=statements}.
+     */
+    public List<String> getOperations() {
+        return List.copyOf(operations);
+    }
+
+    /**
+     * Runs {@code operation} and fails when it executes more than {@code maxStatements} statements.
+     */
+    public void expect(String name, int maxStatements, Executable operation) throws Throwable {
+        expect(name, maxStatements, () -> {
+            operation.execute();
+            return null;
+        });
+    }
+
+    public <T> T expect(String name, int maxStatements, ThrowingSupplier<T> operation) throws Throwable {
+        int before = stats.getStatements();
+        T result = operation.get();
+        int executed = stats.getStatements() - before;
+        operations.add(name + "=" + executed);
+        if (executed > maxStatements) {
+            throw new AssertionFailedError(name + " executed " + executed + " statements, expected at most "
+                    + maxStatements, maxStatements, executed);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.user_service.partition;
+
+import com.example.user_service.archive.LoginHistoryArchive;
+import com.example.user_service.datasource.AdvisoryLock;
+import com.example.user_service.partition.LoginHistoryPartitionProperties.RetentionAction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class LoginHistoryPartitionMaintainerTest {
+
+    private static final Clock OCTOBER = Clock.fixed(Instant.parse("2026-10-19T10:00:00Z"), ZoneOffset.UTC);
+
+    private JdbcTemplate jdbcTemplate;
+    private LoginHistoryArchive archive;
+    private AdvisoryLock lock;
+    private LoginHistoryPartitionProperties properties;
+    private LoginHistoryPartitionMaintainer maintainer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        archive = mock(LoginHistoryArchive.class);
+        properties = new LoginHistoryPartitionProperties();
+        properties.setMonthsAhead(2);
+        properties.setRetentionMonths(3);
+        lock = mock(AdvisoryLock.class);
+        when(lock.runIfFree(eq(LoginHistoryPartitionMaintainer.LOCK_KEY), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+        maintainer = new LoginHistoryPartitionMaintainer(jdbcTemplate, properties, OCTOBER, archive, lock);
+    }
+
+    @Test
+    void planCreatesMissingFuturePartitionsAndExpiresOldOnes() {
+        LoginHistoryPartitionMaintainer.Plan plan = maintainer.plan(YearMonth.of(2026, 10), List.of(
+                "login_history_default",
+                "login_history_y2026m06",
+                "login_history_y2026m07",
+                "login_history_y2026m10"));
+
+        assertEquals(List.of(YearMonth.of(2026, 11), YearMonth.of(2026, 12)), plan.toCreate());
+        assertEquals(List.of(YearMonth.of(2026, 6)), plan.toExpire());
+    }
+
+    @Test
+    void partitionNameIsZeroPadded() {
+        assertEquals("login_history_y2027m01", LoginHistoryPartitionMaintainer.partitionName(YearMonth.of(2027, 1)));
+    }
+
+    @Test
+    void maintainDropsExpiredPartitionsInsteadOfDeletingRows() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("login_history"))).thenReturn(List.of(
+                "login_history_y2026m05", "login_history_y2026m10", "login_history_y2026m11", "login_history_y2026m12"));
+
+        maintainer.maintain();
+
+        verify(jdbcTemplate).execute("ALTER TABLE login_history DETACH PARTITION login_history_y2026m05");
+        verify(jdbcTemplate).execute("DROP TABLE login_history_y2026m05");
+        verify(jdbcTemplate, never()).execute(startsWith("CREATE TABLE"));
+        verify(jdbcTemplate, never()).execute(startsWith("DELETE"));
+    }
+
+    @Test
+    void maintainOnlyDetachesWhenConfigured() {
+        properties.setRetentionAction(RetentionAction.DETACH);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("login_history")))
+                .thenReturn(List.of("login_history_y2026m01"));
+
+        maintainer.maintain();
+
+        verify(jdbcTemplate).execute(
+                "CREATE TABLE IF NOT EXISTS login_history_y2026m10 PARTITION OF login_history FOR VALUES FROM ('2026-10-01') TO ('2026-11-01')");
+        verify(jdbcTemplate).execute("ALTER TABLE login_history DETACH PARTITION login_history_y2026m01");
+        verify(jdbcTemplate, never()).execute(startsWith("DROP"));
+    }
+
+    @Test
+    void maintainArchivesBeforeDroppingAndKeepsThePartitionWhenArchivingFails() throws IOException {
+        properties.setRetentionAction(RetentionAction.ARCHIVE);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("login_history")))
+                .thenReturn(List.of("login_history_y2026m01", "login_history_y2026m02"));
+        when(archive.archive("login_history_y2026m02", YearMonth.of(2026, 2))).thenThrow(new IOException("disk full"));
+
+        maintainer.maintain();
+
+        InOrder inOrder = inOrder(archive, jdbcTemplate);
+        inOrder.verify(archive).archive("login_history_y2026m01", YearMonth.of(2026, 1));
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE login_history DETACH PARTITION login_history_y2026m01");
+        inOrder.verify(jdbcTemplate).execute("DROP TABLE login_history_y2026m01");
+        verify(jdbcTemplate, never()).execute("ALTER TABLE login_history DETACH PARTITION login_history_y2026m02");
+        verify(jdbcTemplate, never()).execute("DROP TABLE login_history_y2026m02");
+    }
+
+    @Test
+    void maintainKeepsExpiringWhenOnePartitionFails() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("login_history")))
+                .thenReturn(List.of("login_history_y2026m01", "login_history_y2026m02"));
+        doThrow(new DataAccessResourceFailureException("lock timeout"))
+                .when(jdbcTemplate).execute("ALTER TABLE login_history DETACH PARTITION login_history_y2026m01");
+
+        maintainer.maintain();
+
+        verify(jdbcTemplate, never()).execute("DROP TABLE login_history_y2026m01");
+        verify(jdbcTemplate).execute("DROP TABLE login_history_y2026m02");
+    }
+
+    @Test
+    void maintainDoesNothingWhileAnotherInstanceHoldsTheLock() {
+        reset(lock);
+        when(lock.runIfFree(anyLong(), any())).thenReturn(false);
+
+        maintainer.maintain();
+
+        verifyNoInteractions(jdbcTemplate, archive);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.user_service.repository;
+
+import com.example.user_service.domain.RequestContext;
+import com.example.user_service.dto.LoginHistory;
+import com.example.user_service.entity.LoginHistoryEntity;
+import com.example.user_service.entity.UserAgentEntity;
+import com.example.user_service.entity.UserEntity;
+import com.google.common.net.InetAddresses;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers_skip_column_definitions=true"
+})
+class LoginHistoryRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 10, 1, 0, 0);
+
+    @Autowired
+    private LoginHistoryRepository loginHistoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserAgentRepository userAgentRepository;
+
+    private UserEntity user;
+    private Integer userAgentId;
+
+    @BeforeEach
+    void setUp() {
+        RequestContext.setUserId(0L);
+        userAgentId = userAgentRepository.save(UserAgentEntity.builder().userAgent("JUnit").build()).getId();
+        user = userRepository.save(UserEntity.builder().userId("user-1").email("user@mail.com").build());
+        UserEntity other = userRepository.save(UserEntity.builder().userId("user-2").email("other@mail.com").build());
+        // Two logins share each timestamp so the id breaks ties.
+        for (int i = 0; i < 10; i++) {
+            loginHistoryRepository.save(login(user, START.plusMinutes(i / 2)));
+        }
+        loginHistoryRepository.save(login(other, START.plusDays(1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContext.setUserId(null);
+    }
+
+    @Test
+    void keysetPagesWalkTheWholeHistoryWithoutGapsOrDuplicates() {
+        List<LoginHistory> all = loginHistoryRepository.findLatest(user.getId(), Limit.of(100));
+        List<LoginHistory> first = loginHistoryRepository.findLatest(user.getId(), Limit.of(3));
+        LoginHistory last = first.get(first.size() - 1);
+        List<LoginHistory> second = loginHistoryRepository.findLatestBefore(user.getId(), last.getLoginTime(), last.getId(), Limit.of(100));
+
+        assertEquals(10, all.size());
+        assertEquals(all.subList(0, 3), first);
+        assertEquals(all.subList(3, 10), second);
+    }
+
+    @Test
+    void streamByUserIdReturnsOldestFirst() {
+        try (Stream<LoginHistory> logins = loginHistoryRepository.streamByUserId(user.getId())) {
+            List<LocalDateTime> times = logins.map(LoginHistory::getLoginTime).toList();
+
+            assertEquals(10, times.size());
+            assertEquals(START, times.get(0));
+        }
+    }
+
+    @Test
+    void projectionDecodesTheAddressAndTheUserAgent() {
+        LoginHistory login = loginHistoryRepository.findLatest(user.getId(), Limit.of(1)).get(0);
+
+        assertEquals("127.0.0.1", login.getIp());
+        assertEquals("JUnit", login.getUserAgent());
+        assertEquals(Optional.of(userAgentId), userAgentRepository.findIdByUserAgent("JUnit"));
+    }
+
+    private LoginHistoryEntity login(UserEntity user, LocalDateTime loginTime) {
+        return LoginHistoryEntity.builder().user(user).loginTime(loginTime)
+                .ip(InetAddresses.forString("127.0.0.1")).userAgentId(userAgentId).success(true).build();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.user_service.repository;
+
+import com.example.user_service.repository.UserBulkRepository.Selection;
+import com.example.user_service.repository.UserBulkRepository.UserRef;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the bulk admin SQL against H2 in PostgreSQL mode with the columns it touches.
+ */
+class UserBulkRepositoryTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private UserBulkRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:bulk-" + System.nanoTime() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+                CREATE TABLE users (id BIGINT PRIMARY KEY, email VARCHAR(255) NOT NULL, created_at TIMESTAMP NOT NULL,
+                    updated_at TIMESTAMP NOT NULL, updated_by BIGINT NOT NULL, login_attempts INT,
+                    account_non_locked BOOLEAN NOT NULL, token_version INT NOT NULL DEFAULT 0)
+                """);
+        jdbcTemplate.execute("CREATE TABLE user_roles (user_id BIGINT, role_id BIGINT)");
+        // id, login attempts, locked, created days ago, role
+        insertUser(1, 0, false, 30, 1);
+        insertUser(2, 6, true, 20, 1);
+        insertUser(3, 7, true, 10, 2);
+        insertUser(4, 2, false, 1, 1);
+        repository = new UserBulkRepository(new NamedParameterJdbcTemplate(dataSource));
+    }
+
+    @Test
+    void findForUpdateAppliesEveryCriterion() {
+        assertEquals(List.of(2L, 3L), ids(Selection.builder().locked(true).build(), 0));
+        assertEquals(List.of(2L, 3L, 4L), ids(Selection.builder().minLoginAttempts(2).build(), 0));
+        assertEquals(List.of(1L, 2L), ids(Selection.builder().createdBefore(LocalDateTime.now().minusDays(15)).build(), 0));
+        assertEquals(List.of(3L), ids(Selection.builder().roleId(2L).build(), 0));
+        assertEquals(List.of(1L, 4L), ids(Selection.builder().notRoleId(2L).excludedUserId(2L).build(), 0));
+        assertEquals(List.of(2L), ids(Selection.builder().ids(List.of(1L, 2L)).roleId(1L).locked(true).build(), 0));
+    }
+
+    @Test
+    void usersInExcludedRolesAreNeitherSelectedNorMissedByTheRoleCheck() {
+        assertEquals(List.of(3L), ids(Selection.builder().excludedRoleIds(List.of(1L)).build(), 0));
+        assertTrue(repository.anyInRoles(Selection.builder().locked(true).build(), List.of(2L)));
+        assertFalse(repository.anyInRoles(Selection.builder().ids(List.of(1L, 2L)).build(), List.of(2L)));
+    }
+
+    @Test
+    void findForUpdateSeeksByIdInChunks() {
+        Selection all = Selection.builder().build();
+
+        assertEquals(List.of(1L, 2L), ids(all, 0, 2));
+        assertEquals(List.of(3L, 4L), ids(all, 2, 2));
+        assertEquals(List.of(), ids(all, 4, 2));
+    }
+
+    @Test
+    void lockInvalidatesTokensAndUnlockResetsAttempts() {
+        assertEquals(2, repository.lock(List.of(1L, 4L), 9L));
+        assertEquals(2, repository.unlock(List.of(2L, 3L), 9L));
+
+        assertEquals(List.of(2L, 3L), ids(Selection.builder().locked(false).build(), 0));
+        assertEquals(List.of(1, 0, 0, 1), column("token_version"));
+        assertEquals(List.of(0, 0, 0, 2), column("login_attempts"));
+        assertEquals(List.of(9, 9, 9, 9), column("updated_by"));
+    }
+
+    @Test
+    void changeRoleMovesUsersAndInvalidatesTheirTokens() {
+        assertEquals(2, repository.changeRole(List.of(1L, 2L), 3L, 9L));
+
+        assertEquals(List.of(1L, 2L), ids(Selection.builder().roleId(3L).build(), 0));
+        assertEquals(List.of(1, 1, 0, 0), column("token_version"));
+    }
+
+    private List<Long> ids(Selection selection, long afterId) {
+        return ids(selection, afterId, 100);
+    }
+
+    private List<Long> ids(Selection selection, long afterId, int limit) {
+        return repository.findForUpdate(selection, afterId, limit).stream().map(UserRef::id).toList();
+    }
+
+    private List<Integer> column(String name) {
+        return jdbcTemplate.queryForList("SELECT " + name + " FROM users ORDER BY id", Integer.class);
+    }
+
+    private void insertUser(long id, int attempts, boolean locked, int createdDaysAgo, long roleId) {
+        LocalDateTime createdAt = LocalDateTime.now().minusDays(createdDaysAgo);
+        jdbcTemplate.update("""
+                INSERT INTO users (id, email, created_at, updated_at, updated_by, login_attempts, account_non_locked)
+                VALUES (?, ?, ?, ?, 1, ?, ?)
+                """, id, "user" + id + "@mail.com", createdAt, createdAt, attempts, !locked);
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)", id, roleId);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.user_service.repository;
+
+import com.example.user_service.repository.UserDeletionRepository.PurgedTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the deletion SQL against H2 in PostgreSQL mode with the columns it touches.
+ */
+class UserDeletionRepositoryTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private UserDeletionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:deletion-" + System.nanoTime() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+                CREATE TABLE users (id BIGINT PRIMARY KEY, email VARCHAR(255) NOT NULL, enabled BOOLEAN NOT NULL,
+                    account_non_locked BOOLEAN NOT NULL, token_version INT NOT NULL DEFAULT 0,
+                    updated_at TIMESTAMP, updated_by BIGINT)
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE login_history (id BIGINT NOT NULL, login_time TIMESTAMP NOT NULL,
+                    user_id BIGINT NOT NULL REFERENCES users (id), PRIMARY KEY (id, login_time))
+                """);
+        jdbcTemplate.execute("CREATE TABLE credentials (id BIGINT PRIMARY KEY, user_id BIGINT NOT NULL REFERENCES users (id))");
+        jdbcTemplate.execute("CREATE TABLE confirmations (id BIGINT PRIMARY KEY, user_id BIGINT NOT NULL REFERENCES users (id))");
+        jdbcTemplate.execute("CREATE TABLE user_roles (user_id BIGINT REFERENCES users (id), role_id BIGINT)");
+        for (long userId = 1; userId <= 2; userId++) {
+            jdbcTemplate.update("INSERT INTO users (id, email, enabled, account_non_locked) VALUES (?, ?, TRUE, TRUE)",
+                    userId, "user" + userId + "@mail.com");
+            jdbcTemplate.update("INSERT INTO credentials VALUES (?, ?)", userId * 10, userId);
+            jdbcTemplate.update("INSERT INTO user_roles VALUES (?, 1)", userId);
+            for (int i = 0; i < 5; i++) {
+                jdbcTemplate.update("INSERT INTO login_history VALUES (?, DATEADD('MINUTE', ?, CURRENT_TIMESTAMP), ?)",
+                        userId * 100 + i, i, userId);
+            }
+        }
+        repository = new UserDeletionRepository(new NamedParameterJdbcTemplate(dataSource));
+    }
+
+    @Test
+    void disableLocksTheUserAndBumpsTheTokenVersion() {
+        assertEquals(Optional.of("user1@mail.com"), repository.disable(1L, 2L));
+
+        assertEquals(Boolean.FALSE, jdbcTemplate.queryForObject("SELECT enabled FROM users WHERE id = 1", Boolean.class));
+        assertEquals(Boolean.FALSE, jdbcTemplate.queryForObject("SELECT account_non_locked FROM users WHERE id = 1", Boolean.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT token_version FROM users WHERE id = 1", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT token_version FROM users WHERE id = 2", Integer.class));
+        assertEquals(Optional.empty(), repository.disable(3L, 2L));
+    }
+
+    @Test
+    void purgeDeletesOneBoundedChunkOfTheUsersRows() {
+        assertEquals(2, repository.purge(PurgedTable.LOGIN_HISTORY, 1L, 2));
+        assertEquals(2, repository.purge(PurgedTable.LOGIN_HISTORY, 1L, 2));
+        assertEquals(1, repository.purge(PurgedTable.LOGIN_HISTORY, 1L, 2));
+        assertEquals(0, repository.purge(PurgedTable.LOGIN_HISTORY, 1L, 2));
+
+        assertEquals(0, count("login_history", 1));
+        assertEquals(5, count("login_history", 2));
+    }
+
+    @Test
+    void purgingEveryTableAllowsTheUserRowToBeDeleted() {
+        for (PurgedTable table : PurgedTable.values()) {
+            repository.purge(table, 1L, 100);
+        }
+
+        assertEquals(1, repository.deleteUser(1L));
+        assertEquals(0, count("credentials", 1));
+        assertEquals(0, count("user_roles", 1));
+        assertEquals(1, count("credentials", 2));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM users", Integer.class));
+    }
+
+    private int count(String table, long userId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table + " WHERE user_id = ?", Integer.class, userId);
+    }
+}
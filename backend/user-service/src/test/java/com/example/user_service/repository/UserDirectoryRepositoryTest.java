@@ -0,0 +1,74 @@
+package com.example.user_service.repository;
+
+import com.example.user_service.directory.UserSnapshot;
+import com.example.user_service.enumeration.Authority;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the directory queries against H2 in PostgreSQL mode with the columns they read.
+ */
+class UserDirectoryRepositoryTest {
+
+    private UserDirectoryRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:directory-" + System.nanoTime() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+                CREATE TABLE users (id BIGINT PRIMARY KEY, created_by BIGINT, updated_by BIGINT, user_id VARCHAR(255),
+                    first_name VARCHAR(255), last_name VARCHAR(255), email VARCHAR(255), email_normalized VARCHAR(255),
+                    phone VARCHAR(255), bio VARCHAR(255), image_url VARCHAR(255), last_login DATE, created_at TIMESTAMP,
+                    updated_at TIMESTAMP, account_non_expired BOOLEAN, account_non_locked BOOLEAN, enabled BOOLEAN,
+                    mfa BOOLEAN, token_version INT, directory_version BIGINT)
+                """);
+        jdbcTemplate.execute("CREATE TABLE roles (id BIGINT PRIMARY KEY, name VARCHAR(255), authorities TEXT)");
+        jdbcTemplate.execute("CREATE TABLE user_roles (user_id BIGINT, role_id BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE credentials (id BIGINT PRIMARY KEY, user_id BIGINT, updated_at TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO roles VALUES (2, 'USER', ?)", Authority.USER.getValue());
+        for (long id = 1; id <= 3; id++) {
+            jdbcTemplate.update("""
+                    INSERT INTO users VALUES (?, 0, 0, ?, 'First', 'Last', ?, ?, NULL, NULL, NULL, DATE '2026-10-01',
+                        CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, TRUE, TRUE, TRUE, FALSE, 2, ?)
+                    """, id, "user-" + id, "User" + id + "@Mail.com", "user" + id + "@mail.com", id * 10);
+            jdbcTemplate.update("INSERT INTO user_roles VALUES (?, 2)", id);
+        }
+        // User 3 has no credential yet, as in the middle of a registration.
+        jdbcTemplate.update("INSERT INTO credentials VALUES (11, 1, CURRENT_TIMESTAMP), (12, 2, CURRENT_TIMESTAMP)");
+        repository = new UserDirectoryRepository(new NamedParameterJdbcTemplate(dataSource));
+    }
+
+    @Test
+    void findVersionsReturnsEveryUser() {
+        assertEquals(Map.of(1L, 10L, 2L, 20L, 3L, 30L), repository.findVersions());
+    }
+
+    @Test
+    void findByIdsReadsCompleteUsersOnly() {
+        List<UserSnapshot> snapshots = repository.findByIds(List.of(1L, 3L, 4L));
+
+        assertEquals(1, snapshots.size());
+        UserSnapshot snapshot = snapshots.get(0);
+        assertEquals(10L, snapshot.version());
+        assertEquals("user1@mail.com", snapshot.emailNormalized());
+        assertEquals("User1@Mail.com", snapshot.view().email());
+        assertEquals("user-1", snapshot.view().userId());
+        assertEquals(Authority.USER, snapshot.view().authorities());
+        assertEquals("USER", snapshot.view().role());
+        assertEquals(LocalDate.of(2026, 10, 1), snapshot.view().lastLogin());
+        assertEquals(2, snapshot.view().tokenVersion());
+        assertNotNull(snapshot.view().credentialUpdatedAt());
+        assertEquals(List.of(), repository.findByIds(List.of()));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.user_service.repository;
+
+import com.example.user_service.utils.UserUtils;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the registration CTE against a real Postgres, where {@code ON CONFLICT} and data-modifying CTEs behave
+ * as in production.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class UserRegistrationRepositoryTest {
+
+    private static final long ADMIN_ROLE_ID = 1L;
+    private static final long ACTOR_ID = 99L;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>(DockerImageName.parse("postgres:16.1"));
+
+    private static JdbcTemplate jdbcTemplate;
+    private static UserRegistrationRepository repository;
+
+    @BeforeAll
+    static void migrate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        repository = new UserRegistrationRepository(new NamedParameterJdbcTemplate(dataSource));
+    }
+
+    @Test
+    void duplicateEmailRegistersNothingAndRowsAreAuditedAsTheActor() {
+        Optional<Long> first = repository.register(
+                UserUtils.createUserEntity("John", "Doe", "John@Example.com", null), ADMIN_ROLE_ID, "hash", ACTOR_ID);
+        Optional<Long> duplicate = repository.register(
+                UserUtils.createUserEntity("Jane", "Doe", "john@example.com", null), ADMIN_ROLE_ID, "hash", ACTOR_ID);
+
+        assertTrue(first.isPresent());
+        assertTrue(duplicate.isEmpty());
+        assertEquals(1, count("SELECT count(*) FROM users WHERE email_normalized = 'john@example.com'"));
+        assertEquals(1, count("SELECT count(*) FROM user_roles WHERE user_id = " + first.get()));
+        assertEquals(1, count("SELECT count(*) FROM credentials WHERE user_id = " + first.get()));
+        assertEquals(1, count("SELECT count(*) FROM users u JOIN credentials c ON c.user_id = u.id WHERE u.id = "
+                + first.get() + " AND u.created_by = " + ACTOR_ID + " AND c.created_by = " + ACTOR_ID));
+    }
+
+    private static long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.user_service.repository;
+
+import com.example.user_service.datasource.SchemaIndexVerifier;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Applies the Flyway migrations to a real Postgres and checks the plan of the email lookup,
+ * so a regression back to a sequential scan fails the build.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class UserRepositoryIndexTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>(DockerImageName.parse("postgres:16.1"));
+
+    private static DriverManagerDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrate() {
+        dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("""
+                INSERT INTO users (id, user_id, first_name, last_name, email, email_normalized,
+                                   created_at, created_by, updated_at, updated_by)
+                SELECT nextval('primary_key_seq'), 'user-' || i, 'First', 'Last', 'User' || i || '@Mail.com',
+                       'user' || i || '@mail.com', now(), 0, now(), 0
+                FROM generate_series(1, 5000) AS i
+                """);
+        jdbcTemplate.execute("ANALYZE users");
+    }
+
+    @Test
+    void findByEmailNormalized_usesUniqueIndex() {
+        List<String> plan = jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM users WHERE email_normalized = ?", String.class, "user42@mail.com");
+
+        assertTrue(plan.stream().anyMatch(line -> line.contains("users_email_normalized_key")), String.join("\n", plan));
+        assertTrue(plan.stream().noneMatch(line -> line.contains("Seq Scan")), String.join("\n", plan));
+    }
+
+    @Test
+    void confirmationsAndCredentials_havePrimaryAndForeignKeys() {
+        List<String> constraints = jdbcTemplate.queryForList("""
+                SELECT conrelid::regclass || ':' || contype FROM pg_constraint
+                WHERE conrelid IN ('confirmations'::regclass, 'credentials'::regclass) AND contype IN ('p', 'f')
+                """, String.class);
+
+        assertEquals(Set.of("confirmations:p", "confirmations:f", "credentials:p", "credentials:f"), Set.copyOf(constraints));
+    }
+
+    @Test
+    void migratedSchema_passesIndexVerification() {
+        assertDoesNotThrow(new SchemaIndexVerifier(dataSource)::verify);
+    }
+}
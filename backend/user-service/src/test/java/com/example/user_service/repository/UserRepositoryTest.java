@@ -0,0 +1,87 @@
+package com.example.user_service.repository;
+
+import com.example.user_service.domain.RequestContext;
+import com.example.user_service.dto.UserView;
+import com.example.user_service.entity.CredentialEntity;
+import com.example.user_service.entity.RoleEntity;
+import com.example.user_service.entity.UserEntity;
+import com.example.user_service.enumeration.Authority;
+import com.example.user_service.utils.UserUtils;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs on H2 in PostgreSQL mode so the native updates resolve the same unquoted table names as in production.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:user-repository;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers_skip_column_definitions=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private CredentialRepository credentialRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private UserEntity user;
+
+    @BeforeEach
+    void setUp() {
+        RequestContext.setUserId(0L);
+        RoleEntity role = roleRepository.save(RoleEntity.builder().name(Authority.MANAGER.name()).authorities(Authority.MANAGER).build());
+        user = userRepository.save(UserUtils.createUserEntity("Ann", "Lee", "Ann@Mail.com", role));
+        credentialRepository.save(new CredentialEntity(user, "hash"));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContext.setUserId(null);
+    }
+
+    @Test
+    void findViewJoinsRoleAndCredential() {
+        UserView view = userRepository.findViewByEmailNormalized("ann@mail.com").orElseThrow();
+
+        assertEquals(user.getUserId(), view.userId());
+        assertEquals("Ann@Mail.com", view.email());
+        assertEquals(Authority.MANAGER.name(), view.role());
+        assertEquals(Authority.MANAGER, view.authorities());
+        assertNotNull(view.credentialUpdatedAt());
+        assertEquals(view, userRepository.findViewByUserId(user.getUserId()).orElseThrow());
+        assertTrue(userRepository.findViewByUserId("unknown").isEmpty());
+    }
+
+    @Test
+    void enableUserOnlyEnablesOnce() {
+        assertEquals(1, userRepository.enableUser(user.getId(), LocalDateTime.now()));
+        assertEquals(0, userRepository.enableUser(user.getId(), LocalDateTime.now()));
+        entityManager.clear();
+
+        assertTrue(userRepository.findById(user.getId()).orElseThrow().isEnabled());
+    }
+}
@@ -1,35 +1,46 @@
 package com.example.user_service.resource;
 
 import com.example.user_service.UserServiceApplication;
+import com.example.user_service.async.AsyncRequests;
 import com.example.user_service.config.TestContainersConfig;
 import com.example.user_service.config.TestEmailConfig;
 import com.example.user_service.config.TestSecurityConfig;
 import com.example.user_service.domain.ApiAuthentication;
 import com.example.user_service.domain.Response;
+import com.example.user_service.domain.TokenData;
 import com.example.user_service.dto.LoginRequest;
 import com.example.user_service.dto.User;
+import com.example.user_service.dto.UserDeletionStatus;
 import com.example.user_service.dto.UserRequest;
+import com.example.user_service.enumeration.DeletionStatus;
 import com.example.user_service.enumeration.TokenType;
 import com.example.user_service.exception.ExceptionHandlerAdvice;
+import com.example.user_service.metrics.ExpectedStatements;
+import com.example.user_service.metrics.QueryCountExtension;
 import com.example.user_service.service.JwtService;
+import com.example.user_service.service.UserDeletionService;
 import com.example.user_service.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -41,8 +52,10 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+// The resource only delegates to the mocked services, so none of these operations may reach the database itself.
 @SpringBootTest
 @ActiveProfiles("test")
+@ExtendWith(QueryCountExtension.class)
 @ContextConfiguration(initializers = TestContainersConfig.Initializer.class,
         classes = {UserServiceApplication.class, TestSecurityConfig.class, TestEmailConfig.class})
 public class UserResourceTest {
@@ -52,12 +65,18 @@ public class UserResourceTest {
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private UserDeletionService userDeletionService;
+
     @Mock
     private HttpServletRequest request;
 
     @Mock
     private HttpServletResponse response;
 
+    @Spy
+    private AsyncRequests asyncRequests = new AsyncRequests(new SimpleAsyncTaskExecutor(), Duration.ofSeconds(10));
+
     @InjectMocks
     private UserResource userResource;
 
@@ -74,6 +93,7 @@ public class UserResourceTest {
     }
 
     @Test
+    @ExpectedStatements(0)
     void saveUserCreatesNewUserSuccessfully() throws Exception {
         UserRequest userRequest = new UserRequest();
         userRequest.setFirstName("John");
@@ -104,7 +124,8 @@ public class UserResourceTest {
     }
 
 @Test
-void loginUserSuccessfully() {
+@ExpectedStatements(0)
+void loginUserSuccessfully() throws Exception {
     LoginRequest loginRequest = new LoginRequest();
     loginRequest.setEmail("john@example.com");
     loginRequest.setPassword("password");
@@ -119,7 +140,7 @@ void loginUserSuccessfully() {
     when(request.getRequestURI()).thenReturn("/api/v1/user/login");
     doNothing().when(jwtService).addCookie(any(), any(), any());
 
-    ResponseEntity<Response> response = userResource.loginUser(loginRequest, request, this.response);
+    ResponseEntity<Response> response = call(userResource.loginUser(loginRequest, request, this.response));
 
     verify(jwtService, times(1)).addCookie(any(), any(), eq(TokenType.ACCESS));
     verify(jwtService, times(1)).addCookie(any(), any(), eq(TokenType.REFRESH));
@@ -130,7 +151,7 @@ void loginUserSuccessfully() {
     @Test
     void enableMfaSuccessfully() {
         String email = "john@example.com";
-        doNothing().when(userService).enableMfa(email);
+        when(userService.enableMfa(email)).thenReturn("qrCodeUrl");
         when(request.getRequestURI()).thenReturn("/api/v1/user/enable-mfa");
 
         ResponseEntity<Response> response = userResource.enableMfa(email, request);
@@ -205,22 +226,21 @@ void loginUserSuccessfully() {
     }
 
 @Test
-void refreshTokensSuccessfully() {
+@ExpectedStatements(0)
+void refreshTokensSuccessfully() throws Exception {
     String refreshToken = "valid-refresh-token";
     User mockUser = User.builder().userId("user123").build();
 
     when(jwtService.extractToken(request, TokenType.REFRESH.getValue())).thenReturn(Optional.of(refreshToken));
-    // Simply return the mockUser instead of trying to create a TokenData
-    when(jwtService.getTokenData(eq(refreshToken), any())).thenReturn(mockUser);
-    when(userService.getUserByUserId(mockUser.getUserId())).thenReturn(mockUser);
+    when(jwtService.getTokenData(eq(refreshToken), any())).thenReturn(TokenData.builder().user(mockUser).isValid(true).build());
     when(request.getRequestURI()).thenReturn("/api/v1/user/refresh");
     doNothing().when(jwtService).addCookie(any(), any(), any());
 
-    ResponseEntity<Response> response = userResource.refreshTokens(request, this.response);
+    ResponseEntity<Response> response = call(userResource.refreshTokens(request, this.response));
 
     verify(jwtService, times(1)).extractToken(request, TokenType.REFRESH.getValue());
     verify(jwtService, times(1)).getTokenData(eq(refreshToken), any());
-    verify(userService, times(1)).getUserByUserId(mockUser.getUserId());
+    verify(userService, never()).getUserByUserId(any());
     verify(jwtService, times(1)).addCookie(any(), any(), eq(TokenType.ACCESS));
     verify(jwtService, times(1)).addCookie(any(), any(), eq(TokenType.REFRESH));
     assert response.getStatusCode() == HttpStatus.OK;
@@ -228,11 +248,11 @@ void refreshTokensSuccessfully() {
 }
 
     @Test
-    void refreshTokensFailsWithMissingToken() {
+    void refreshTokensFailsWithMissingToken() throws Exception {
         when(jwtService.extractToken(request, TokenType.REFRESH.getValue())).thenReturn(Optional.empty());
         when(request.getRequestURI()).thenReturn("/api/v1/user/refresh");
 
-        ResponseEntity<Response> response = userResource.refreshTokens(request, this.response);
+        ResponseEntity<Response> response = call(userResource.refreshTokens(request, this.response));
 
         verify(jwtService, times(1)).extractToken(request, TokenType.REFRESH.getValue());
         verify(jwtService, never()).getTokenData(any(), any());
@@ -243,32 +263,25 @@ void refreshTokensSuccessfully() {
     }
 
     @Test
+    @ExpectedStatements(0)
     void getUserProfileSuccessfully() {
-        String accessToken = "valid-access-token";
         User mockUser = User.builder().userId("user123").build();
-
-        when(jwtService.extractToken(request, TokenType.ACCESS.getValue())).thenReturn(Optional.of(accessToken));
-        when(jwtService.getTokenData(eq(accessToken), any())).thenReturn(mockUser);
-        when(userService.getUserByUserId(mockUser.getUserId())).thenReturn(mockUser);
         when(request.getRequestURI()).thenReturn("/api/v1/user/profile");
 
-        ResponseEntity<Response> response = userResource.getUserProfile(request);
+        ResponseEntity<Response> response = userResource.getUserProfile(mockUser, request);
 
-        verify(jwtService, times(1)).extractToken(request, TokenType.ACCESS.getValue());
-        verify(jwtService, times(1)).getTokenData(eq(accessToken), any());
-        verify(userService, times(1)).getUserByUserId(mockUser.getUserId());
+        verify(jwtService, never()).getTokenData(any(), any());
+        verify(userService, never()).getUserByUserId(any());
         assert response.getStatusCode() == HttpStatus.OK;
         assert response.getBody().message().contains("User profile retrieved successfully");
     }
 
     @Test
-    void getUserProfileFailsWithMissingToken() {
-        when(jwtService.extractToken(request, TokenType.ACCESS.getValue())).thenReturn(Optional.empty());
+    void getUserProfileFailsWithoutAnAuthenticatedUser() {
         when(request.getRequestURI()).thenReturn("/api/v1/user/profile");
 
-        ResponseEntity<Response> response = userResource.getUserProfile(request);
+        ResponseEntity<Response> response = userResource.getUserProfile(null, request);
 
-        verify(jwtService, times(1)).extractToken(request, TokenType.ACCESS.getValue());
         verify(jwtService, never()).getTokenData(any(), any());
         verify(userService, never()).getUserByUserId(any());
         assert response.getStatusCode() == HttpStatus.UNAUTHORIZED;
@@ -314,15 +327,20 @@ void refreshTokensSuccessfully() {
     @Test
     void deleteUserSuccessfully() {
         Long userId = 1L;
-        Authentication authentication = mock(Authentication.class);
+        UserDeletionStatus status = UserDeletionStatus.builder().jobId("job").userId(userId).status(DeletionStatus.QUEUED).build();
 
-        doNothing().when(userService).deleteUser(userId, authentication);
+        when(userDeletionService.startDeletion(userId)).thenReturn(status);
         when(request.getRequestURI()).thenReturn("/api/v1/user/1");
 
-        ResponseEntity<Response> response = userResource.deleteUser(userId, request, authentication);
+        ResponseEntity<Response> response = userResource.deleteUser(userId, request);
 
-        verify(userService, times(1)).deleteUser(userId, authentication);
-        assert response.getStatusCode() == HttpStatus.OK;
-        assert response.getBody().message().contains("User deleted successfully");
+        verify(userDeletionService, times(1)).startDeletion(userId);
+        assert response.getStatusCode() == HttpStatus.ACCEPTED;
+        assert response.getBody().data().get("deletion") == status;
     }
-}
\ No newline at end of file
+
+    @SuppressWarnings("unchecked")
+    private static <T> T call(WebAsyncTask<T> task) throws Exception {
+        return (T) task.getCallable().call();
+    }
+}
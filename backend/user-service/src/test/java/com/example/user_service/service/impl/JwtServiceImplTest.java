@@ -1,8 +1,10 @@
 package com.example.user_service.service.impl;
 
+import com.example.user_service.cache.RoleRegistry;
 import com.example.user_service.domain.Token;
 import com.example.user_service.domain.TokenData;
 import com.example.user_service.dto.User;
+import com.example.user_service.repository.RoleRepository;
 import com.example.user_service.service.UserService;
 import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.Cookie;
@@ -14,6 +16,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -35,6 +38,9 @@ class JwtServiceImplTest {
     @Mock
     private UserService userService;
 
+    @Spy
+    private RoleRegistry roleRegistry = new RoleRegistry(mock(RoleRepository.class));
+
     @Mock
     private HttpServletRequest request;
 
@@ -235,6 +241,24 @@ class JwtServiceImplTest {
         assertFalse(isValid);
     }
 
+    @Test
+    void getTokenDataRejectsTokenIssuedBeforeTokenVersionChanged() {
+        User user = User.builder()
+                .userId("test-user-id")
+                .authorities("READ,WRITE")
+                .role("USER")
+                .tokenVersion(2)
+                .build();
+
+        String token = jwtService.createToken(user, Token::getAccess);
+        user.setTokenVersion(3);
+        when(userService.getUserByUserId(anyString())).thenReturn(user);
+
+        boolean isValid = jwtService.getTokenData(token, TokenData::isValid);
+
+        assertFalse(isValid);
+    }
+
     @Test
     void createTokenGeneratesTokenWithCorrectClaims() {
 
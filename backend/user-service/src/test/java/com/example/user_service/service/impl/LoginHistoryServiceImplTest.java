@@ -0,0 +1,121 @@
+package com.example.user_service.service.impl;
+
+import com.example.user_service.archive.ArchiveQuery;
+import com.example.user_service.archive.LoginHistoryArchive;
+import com.example.user_service.dto.LoginHistory;
+import com.example.user_service.exception.ApiException;
+import com.example.user_service.repository.LoginHistoryRepository;
+import com.example.user_service.service.LoginHistoryService.LoginHistoryPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginHistoryServiceImplTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 19, 12, 0);
+
+    @Mock
+    private LoginHistoryRepository loginHistoryRepository;
+
+    @Mock
+    private LoginHistoryArchive loginHistoryArchive;
+
+    private LoginHistoryServiceImpl loginHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        loginHistoryService = new LoginHistoryServiceImpl(loginHistoryRepository, new ObjectMapper().registerModule(new JavaTimeModule()),
+                loginHistoryArchive);
+    }
+
+    @Test
+    void firstPageReturnsCursorOfLastRowWhenMoreRowsFollow() {
+        when(loginHistoryRepository.findLatest(1L, Limit.of(3))).thenReturn(logins(3));
+
+        LoginHistoryPage page = loginHistoryService.getLoginHistory(1L, null, 2);
+
+        assertEquals(2, page.logins().size());
+        LoginHistoryServiceImpl.Cursor cursor = LoginHistoryServiceImpl.decodeCursor(page.nextCursor());
+        assertEquals(page.logins().get(1).getId(), cursor.id());
+        assertEquals(page.logins().get(1).getLoginTime(), cursor.loginTime());
+    }
+
+    @Test
+    void nextPageSeeksFromCursor() {
+        LoginHistory last = logins(1).get(0);
+        when(loginHistoryRepository.findLatestBefore(1L, last.getLoginTime(), last.getId(), Limit.of(3))).thenReturn(logins(2));
+
+        LoginHistoryPage page = loginHistoryService.getLoginHistory(1L, LoginHistoryServiceImpl.encodeCursor(last), 2);
+
+        assertEquals(2, page.logins().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void invalidCursorThrowsException() {
+        ApiException exception = assertThrows(ApiException.class,
+                () -> loginHistoryService.getLoginHistory(1L, "not-a-cursor", 10));
+
+        assertEquals("Invalid cursor", exception.getMessage());
+    }
+
+    @Test
+    void pageSizeAboveLimitThrowsException() {
+        assertThrows(ApiException.class, () -> loginHistoryService.getLoginHistory(1L, null, 101));
+        verifyNoInteractions(loginHistoryRepository);
+    }
+
+    @Test
+    void exportWritesOneJsonObjectPerLine() throws Exception {
+        when(loginHistoryRepository.streamByUserId(1L)).thenReturn(logins(3).stream());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        loginHistoryService.exportLoginHistory(1L, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":3,"));
+    }
+
+    @Test
+    void exportClosesTheCursor() throws Exception {
+        Stream<LoginHistory> stream = spy(logins(1).stream());
+        when(loginHistoryRepository.streamAll()).thenReturn(stream);
+
+        loginHistoryService.exportLoginHistory(null, new ByteArrayOutputStream());
+
+        verify(stream).close();
+    }
+
+    @Test
+    void archiveSearchRejectsAnEmptyRange() {
+        assertThrows(ApiException.class, () -> loginHistoryService.searchArchivedLoginHistory(1L, NOW, NOW));
+        assertThrows(ApiException.class, () -> loginHistoryService.searchArchivedLoginHistory(null, null, null));
+        verifyNoInteractions(loginHistoryArchive);
+
+        when(loginHistoryArchive.search(new ArchiveQuery(1L, null, NOW))).thenReturn(logins(1));
+        assertEquals(1, loginHistoryService.searchArchivedLoginHistory(1L, null, NOW).size());
+    }
+
+    private static List<LoginHistory> logins(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new LoginHistory((long) count - i, 1L, NOW.minusMinutes(i), "127.0.0.1", "JUnit", true))
+                .toList();
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.user_service.service.impl;
+
+import com.example.user_service.cache.CacheStore;
+import com.example.user_service.event.UserChangedEvent;
+import com.example.user_service.cache.RoleRegistry;
+import com.example.user_service.domain.RequestContext;
+import com.example.user_service.dto.UserSelector;
+import com.example.user_service.entity.RoleEntity;
+import com.example.user_service.enumeration.Authority;
+import com.example.user_service.exception.ApiException;
+import com.example.user_service.repository.UserBulkRepository;
+import com.example.user_service.repository.UserBulkRepository.Selection;
+import com.example.user_service.repository.UserBulkRepository.UserRef;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserAdminServiceImplTest {
+
+    private static final Long ADMIN_ID = 1L;
+
+    @Mock
+    private UserBulkRepository userBulkRepository;
+
+    @Mock
+    private RoleRegistry roleRegistry;
+
+    @Mock
+    private CacheStore<String, Integer> userCache;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher publisher;
+
+    private UserAdminServiceImpl userAdminService;
+
+    @BeforeEach
+    void setUp() {
+        userAdminService = new UserAdminServiceImpl(userBulkRepository, roleRegistry, userCache, transactionTemplate, publisher);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        RequestContext.setUserId(ADMIN_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContext.setUserId(null);
+    }
+
+    @Test
+    void unlockUpdatesEveryChunkAndEvictsLoginAttempts() {
+        List<UserRef> first = refs(1, UserAdminServiceImpl.CHUNK_SIZE);
+        List<UserRef> second = refs(UserAdminServiceImpl.CHUNK_SIZE + 1, 3);
+        when(userBulkRepository.findForUpdate(any(), eq(0L), anyInt())).thenReturn(first);
+        when(userBulkRepository.findForUpdate(any(), eq((long) UserAdminServiceImpl.CHUNK_SIZE), anyInt())).thenReturn(second);
+        when(userBulkRepository.unlock(anyList(), eq(ADMIN_ID))).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+
+        int unlocked = userAdminService.unlockUsers(UserSelector.builder().locked(true).build());
+
+        assertEquals(UserAdminServiceImpl.CHUNK_SIZE + 3, unlocked);
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(userCache).evict("user1@mail.com");
+        verify(publisher).publishEvent(new UserChangedEvent(1L, null));
+        verify(userCache).evict("user" + (UserAdminServiceImpl.CHUNK_SIZE + 3) + "@mail.com");
+    }
+
+    @Test
+    void lockSkipsLockedUsersAndTheActingAdmin() {
+        when(userBulkRepository.findForUpdate(any(), anyLong(), anyInt())).thenReturn(refs(5, 2));
+        when(userBulkRepository.lock(List.of(5L, 6L), ADMIN_ID)).thenReturn(2);
+
+        assertEquals(2, userAdminService.lockUsers(UserSelector.builder().minLoginAttempts(5).build()));
+
+        ArgumentCaptor<Selection> selection = ArgumentCaptor.forClass(Selection.class);
+        verify(userBulkRepository).findForUpdate(selection.capture(), eq(0L), anyInt());
+        assertEquals(Boolean.FALSE, selection.getValue().locked());
+        assertEquals(ADMIN_ID, selection.getValue().excludedUserId());
+        assertEquals(5, selection.getValue().minLoginAttempts());
+    }
+
+    @Test
+    void idListIsSplitIntoChunks() {
+        List<Long> ids = LongStream.rangeClosed(1, UserAdminServiceImpl.CHUNK_SIZE + 1).boxed().toList();
+        when(userBulkRepository.findForUpdate(any(), anyLong(), anyInt())).thenReturn(List.of());
+
+        assertEquals(0, userAdminService.unlockUsers(UserSelector.builder().ids(ids).build()));
+
+        ArgumentCaptor<Selection> selection = ArgumentCaptor.forClass(Selection.class);
+        verify(userBulkRepository, times(2)).findForUpdate(selection.capture(), eq(0L), anyInt());
+        assertEquals(UserAdminServiceImpl.CHUNK_SIZE, selection.getAllValues().get(0).ids().size());
+        assertEquals(List.of((long) UserAdminServiceImpl.CHUNK_SIZE + 1), selection.getAllValues().get(1).ids());
+        verify(userBulkRepository, never()).unlock(any(), any());
+    }
+
+    @Test
+    void changeRoleSkipsUsersAlreadyInTheRole() {
+        registerRoles();
+        when(userBulkRepository.anyInRoles(any(), eq(List.of(1L, 4L)))).thenReturn(false);
+        when(userBulkRepository.findForUpdate(any(), anyLong(), anyInt())).thenReturn(refs(7, 1));
+        when(userBulkRepository.changeRole(List.of(7L), 3L, ADMIN_ID)).thenReturn(1);
+
+        assertEquals(1, userAdminService.changeRole(UserSelector.builder().role("USER").build(), "MANAGER", "ADMIN"));
+
+        ArgumentCaptor<Selection> selection = ArgumentCaptor.forClass(Selection.class);
+        verify(userBulkRepository).findForUpdate(selection.capture(), eq(0L), anyInt());
+        assertEquals(2L, selection.getValue().roleId());
+        assertEquals(3L, selection.getValue().notRoleId());
+        assertEquals(List.of(1L, 4L), selection.getValue().excludedRoleIds());
+    }
+
+    @Test
+    void adminCannotGrantElevatedRoles() {
+        registerRoles();
+
+        assertThrows(ApiException.class,
+                () -> userAdminService.changeRole(UserSelector.builder().role("USER").build(), "SUPER_ADMIN", "ADMIN"));
+        assertThrows(ApiException.class,
+                () -> userAdminService.changeRole(UserSelector.builder().role("USER").build(), "ADMIN", "ADMIN"));
+        verifyNoInteractions(userBulkRepository);
+    }
+
+    @Test
+    void adminCannotChangeTheRoleOfElevatedUsers() {
+        registerRoles();
+        when(userBulkRepository.anyInRoles(any(), eq(List.of(1L, 4L)))).thenReturn(true);
+
+        assertThrows(ApiException.class,
+                () -> userAdminService.changeRole(UserSelector.builder().locked(false).build(), "USER", "ADMIN"));
+        verify(userBulkRepository, never()).findForUpdate(any(), anyLong(), anyInt());
+        verify(userBulkRepository, never()).changeRole(any(), any(), any());
+    }
+
+    @Test
+    void superAdminCanGrantAdmin() {
+        registerRoles();
+        when(userBulkRepository.findForUpdate(any(), anyLong(), anyInt())).thenReturn(refs(7, 1));
+        when(userBulkRepository.changeRole(List.of(7L), 1L, ADMIN_ID)).thenReturn(1);
+
+        assertEquals(1, userAdminService.changeRole(UserSelector.builder().ids(List.of(7L)).build(), "ADMIN", "SUPER_ADMIN"));
+
+        verify(userBulkRepository, never()).anyInRoles(any(), any());
+    }
+
+    @Test
+    void emptySelectorIsRejected() {
+        assertThrows(ApiException.class, () -> userAdminService.lockUsers(new UserSelector()));
+        assertThrows(ApiException.class, () -> userAdminService.unlockUsers(UserSelector.builder().ids(List.of()).build()));
+        verifyNoInteractions(userBulkRepository);
+    }
+
+    @Test
+    void unknownRoleIsRejected() {
+        when(roleRegistry.findByName("NOPE")).thenReturn(Optional.empty());
+
+        assertThrows(ApiException.class,
+                () -> userAdminService.changeRole(UserSelector.builder().locked(true).build(), "NOPE", "ADMIN"));
+        verifyNoInteractions(userBulkRepository);
+    }
+
+    private static List<UserRef> refs(long firstId, int count) {
+        return LongStream.range(firstId, firstId + count)
+                .mapToObj(id -> new UserRef(id, "user" + id + "@mail.com"))
+                .toList();
+    }
+
+    private void registerRoles() {
+        List<RoleEntity> roles = List.of(role(1L, "ADMIN", Authority.ADMIN), role(2L, "USER", Authority.USER),
+                role(3L, "MANAGER", Authority.MANAGER), role(4L, "SUPER_ADMIN", Authority.SUPER_ADMIN));
+        roles.forEach(role -> lenient().when(roleRegistry.findByName(role.getName())).thenReturn(Optional.of(role)));
+        lenient().when(roleRegistry.findAll()).thenReturn(roles);
+    }
+
+    private static RoleEntity role(Long id, String name, Authority authorities) {
+        RoleEntity role = RoleEntity.builder().name(name).authorities(authorities).build();
+        ReflectionTestUtils.setField(role, "id", id);
+        return role;
+    }
+}
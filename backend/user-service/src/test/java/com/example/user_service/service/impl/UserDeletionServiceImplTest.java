@@ -0,0 +1,133 @@
+package com.example.user_service.service.impl;
+
+import com.example.user_service.cache.CacheStore;
+import com.example.user_service.event.UserChangedEvent;
+import com.example.user_service.deletion.UserDeletionJob;
+import com.example.user_service.deletion.UserDeletionProperties;
+import com.example.user_service.domain.RequestContext;
+import com.example.user_service.dto.UserDeletionStatus;
+import com.example.user_service.enumeration.DeletionStatus;
+import com.example.user_service.exception.ApiException;
+import com.example.user_service.repository.UserDeletionRepository;
+import com.example.user_service.repository.UserDeletionRepository.PurgedTable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserDeletionServiceImplTest {
+
+    private static final Long ADMIN_ID = 1L;
+
+    @Mock
+    private UserDeletionRepository userDeletionRepository;
+
+    @Mock
+    private CacheStore<String, Integer> userCache;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher publisher;
+
+    private UserDeletionProperties properties;
+    private UserDeletionServiceImpl userDeletionService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UserDeletionProperties();
+        properties.setChunkSize(2);
+        properties.setPause(Duration.ZERO);
+        userDeletionService = new UserDeletionServiceImpl(userDeletionRepository, properties, userCache, transactionTemplate, publisher);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        RequestContext.setUserId(ADMIN_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContext.setUserId(null);
+    }
+
+    @Test
+    void runPurgesEveryTableInChunksBeforeDeletingTheUser() {
+        when(userDeletionRepository.purge(any(), anyLong(), anyInt())).thenReturn(0);
+        when(userDeletionRepository.purge(eq(PurgedTable.LOGIN_HISTORY), eq(5L), eq(2))).thenReturn(2, 2, 1);
+        when(userDeletionRepository.purge(eq(PurgedTable.CREDENTIALS), eq(5L), eq(2))).thenReturn(1);
+        UserDeletionJob job = new UserDeletionJob("job", 5L);
+
+        userDeletionService.run(job);
+
+        InOrder inOrder = inOrder(userDeletionRepository);
+        inOrder.verify(userDeletionRepository, times(3)).purge(PurgedTable.LOGIN_HISTORY, 5L, 2);
+        inOrder.verify(userDeletionRepository).purge(PurgedTable.USER_ROLES, 5L, 2);
+        inOrder.verify(userDeletionRepository).deleteUser(5L);
+        UserDeletionStatus status = job.toStatus();
+        assertEquals(DeletionStatus.COMPLETED, status.getStatus());
+        assertEquals(5L, status.getDeleted().get("login_history"));
+        assertEquals(1L, status.getDeleted().get("credentials"));
+        assertEquals(0L, status.getDeleted().get("confirmations"));
+    }
+
+    @Test
+    void failedPurgeIsReportedAndKeepsTheUserRow() {
+        when(userDeletionRepository.purge(any(), anyLong(), anyInt()))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+        UserDeletionJob job = new UserDeletionJob("job", 5L);
+
+        userDeletionService.run(job);
+
+        assertEquals(DeletionStatus.FAILED, job.getStatus());
+        assertEquals("connection lost", job.getMessage());
+        verify(userDeletionRepository, never()).deleteUser(anyLong());
+    }
+
+    @Test
+    void startDeletionDisablesTheUserBeforeQueueingThePurge() {
+        when(userDeletionRepository.disable(5L, ADMIN_ID)).thenReturn(Optional.of("user@mail.com"));
+        userDeletionService.startExecutor();
+        try {
+            UserDeletionStatus status = userDeletionService.startDeletion(5L);
+
+            verify(userCache).evict("user@mail.com");
+            verify(publisher).publishEvent(new UserChangedEvent(5L, null));
+            assertEquals(5L, status.getUserId());
+            verify(userDeletionRepository, timeout(1000)).deleteUser(5L);
+            assertEquals(5L, userDeletionService.getDeletionStatus(status.getJobId()).getUserId());
+        } finally {
+            userDeletionService.stopExecutor();
+        }
+    }
+
+    @Test
+    void startDeletionRejectsUnknownUsersAndSelfDeletion() {
+        when(userDeletionRepository.disable(5L, ADMIN_ID)).thenReturn(Optional.empty());
+
+        assertEquals("User not found",
+                assertThrows(ApiException.class, () -> userDeletionService.startDeletion(5L)).getMessage());
+        assertEquals("You cannot delete your own account",
+                assertThrows(ApiException.class, () -> userDeletionService.startDeletion(ADMIN_ID)).getMessage());
+        verifyNoInteractions(userCache);
+    }
+
+    @Test
+    void unknownJobThrowsException() {
+        assertThrows(ApiException.class, () -> userDeletionService.getDeletionStatus("missing"));
+    }
+}
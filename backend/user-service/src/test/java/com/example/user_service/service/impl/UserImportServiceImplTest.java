@@ -0,0 +1,152 @@
+package com.example.user_service.service.impl;
+
+import com.example.user_service.cache.RoleRegistry;
+import com.example.user_service.dto.UserImportStatus;
+import com.example.user_service.entity.RoleEntity;
+import com.example.user_service.enumeration.ImportStatus;
+import com.example.user_service.event.UserEvent;
+import com.example.user_service.exception.ApiException;
+import com.example.user_service.importer.*;
+import com.example.user_service.link.LinkPurpose;
+import com.example.user_service.link.SignedLinkCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceImplTest {
+
+    private static final String HEADER = "firstName,lastName,email,password\n";
+
+    @Mock
+    private UserImportWriter userImportWriter;
+
+    @Mock
+    private RoleRegistry roleRegistry;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher publisher;
+
+    @Mock
+    private SignedLinkCodec signedLinkCodec;
+
+    private UserImportProperties properties;
+    private UserImportServiceImpl userImportService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UserImportProperties();
+        properties.setBatchSize(2);
+        properties.setHashingThreads(2);
+        userImportService = new UserImportServiceImpl(userImportWriter, properties, roleRegistry, passwordEncoder,
+                transactionTemplate, publisher, new ObjectMapper(), signedLinkCodec);
+        userImportService.startExecutors();
+        RoleEntity role = new RoleEntity();
+        role.setName("USER");
+        lenient().when(roleRegistry.findByName("USER")).thenReturn(Optional.of(role));
+        lenient().when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hashed-" + invocation.getArgument(0));
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userImportService.stopExecutors();
+    }
+
+    @Test
+    void importsValidRowsAndCountsDuplicatesAndInvalidRows() {
+        when(userImportWriter.findExistingEmails(any())).thenAnswer(invocation ->
+                invocation.<java.util.Collection<String>>getArgument(0).contains("taken@mail.com") ? Set.of("taken@mail.com") : Set.of());
+        when(userImportWriter.insert(anyList(), any(), any(), eq(true))).thenAnswer(invocation ->
+                invocation.<List<?>>getArgument(0).stream().map(user -> 1L).toList());
+
+        UserImportStatus status = run(HEADER + """
+                Ann,Lee,ann@mail.com,secret
+                Bob,Ray,Taken@Mail.com,secret
+                Ann,Lee,ANN@mail.com,secret
+                Cid,Poe,not-an-email,secret
+                Dee,Fox,dee@mail.com,secret
+                """, false);
+
+        assertEquals(ImportStatus.COMPLETED, status.getStatus());
+        assertEquals(5, status.getRowsRead());
+        assertEquals(2, status.getImported());
+        assertEquals(2, status.getDuplicates());
+        assertEquals(1, status.getFailed());
+        assertEquals(List.of("line 5: invalid email address"), status.getErrors());
+        verify(userImportWriter, times(2)).insert(anyList(), any(), any(), eq(true));
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void failedBatchIsRetriedRowByRow() {
+        when(userImportWriter.findExistingEmails(any())).thenReturn(Set.of());
+        when(userImportWriter.insert(anyList(), any(), any(), eq(false))).thenAnswer(invocation -> {
+            List<PreparedUser> users = invocation.getArgument(0);
+            if (users.size() > 1 || users.get(0).emailNormalized().equals("bad@mail.com")) {
+                throw new DuplicateKeyException("duplicate key");
+            }
+            return List.of(1L);
+        });
+        when(signedLinkCodec.issue(LinkPurpose.VERIFY_ACCOUNT, 1L, 0)).thenReturn("signed-key");
+
+        UserImportStatus status = run(HEADER + """
+                Ann,Lee,ann@mail.com,secret
+                Bad,Row,bad@mail.com,secret
+                """, true);
+
+        assertEquals(ImportStatus.COMPLETED, status.getStatus());
+        assertEquals(1, status.getImported());
+        assertEquals(1, status.getFailed());
+        assertEquals(List.of("line 3: duplicate key"), status.getErrors());
+        verify(publisher).publishEvent(any(UserEvent.class));
+    }
+
+    @Test
+    void missingRoleFailsTheJob() {
+        when(roleRegistry.findByName("USER")).thenReturn(Optional.empty());
+
+        UserImportStatus status = run(HEADER, false);
+
+        assertEquals(ImportStatus.FAILED, status.getStatus());
+        assertEquals("Role not found", status.getMessage());
+    }
+
+    @Test
+    void unknownJobThrowsException() {
+        assertThrows(ApiException.class, () -> userImportService.getImportStatus("missing"));
+    }
+
+    private UserImportStatus run(String content, boolean sendVerificationEmails) {
+        ImportJob job = new ImportJob("job", properties.getMaxReportedErrors());
+        UserImportReader reader = new UserImportReader(new BufferedReader(new StringReader(content)), ImportFormat.CSV, new ObjectMapper());
+        userImportService.run(job, reader, 1L, sendVerificationEmails);
+        return job.toStatus();
+    }
+}
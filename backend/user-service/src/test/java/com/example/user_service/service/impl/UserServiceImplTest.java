@@ -4,34 +4,55 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import com.example.user_service.cache.CacheSpec;
 import com.example.user_service.cache.CacheStore;
+import com.example.user_service.cache.RoleRegistry;
+import com.example.user_service.cache.SingleFlight;
+import com.example.user_service.cache.UserAgentRegistry;
+import com.example.user_service.cache.UserProfileCache;
+import com.example.user_service.directory.UserDirectory;
 import com.example.user_service.domain.ApiAuthentication;
 import com.example.user_service.domain.RequestContext;
 import com.example.user_service.dto.User;
 import com.example.user_service.dto.UserRequest;
+import com.example.user_service.dto.UserView;
 import com.example.user_service.entity.*;
 import com.example.user_service.enumeration.Authority;
+import com.example.user_service.enumeration.EventType;
 import com.example.user_service.enumeration.LoginType;
+import com.example.user_service.event.UserChangedEvent;
 import com.example.user_service.event.UserEvent;
 import com.example.user_service.exception.ApiException;
+import com.example.user_service.link.*;
 import com.example.user_service.repository.*;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.lang.reflect.Field;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceImplTest {
@@ -40,7 +61,16 @@ class UserServiceImplTest {
     private UserRepository userRepository;
 
     @Mock
-    private RoleRepository roleRepository;
+    private UserRegistrationRepository userRegistrationRepository;
+
+    @Mock
+    private RoleRegistry roleRegistry;
+
+    @Mock
+    private UserAgentRegistry userAgentRegistry;
+
+    @Mock
+    private UserDirectory userDirectory;
 
     @Mock
     private CredentialRepository credentialRepository;
@@ -69,6 +99,15 @@ class UserServiceImplTest {
     @Mock
     private Authentication authentication;
 
+    @Spy
+    private SignedLinkCodec signedLinkCodec = new SignedLinkCodec(linkProperties(), Clock.systemUTC());
+
+    @Spy
+    private UserProfileCache userProfileCache = new UserProfileCache(CacheSpec.of(Duration.ofMinutes(5), 100L));
+
+    @Spy
+    private SingleFlight<String, Optional<UserView>> userLookups = new SingleFlight<>(Duration.ofSeconds(5));
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -143,34 +182,62 @@ private void setFieldValue(Object object, String fieldName, Object value) throws
 
     @Test
     void createUserWhenEmailAvailable() {
-        when(userRepository.existsByEmail(anyString())).thenReturn(false);
-        when(roleRepository.findByNameIgnoreCase(Authority.USER.name())).thenReturn(Optional.of(roleEntity));
-        when(userRepository.save(any(UserEntity.class))).thenReturn(userEntity);
+        when(roleRegistry.findByName(Authority.USER.name())).thenReturn(Optional.of(roleEntity));
+        when(passwordEncoder.encode("password")).thenReturn("encodedPassword");
+        when(userRegistrationRepository.isSupported()).thenReturn(true);
+        when(userRegistrationRepository.register(any(UserEntity.class), any(), eq("encodedPassword"), eq(1L))).thenReturn(Optional.of(1L));
 
         userService.createUser("John", "Doe", "test@example.com", "password");
 
-        verify(userRepository).existsByEmail("test@example.com");
-        verify(userRepository).save(any(UserEntity.class));
-        verify(credentialRepository).save(any(CredentialEntity.class));
-        verify(confirmationRepository).save(any(ConfirmationEntity.class));
-        verify(publisher).publishEvent(any(UserEvent.class));
+        verify(userRepository, never()).existsByEmailNormalized(anyString());
+        verify(userRepository, never()).save(any(UserEntity.class));
+        verify(credentialRepository, never()).save(any(CredentialEntity.class));
+        verify(confirmationRepository, never()).save(any(ConfirmationEntity.class));
+        ArgumentCaptor<UserEvent> event = ArgumentCaptor.forClass(UserEvent.class);
+        verify(publisher).publishEvent(event.capture());
+        assertEquals("test@example.com", event.getValue().getUser().getEmail());
+        assertEquals(1L, signedLinkCodec.parse((String) event.getValue().getData().get("key"), LinkPurpose.VERIFY_ACCOUNT).userId());
     }
 
     @Test
     void createUserWhenEmailAlreadyExistsThrowsException() {
-        when(userRepository.existsByEmail("test@example.com")).thenReturn(true);
+        when(roleRegistry.findByName(Authority.USER.name())).thenReturn(Optional.of(roleEntity));
+        when(passwordEncoder.encode("password")).thenReturn("encodedPassword");
+        when(userRegistrationRepository.isSupported()).thenReturn(true);
+        when(userRegistrationRepository.register(any(UserEntity.class), any(), eq("encodedPassword"), eq(1L))).thenReturn(Optional.empty());
 
         ApiException exception = assertThrows(ApiException.class,
             () -> userService.createUser("John", "Doe", "test@example.com", "password"));
 
         assertEquals("User with this email already exists", exception.getMessage());
-        verify(userRepository, never()).save(any(UserEntity.class));
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void createUserWithoutPostgresSavesTheEntities() throws Exception {
+        UserEntity saved = UserEntity.builder().email("test@example.com").build();
+        setFieldValue(saved, "id", 5L);
+        when(roleRegistry.findByName(Authority.USER.name())).thenReturn(Optional.of(roleEntity));
+        when(passwordEncoder.encode("password")).thenReturn("encodedPassword");
+        when(userRegistrationRepository.isSupported()).thenReturn(false);
+        when(userRepository.existsByEmailNormalized("test@example.com")).thenReturn(false);
+        when(userRepository.save(any(UserEntity.class))).thenReturn(saved);
+
+        userService.createUser("John", "Doe", "Test@Example.com", "password");
+
+        verify(userRegistrationRepository, never()).register(any(), any(), any(), any());
+        ArgumentCaptor<CredentialEntity> credential = ArgumentCaptor.forClass(CredentialEntity.class);
+        verify(credentialRepository).save(credential.capture());
+        assertEquals("encodedPassword", credential.getValue().getPassword());
+        ArgumentCaptor<UserEvent> event = ArgumentCaptor.forClass(UserEvent.class);
+        verify(publisher).publishEvent(event.capture());
+        assertEquals(5L, signedLinkCodec.parse((String) event.getValue().getData().get("key"), LinkPurpose.VERIFY_ACCOUNT).userId());
     }
 
     @Test
     void verifyAccountKeyWhenKeyValid() {
         when(confirmationRepository.findByKey("confirmationKey")).thenReturn(Optional.of(confirmationEntity));
-        when(userRepository.findByEmailIgnoreCase("test@example.com")).thenReturn(Optional.of(userEntity));
+        when(userRepository.findByEmailNormalized("test@example.com")).thenReturn(Optional.of(userEntity));
 
         userService.verifyAccountKey("confirmationKey");
 
@@ -189,10 +256,110 @@ private void setFieldValue(Object object, String fieldName, Object value) throws
         assertEquals("Invalid key", exception.getMessage());
     }
 
+    @Test
+    void verifyAccountKeyWithSignedLinkEnablesUserWithoutLookups() {
+        String key = signedLinkCodec.issue(LinkPurpose.VERIFY_ACCOUNT, 1L, 0);
+        // The conditional update finds the account already enabled on the second use.
+        when(userRepository.enableUser(eq(1L), any(LocalDateTime.class))).thenReturn(1, 0);
+
+        userService.verifyAccountKey(key);
+
+        verify(userRepository, never()).findByEmailNormalized(anyString());
+        verifyNoInteractions(confirmationRepository);
+        ApiException exception = assertThrows(ApiException.class, () -> userService.verifyAccountKey(key));
+        assertEquals("Link has already been used", exception.getMessage());
+    }
+
+    @Test
+    void verifyAccountKeyLeavesTheLinkUsableWhenTheTransactionRollsBack() {
+        String key = signedLinkCodec.issue(LinkPurpose.VERIFY_ACCOUNT, 1L, 0);
+        when(userRepository.enableUser(eq(1L), any(LocalDateTime.class)))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(1);
+
+        assertThrows(QueryTimeoutException.class, () -> userService.verifyAccountKey(key));
+        userService.verifyAccountKey(key);
+
+        verify(userRepository, times(2)).enableUser(eq(1L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void resendVerificationPublishesANewLinkForADisabledUser() {
+        userEntity.setEnabled(false);
+        when(userRepository.findByEmailNormalized("test@example.com")).thenReturn(Optional.of(userEntity));
+
+        userService.resendVerification(" Test@Example.com");
+
+        ArgumentCaptor<UserEvent> event = ArgumentCaptor.forClass(UserEvent.class);
+        verify(publisher).publishEvent(event.capture());
+        assertEquals(EventType.REGISTRATION, event.getValue().getType());
+        SignedLink link = signedLinkCodec.parse((String) event.getValue().getData().get("key"), LinkPurpose.VERIFY_ACCOUNT);
+        assertEquals(1L, link.userId());
+    }
+
+    @Test
+    void resendVerificationIgnoresEnabledAndUnknownAccounts() {
+        when(userRepository.findByEmailNormalized("test@example.com")).thenReturn(Optional.of(userEntity));
+        when(userRepository.findByEmailNormalized("nobody@example.com")).thenReturn(Optional.empty());
+
+        userService.resendVerification("test@example.com");
+        userService.resendVerification("nobody@example.com");
+
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void verifyAccountKeyRejectsTamperedOrMisusedLink() {
+        String key = signedLinkCodec.issue(LinkPurpose.VERIFY_ACCOUNT, 1L, 0);
+        String resetKey = signedLinkCodec.issue(LinkPurpose.RESET_PASSWORD, 1L, 0);
+        String tampered = key.substring(0, key.length() - 2) + (key.endsWith("AA") ? "BB" : "AA");
+
+        assertEquals("Invalid key", assertThrows(ApiException.class, () -> userService.verifyAccountKey(tampered)).getMessage());
+        assertEquals("Invalid key", assertThrows(ApiException.class, () -> userService.verifyAccountKey(resetKey)).getMessage());
+        verify(userRepository, never()).enableUser(any(), any());
+    }
+
+    @Test
+    void requestPasswordResetPublishesLinkBoundToCurrentPassword() {
+        when(userRepository.findByEmailNormalized("test@example.com")).thenReturn(Optional.of(userEntity));
+        when(credentialRepository.getCredentialByUserEntityId(1L)).thenReturn(Optional.of(credentialEntity));
+
+        userService.requestPasswordReset(" Test@Example.com");
+
+        ArgumentCaptor<UserEvent> event = ArgumentCaptor.forClass(UserEvent.class);
+        verify(publisher).publishEvent(event.capture());
+        assertEquals(EventType.RESETPASSWORD, event.getValue().getType());
+        SignedLink link = signedLinkCodec.parse((String) event.getValue().getData().get("key"), LinkPurpose.RESET_PASSWORD);
+        assertEquals(SignedLinkCodec.fingerprint("encodedPassword"), link.binding());
+    }
+
+    @Test
+    void requestPasswordResetIgnoresUnknownEmail() {
+        when(userRepository.findByEmailNormalized("nobody@example.com")).thenReturn(Optional.empty());
+
+        userService.requestPasswordReset("nobody@example.com");
+
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void resetPasswordChangesPasswordOnceAndEndsSessions() {
+        String key = signedLinkCodec.issue(LinkPurpose.RESET_PASSWORD, 1L, SignedLinkCodec.fingerprint("encodedPassword"));
+        when(credentialRepository.findForUpdateByUserEntityId(1L)).thenReturn(Optional.of(credentialEntity));
+        when(passwordEncoder.encode("NewPassword1")).thenReturn("newEncodedPassword");
+
+        userService.resetPassword(key, "NewPassword1", "NewPassword1");
+
+        assertEquals("newEncodedPassword", credentialEntity.getPassword());
+        assertEquals(1, userEntity.getTokenVersion());
+        ApiException exception = assertThrows(ApiException.class,
+                () -> userService.resetPassword(key, "NewPassword1", "NewPassword1"));
+        assertEquals("Link has already been used", exception.getMessage());
+    }
+
     @Test
     void getUserByEmailWhenExisting() {
-        when(userRepository.findByEmailIgnoreCase("test@example.com")).thenReturn(Optional.of(userEntity));
-        when(credentialRepository.getCredentialByUserEntityId(userEntity.getId())).thenReturn(Optional.of(credentialEntity));
+        when(userRepository.findViewByEmailNormalized("test@example.com")).thenReturn(Optional.of(userView(LocalDateTime.now())));
 
         User user = userService.getUserByEmail("test@example.com");
 
@@ -200,9 +367,56 @@ private void setFieldValue(Object object, String fieldName, Object value) throws
         assertEquals("test@example.com", user.getEmail());
     }
 
+    @Test
+    void getUserByEmailLooksUpNormalizedEmail() {
+        when(userRepository.findViewByEmailNormalized("test@example.com")).thenReturn(Optional.of(userView(LocalDateTime.now())));
+
+        User user = userService.getUserByEmail("  Test@Example.COM ");
+
+        assertEquals("test@example.com", user.getEmail());
+    }
+
+    @Test
+    void getUserByEmailIsServedFromTheDirectoryWhenItHasTheUser() {
+        when(userDirectory.findByEmailNormalized("test@example.com")).thenReturn(Optional.of(userView(LocalDateTime.now())));
+
+        User user = userService.getUserByEmail(" Test@Example.com");
+
+        assertEquals("test@example.com", user.getEmail());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void concurrentGetUserByEmailCallsShareOneQuery() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findViewByEmailNormalized("test@example.com")).thenAnswer(invocation -> {
+            release.await();
+            return Optional.of(userView(LocalDateTime.now()));
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<User>> users = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                users.add(executor.submit(() -> userService.getUserByEmail("test@example.com")));
+            }
+            while (userLookups.getStats().coalesced() < 3) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<User> user : users) {
+                assertEquals("test@example.com", user.get(5, TimeUnit.SECONDS).getEmail());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(userRepository, times(1)).findViewByEmailNormalized("test@example.com");
+        assertEquals(1, userLookups.getStats().loads());
+    }
+
     @Test
     void getUserByEmailWhenNotExistingThrowsException() {
-        when(userRepository.findByEmailIgnoreCase("nonexistent@example.com")).thenReturn(Optional.empty());
+        when(userRepository.findViewByEmailNormalized("nonexistent@example.com")).thenReturn(Optional.empty());
 
         ApiException exception = assertThrows(ApiException.class,
             () -> userService.getUserByEmail("nonexistent@example.com"));
@@ -212,22 +426,26 @@ private void setFieldValue(Object object, String fieldName, Object value) throws
 
     @Test
     void authenticateUserWithValidCredentials() {
-        when(userRepository.findByEmailIgnoreCase("test@example.com")).thenReturn(Optional.of(userEntity));
+        when(userRepository.findByEmailNormalized("test@example.com")).thenReturn(Optional.of(userEntity));
         when(credentialRepository.getCredentialByUserEntityId(userEntity.getId())).thenReturn(Optional.of(credentialEntity));
         when(passwordEncoder.matches("password", "encodedPassword")).thenReturn(true);
         when(request.getRemoteAddr()).thenReturn("127.0.0.1");
         when(request.getHeader("User-Agent")).thenReturn("Mozilla/5.0");
+        when(userAgentRegistry.idOf("Mozilla/5.0")).thenReturn(7);
 
         ApiAuthentication authentication = userService.authenticateUser("test@example.com", "password", request);
 
         assertNotNull(authentication);
         assertTrue(authentication.isAuthenticated());
-        verify(loginHistoryRepository).save(any(LoginHistoryEntity.class));
+        ArgumentCaptor<LoginHistoryEntity> login = ArgumentCaptor.forClass(LoginHistoryEntity.class);
+        verify(loginHistoryRepository).save(login.capture());
+        assertEquals("127.0.0.1", login.getValue().getIp().getHostAddress());
+        assertEquals(7, login.getValue().getUserAgentId());
     }
 
     @Test
     void authenticateUserWithInvalidPasswordThrowsException() {
-        when(userRepository.findByEmailIgnoreCase("test@example.com")).thenReturn(Optional.of(userEntity));
+        when(userRepository.findByEmailNormalized("test@example.com")).thenReturn(Optional.of(userEntity));
         when(credentialRepository.getCredentialByUserEntityId(userEntity.getId())).thenReturn(Optional.of(credentialEntity));
         when(passwordEncoder.matches("wrongPassword", "encodedPassword")).thenReturn(false);
         when(request.getRemoteAddr()).thenReturn("127.0.0.1");
@@ -242,7 +460,7 @@ private void setFieldValue(Object object, String fieldName, Object value) throws
 
     @Test
     void enableMfaForUser() {
-        when(userRepository.findByEmailIgnoreCase("test@example.com")).thenReturn(Optional.of(userEntity));
+        when(userRepository.findByEmailNormalized("test@example.com")).thenReturn(Optional.of(userEntity));
         when(mfaService.generateSecretKey()).thenReturn("secretKey");
         when(mfaService.generateQrCodeUrl(anyString(), anyString())).thenReturn("qrCodeUrl");
 
@@ -256,7 +474,7 @@ private void setFieldValue(Object object, String fieldName, Object value) throws
 
     @Test
     void verifyMfaWithValidCode() {
-        when(userRepository.findByEmailIgnoreCase("test@example.com")).thenReturn(Optional.of(userEntity));
+        when(userRepository.findByEmailNormalized("test@example.com")).thenReturn(Optional.of(userEntity));
         when(mfaService.validateOtp("secretKey", 123456)).thenReturn(true);
         userEntity.setQrCodeSecret("secretKey");
 
@@ -267,19 +485,19 @@ private void setFieldValue(Object object, String fieldName, Object value) throws
 
     @Test
     void updateLoginAttemptLockAccountAfterTooManyAttempts() {
-        when(userRepository.findByEmailIgnoreCase("test@example.com")).thenReturn(Optional.of(userEntity));
-        when(userCache.get("test@example.com")).thenReturn(6);
+        when(userRepository.findByEmailNormalized("test@example.com")).thenReturn(Optional.of(userEntity));
+        when(userCache.compute(eq("test@example.com"), any())).thenReturn(6);
 
         userService.updateLoginAttempt("test@example.com", LoginType.LOGIN_ATTEMPT, request);
 
-        assertEquals(1, userEntity.getLoginAttempts());
+        assertEquals(6, userEntity.getLoginAttempts());
         assertFalse(userEntity.isAccountNonLocked());
         verify(userRepository).save(userEntity);
     }
 
     @Test
     void updateLoginAttemptResetOnSuccessfulLogin() {
-        when(userRepository.findByEmailIgnoreCase("test@example.com")).thenReturn(Optional.of(userEntity));
+        when(userRepository.findByEmailNormalized("test@example.com")).thenReturn(Optional.of(userEntity));
         when(request.getRemoteAddr()).thenReturn("127.0.0.1");
         when(request.getHeader("User-Agent")).thenReturn("Mozilla/5.0");
 
@@ -297,7 +515,7 @@ private void setFieldValue(Object object, String fieldName, Object value) throws
     void unlockUserResetsLoginAttempts() {
         userEntity.setLoginAttempts(5);
         userEntity.setAccountNonLocked(false);
-        when(userRepository.findByEmailIgnoreCase("test@example.com")).thenReturn(Optional.of(userEntity));
+        when(userRepository.findByEmailNormalized("test@example.com")).thenReturn(Optional.of(userEntity));
 
         userService.unlockedUser("test@example.com");
 
@@ -317,7 +535,7 @@ private void setFieldValue(Object object, String fieldName, Object value) throws
         userRequest.setBio("Updated bio");
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(userEntity));
-        when(userRepository.existsByEmail("test@example.com")).thenReturn(true);
+        when(userRepository.existsByEmailNormalized("test@example.com")).thenReturn(true);
 
         userService.updateUser(1L, userRequest);
 
@@ -326,6 +544,7 @@ private void setFieldValue(Object object, String fieldName, Object value) throws
         assertEquals("123456789", userEntity.getPhone());
         assertEquals("Updated bio", userEntity.getBio());
         verify(userRepository).save(userEntity);
+        verify(publisher).publishEvent(new UserChangedEvent(userEntity.getId(), userEntity.getUserId()));
     }
 
     @Test
@@ -336,7 +555,7 @@ private void setFieldValue(Object object, String fieldName, Object value) throws
         userRequest.setEmail("different@example.com");
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(userEntity));
-        when(userRepository.existsByEmail("different@example.com")).thenReturn(true);
+        when(userRepository.existsByEmailNormalized("different@example.com")).thenReturn(true);
 
         ApiException exception = assertThrows(ApiException.class,
             () -> userService.updateUser(1L, userRequest));
@@ -390,18 +609,70 @@ private void setFieldValue(Object object, String fieldName, Object value) throws
 
     @Test
     void getUserByUserIdWhenExisting() {
-        when(userRepository.findUserByUserId("user123")).thenReturn(Optional.of(userEntity));
-        when(credentialRepository.getCredentialByUserEntityId(userEntity.getId())).thenReturn(Optional.of(credentialEntity));
+        when(userRepository.findViewByUserId("user123")).thenReturn(Optional.of(userView(LocalDateTime.now())));
 
         User user = userService.getUserByUserId("user123");
 
         assertNotNull(user);
         assertEquals("user123", user.getUserId());
+        assertEquals(Authority.USER.getValue(), user.getAuthorities());
+        assertTrue(user.isCredentialsNonExpired());
+        verifyNoInteractions(credentialRepository);
+    }
+
+    @Test
+    void getUserByUserIdServesRepeatedReadsFromTheProfileCacheUntilTheUserChanges() {
+        when(userRepository.findViewByUserId("user123")).thenReturn(Optional.of(userView(LocalDateTime.now())));
+
+        userService.getUserByUserId("user123").setFirstName("Changed by the caller");
+        User cached = userService.getUserByUserId("user123");
+        userProfileCache.onUserChanged(new UserChangedEvent(1L, null));
+        userService.getUserByUserId("user123");
+
+        assertEquals("John", cached.getFirstName());
+        verify(userRepository, times(2)).findViewByUserId("user123");
+        assertEquals(1, userProfileCache.getStats().hits());
+        assertEquals(2, userProfileCache.getStats().misses());
+    }
+
+    @Test
+    void getUserByUserIdDoesNotJoinALoadThatStartedBeforeAChange() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        UserView locked = new UserView(1L, 1L, 1L, "user123", "John", "Doe", "test@example.com", "", "", "",
+                LocalDate.now(), LocalDateTime.now(), LocalDateTime.now(), Authority.USER.name(), Authority.USER,
+                true, false, true, false, 1, LocalDateTime.now());
+        when(userRepository.findViewByUserId("user123")).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return Optional.of(userView(LocalDateTime.now()));
+        }).thenReturn(Optional.of(locked));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<User> stale = executor.submit(() -> userService.getUserByUserId("user123"));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            userProfileCache.onUserChanged(new UserChangedEvent(1L, "user123"));
+
+            assertFalse(userService.getUserByUserId("user123").isAccountNonLocked());
+            release.countDown();
+            assertTrue(stale.get(5, TimeUnit.SECONDS).isAccountNonLocked());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertFalse(userService.getUserByUserId("user123").isAccountNonLocked());
+        assertEquals(0, userLookups.getStats().coalesced());
+    }
+
+    @Test
+    void getUserByUserIdReportsExpiredCredentials() {
+        when(userRepository.findViewByUserId("user123")).thenReturn(Optional.of(userView(LocalDateTime.now().minusDays(91))));
+
+        assertFalse(userService.getUserByUserId("user123").isCredentialsNonExpired());
     }
 
     @Test
     void getUserByUserIdWhenNotExistingThrowsException() {
-        when(userRepository.findUserByUserId("nonexistent")).thenReturn(Optional.empty());
+        when(userRepository.findViewByUserId("nonexistent")).thenReturn(Optional.empty());
 
         ApiException exception = assertThrows(ApiException.class,
                 () -> userService.getUserByUserId("nonexistent"));
@@ -411,7 +682,7 @@ private void setFieldValue(Object object, String fieldName, Object value) throws
 
     @Test
     void lockedUserSetsAccountNonLocked() {
-        when(userRepository.findByEmailIgnoreCase("test@example.com")).thenReturn(Optional.of(userEntity));
+        when(userRepository.findByEmailNormalized("test@example.com")).thenReturn(Optional.of(userEntity));
 
         userService.lockedUser("test@example.com");
 
@@ -421,7 +692,7 @@ private void setFieldValue(Object object, String fieldName, Object value) throws
 
     @Test
     void verifyMfaWithInvalidCode() {
-        when(userRepository.findByEmailIgnoreCase("test@example.com")).thenReturn(Optional.of(userEntity));
+        when(userRepository.findByEmailNormalized("test@example.com")).thenReturn(Optional.of(userEntity));
         when(mfaService.validateOtp("secretKey", 123456)).thenReturn(false);
         userEntity.setQrCodeSecret("secretKey");
 
@@ -432,7 +703,7 @@ private void setFieldValue(Object object, String fieldName, Object value) throws
 
     @Test
     void getRoleNameReturnsRoleWhenExists() {
-        when(roleRepository.findByNameIgnoreCase("USER")).thenReturn(Optional.of(roleEntity));
+        when(roleRegistry.findByName("USER")).thenReturn(Optional.of(roleEntity));
 
         RoleEntity role = userService.getRoleName("USER");
 
@@ -441,7 +712,7 @@ private void setFieldValue(Object object, String fieldName, Object value) throws
 
     @Test
     void getRoleNameThrowsExceptionWhenRoleNotFound() {
-        when(roleRepository.findByNameIgnoreCase("NONEXISTENT")).thenReturn(Optional.empty());
+        when(roleRegistry.findByName("NONEXISTENT")).thenReturn(Optional.empty());
 
         ApiException exception = assertThrows(ApiException.class,
                 () -> userService.getRoleName("NONEXISTENT"));
@@ -449,4 +720,15 @@ private void setFieldValue(Object object, String fieldName, Object value) throws
         assertEquals("Role not found", exception.getMessage());
     }
 
-}
\ No newline at end of file
+    private static UserView userView(LocalDateTime credentialUpdatedAt) {
+        LocalDateTime now = LocalDateTime.now();
+        return new UserView(1L, 1L, 1L, "user123", "John", "Doe", "test@example.com", "", "", "", LocalDate.now(),
+                now, now, Authority.USER.name(), Authority.USER, true, true, true, false, 0, credentialUpdatedAt);
+    }
+
+    private static SignedLinkProperties linkProperties() {
+        SignedLinkProperties properties = new SignedLinkProperties();
+        properties.setSecret("test-signed-link-secret");
+        return properties;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.user_service.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReferenceIdGeneratorTest {
+
+    @Test
+    void generatedIdHasVersion7AndIetfVariant() {
+        UUID id = ReferenceIdGenerator.generateId();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+    }
+
+    @Test
+    void generatedIdCarriesCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = ReferenceIdGenerator.generateId();
+        long after = System.currentTimeMillis();
+
+        long timestamp = id.getMostSignificantBits() >>> 16;
+
+        assertTrue(timestamp >= before, "timestamp must not be older than the call");
+        assertTrue(timestamp <= after + 1, "timestamp may only borrow from the next millisecond");
+    }
+
+    @Test
+    void idsAreStrictlyIncreasingInStringOrder() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(ReferenceIdGenerator.generate());
+        }
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0, "id " + i + " is not greater than its predecessor");
+        }
+    }
+
+    @Test
+    void burstBeyondTheSequenceDoesNotRunAheadOfTheClock() {
+        UUID last = null;
+        for (int i = 0; i < 200_000; i++) {
+            last = ReferenceIdGenerator.generateId();
+        }
+        long after = System.currentTimeMillis();
+
+        assertTrue((last.getMostSignificantBits() >>> 16) <= after + 1, "timestamp drifted ahead of the clock");
+    }
+
+    @Test
+    void clockStepBackContinuesFromTheLastTimestampWithoutWaiting() {
+        AtomicLong state = new AtomicLong();
+        long issued = ReferenceIdGenerator.nextState(state, () -> 1_000_000L);
+
+        long start = System.nanoTime();
+        long afterStepBack = 0;
+        for (int i = 0; i < 1000; i++) {
+            afterStepBack = ReferenceIdGenerator.nextState(state, () -> 1_000_000L - 60_000);
+        }
+        long waited = System.nanoTime() - start;
+
+        assertEquals(issued + 1000, afterStepBack, "the sequence continues under the last timestamp");
+        assertTrue(waited < TimeUnit.SECONDS.toNanos(1), "waited " + waited + " ns for a one-minute step back");
+    }
+
+    @Test
+    void indexInsertsStayOnTheRightEdge() {
+        // Simulates a B-tree on reference_id: every new key must be appended after the current maximum,
+        // so the index fills pages sequentially instead of splitting pages all over the tree.
+        List<String> index = new ArrayList<>();
+        int outOfOrderInserts = 0;
+        for (int i = 0; i < 50_000; i++) {
+            String id = ReferenceIdGenerator.generate();
+            int position = -Collections.binarySearch(index, id) - 1;
+            if (position != index.size()) {
+                outOfOrderInserts++;
+            }
+            index.add(position, id);
+        }
+
+        assertEquals(0, outOfOrderInserts);
+    }
+
+    @Test
+    void idsAreUniqueAcrossThreads() throws Exception {
+        int threads = 8;
+        int idsPerThread = 20_000;
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    Set<String> local = new HashSet<>();
+                    for (int i = 0; i < idsPerThread; i++) {
+                        local.add(ReferenceIdGenerator.generate());
+                    }
+                    ids.addAll(local);
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads * idsPerThread, ids.size());
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.userservice.controller;
 
 import com.example.userservice.dto.StatusCode;
+import com.example.userservice.dto.UserFilter;
 import com.example.userservice.dto.UserRq;
 import com.example.userservice.dto.UserRs;
+import com.example.userservice.dto.UserSliceRs;
 import com.example.userservice.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
@@ -13,6 +15,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -139,17 +142,18 @@ class UserControllerTest {
         UserRs userRs1 = UserRs.builder().id(1L).build();
         UserRs userRs2 = UserRs.builder().id(2L).build();
         UserRs userRs3 = UserRs.builder().id(3L).build();
-        List<UserRs> rs = new ArrayList<>(List.of(userRs1, userRs2, userRs3));
-        given(userService.findAll()).willReturn(rs);
+        UserSliceRs rs = UserSliceRs.builder().content(List.of(userRs1, userRs2, userRs3)).page(0).size(3).hasNext(true).build();
+        given(userService.findAll(any(UserFilter.class), any(Pageable.class))).willReturn(rs);
 
-        mockMvc.perform(get(baseUrl + "/user").accept(MediaType.APPLICATION_JSON))
+        mockMvc.perform(get(baseUrl + "/user").param("size", "3").param("role", "ROLE_USER").accept(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.flag").value(true))
                 .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS))
                 .andExpect(jsonPath("$.message").value("Found all"))
                 .andExpect(jsonPath("$.data").exists())
-                .andExpect(jsonPath("$.data.size()").value(3))
-                .andExpect(jsonPath("$.data[0].id").value(1))
-                .andExpect(jsonPath("$.data[1].id").value(2));
+                .andExpect(jsonPath("$.data.content.size()").value(3))
+                .andExpect(jsonPath("$.data.content[0].id").value(1))
+                .andExpect(jsonPath("$.data.content[1].id").value(2))
+                .andExpect(jsonPath("$.data.hasNext").value(true));
     }
 
     @Test
@@ -0,0 +1,152 @@
+package com.example.userservice.repo;
+
+import com.example.userservice.entity.Role;
+import com.example.userservice.entity.RoleType;
+import com.example.userservice.entity.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class UserRepositoryTest {
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    RoleRepository roleRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        Role admin = roleRepository.save(Role.builder().name(RoleType.ROLE_ADMIN).build());
+        Role user = roleRepository.save(Role.builder().name(RoleType.ROLE_USER).build());
+        for (int i = 1; i <= 5; i++) {
+            userRepository.save(User.builder().username("user" + i).email("user" + i + "@mail.com").password("password")
+                    .roles(Set.of(user)).enabled(i % 2 == 1).build());
+        }
+        userRepository.save(User.builder().username("admin").email("admin@mail.com").password("password")
+                .roles(Set.of(admin, user)).enabled(true).build());
+    }
+
+    @Test
+    void findIdsPagesFilteredAndSortedIds() {
+        Slice<Long> first = userRepository.findIds("USER", null, null, true,
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "username")));
+        Slice<Long> second = userRepository.findIds("USER", null, null, true,
+                PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "username")));
+
+        assertEquals(2, first.getNumberOfElements());
+        assertTrue(first.hasNext());
+        assertEquals(1, second.getNumberOfElements());
+        assertFalse(second.hasNext());
+        assertEquals("user5", userRepository.findById(first.getContent().get(0)).orElseThrow().getUsername());
+    }
+
+    @Test
+    void findIdsFiltersByRole() {
+        Slice<Long> admins = userRepository.findIds(null, null, RoleType.ROLE_ADMIN, null, PageRequest.of(0, 10));
+
+        assertEquals(1, admins.getNumberOfElements());
+    }
+
+    @Test
+    void findIdsAfterSeeksById() {
+        List<Long> all = userRepository.findIdsAfter(0L, null, null, null, null, Limit.of(100));
+        List<Long> rest = userRepository.findIdsAfter(all.get(1), null, null, null, null, Limit.of(100));
+
+        assertEquals(6, all.size());
+        assertEquals(all.subList(2, 6), rest);
+    }
+
+    @Test
+    void findAllWithRolesByIdInLoadsRolesInOneQuery() {
+        List<Long> ids = userRepository.findIdsAfter(0L, "admin", null, null, null, Limit.of(10));
+
+        List<User> users = userRepository.findAllWithRolesByIdIn(ids);
+
+        assertEquals(1, users.size());
+        assertEquals(2, users.get(0).getRoles().size());
+    }
+
+    @Test
+    void addRoleToUsersSkipsUsersThatAlreadyHaveIt() {
+        Role admin = roleRepository.findByName(RoleType.ROLE_ADMIN).orElseThrow();
+        List<Long> ids = userRepository.findIdsAfter(0L, null, null, null, null, Limit.of(100));
+
+        int added = userRepository.addRoleToUsers(ids, admin.getId());
+
+        assertEquals(5, added);
+        assertEquals(6, userRepository.findIds(null, null, RoleType.ROLE_ADMIN, null, PageRequest.of(0, 10))
+                .getNumberOfElements());
+    }
+
+    @Test
+    void findAllLoadsUsersAndRolesInOneStatementWhateverTheNumberOfUsers() {
+        assertEquals(1, statementsToLoadAllRoles());
+
+        Role user = roleRepository.findByName(RoleType.ROLE_USER).orElseThrow();
+        for (int i = 6; i <= 50; i++) {
+            userRepository.save(User.builder().username("user" + i).email("user" + i + "@mail.com").password("password")
+                    .roles(Set.of(user)).enabled(true).build());
+        }
+        assertEquals(1, statementsToLoadAllRoles());
+    }
+
+    @Test
+    void pagedFindAllBatchLoadsRoles() {
+        Statistics statistics = freshStatistics();
+
+        List<User> users = userRepository.findAll(PageRequest.of(0, 6, Sort.by("id"))).getContent();
+        users.forEach(u -> u.getRoles().size());
+
+        assertEquals(6, users.size());
+        // Page, count and one batch for the roles of all six users.
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByUsernameFetchesRolesWithTheUser() {
+        Statistics statistics = freshStatistics();
+
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+
+        assertEquals(2, admin.getRoles().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private long statementsToLoadAllRoles() {
+        Statistics statistics = freshStatistics();
+        List<User> users = userRepository.findAll();
+        users.forEach(u -> u.getRoles().size());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Statistics freshStatistics() {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
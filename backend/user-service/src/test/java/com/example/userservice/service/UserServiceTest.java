@@ -1,9 +1,11 @@
 package com.example.userservice.service;
 
 
+import com.example.userservice.dto.UserFilter;
 import com.example.userservice.dto.UserRq;
 import com.example.userservice.dto.UserRqToUserConverter;
 import com.example.userservice.dto.UserRs;
+import com.example.userservice.dto.UserSliceRs;
 import com.example.userservice.dto.UserToUserRsConverter;
 import com.example.userservice.entity.Role;
 import com.example.userservice.entity.RoleType;
@@ -21,6 +23,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -178,15 +185,39 @@ class UserServiceTest {
         User user1 = User.builder().id(1L).build();
         User user2 = User.builder().id(2L).build();
         User user3 = User.builder().id(3L).build();
-        List<User> users = new ArrayList<>(List.of(user1, user2, user3));
         UserRs userRs1 = UserRs.builder().id(1L).build();
-        given(userRepository.findAll()).willReturn(users);
+        given(userRepository.findIds(isNull(), isNull(), isNull(), isNull(), any(Pageable.class)))
+                .willReturn(new SliceImpl<>(List.of(3L, 1L, 2L), PageRequest.of(0, 3), true));
+        given(userRepository.findAllWithRolesByIdIn(List.of(3L, 1L, 2L))).willReturn(List.of(user1, user2, user3));
         given(userToUserRsConverter.convert(any(User.class))).willReturn(userRs1);
 
-        List<UserRs> rs = userService.findAll();
+        UserSliceRs rs = userService.findAll(new UserFilter(), PageRequest.of(0, 3));
 
         assertNotNull(rs);
-        assertEquals(3, rs.size());
+        assertEquals(3, rs.getContent().size());
+        assertTrue(rs.isHasNext());
+    }
+
+    @Test
+    void findAllWithUnknownSortPropertyThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.findAll(new UserFilter(), PageRequest.of(0, 3, Sort.by("password"))));
+    }
+
+    @Test
+    void streamAllReadsInChunksUntilExhausted() {
+        List<Long> firstChunk = java.util.stream.LongStream.rangeClosed(1, UserService.STREAM_CHUNK_SIZE).boxed().toList();
+        given(userRepository.findIdsAfter(eq(0L), isNull(), isNull(), isNull(), isNull(), any(Limit.class))).willReturn(firstChunk);
+        given(userRepository.findIdsAfter(eq((long) UserService.STREAM_CHUNK_SIZE), isNull(), isNull(), isNull(), isNull(), any(Limit.class)))
+                .willReturn(List.of());
+        given(userRepository.findAllWithRolesByIdIn(firstChunk))
+                .willReturn(firstChunk.stream().map(id -> User.builder().id(id).build()).toList());
+        given(userToUserRsConverter.convert(any(User.class))).willReturn(UserRs.builder().build());
+        List<UserRs> streamed = new ArrayList<>();
+
+        userService.streamAll(new UserFilter(), streamed::add);
+
+        assertEquals(UserService.STREAM_CHUNK_SIZE, streamed.size());
     }
 
     @Test